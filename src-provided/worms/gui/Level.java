@@ -3,6 +3,7 @@ package worms.gui;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -13,10 +14,20 @@ import java.util.List;
 
 import javax.imageio.ImageIO;
 
+import worms.model.PagedTerrainGrid;
+import worms.model.TerrainGrid;
+
 public class Level {
 
 	private static final String LEVELS_DIRECTORY = "levels";
 
+	/**
+	 * The terrain grid of maps with more pixels than this is paged in from a
+	 * terrain file instead of being kept in memory for every game.
+	 * The map image itself is still decoded in full, since it is drawn.
+	 */
+	private static final long PAGED_TERRAIN_THRESHOLD = 1L << 24;
+
 	private static class LoadException extends RuntimeException {
 
 		private static final long serialVersionUID = 1L;
@@ -112,6 +123,8 @@ public class Level {
 
 	private double scale;
 
+	private File terrainFile;
+
 	public Level(LevelFile file) {
 		this.file = file;
 	}
@@ -192,24 +205,63 @@ public class Level {
 		return scale * mapImage.getHeight();
 	}
 
-	public boolean[][] getPassableMap() {
-		final boolean[][] result = new boolean[getMapHeight()][getMapWidth()];
+	public TerrainGrid getPassableMap() {
+		final TerrainGrid result = new TerrainGrid(getMapHeight(), getMapWidth());
+		fillPassableMap(result, 0);
+		return result;
+	}
+
+	/**
+	 * Marks the impassable pixels of the map in the given band of rows,
+	 * whose first row is the given row of the map.
+	 */
+	private void fillPassableMap(TerrainGrid band, int fromRow) {
 		final byte[] bytes = ((DataBufferByte) mapImage.getRaster()
 				.getDataBuffer()).getData();
 		final int w = getMapWidth();
-		final int h = getMapHeight();
-		for (int row = 0; row < h; row++) {
+		final int h = Math.min(getMapHeight(), fromRow + band.getNbRows());
+		for (int row = fromRow; row < h; row++) {
 			final int offset = w * row;
 			for (int col = 0; col < w; col++) {
 				final byte alpha = bytes[4 * (offset + col)];
 				// alpha < 128 ((alpha & 0xf) == 0) => passable
 				// alpha >= 128 ((alpha & 0xf) != 0) => impassable
-				if (((int) alpha & 0xf0) == 0) {
-					result[row][col] = true;
+				if (((int) alpha & 0xf0) != 0) {
+					band.setPassable(row - fromRow, col, false);
 				}
 			}
 		}
-		return result;
+	}
+
+	/**
+	 * Returns the terrain for a new game on this level.
+	 * 
+	 * Small maps are kept in memory. Large maps are written once to a terrain
+	 * file, which every new game then maps in privately and pages in on
+	 * demand, so that starting a game does not inflate the whole map again.
+	 */
+	public TerrainGrid getTerrain() {
+		if ((long) getMapWidth() * getMapHeight() <= PAGED_TERRAIN_THRESHOLD) {
+			return getPassableMap();
+		}
+		try {
+			if (terrainFile == null) {
+				File file = File.createTempFile("worms-", ".terrain");
+				file.deleteOnExit();
+				PagedTerrainGrid.write(getMapHeight(), getMapWidth(),
+						new PagedTerrainGrid.BandSource() {
+							@Override
+							public void fill(TerrainGrid band, int fromRow) {
+								fillPassableMap(band, fromRow);
+							}
+						}, file);
+				terrainFile = file;
+			}
+			return PagedTerrainGrid.open(terrainFile);
+		} catch (IOException e) {
+			throw new LoadException("Could not page the terrain of level "
+					+ file.getName(), e);
+		}
 	}
 
 	/**
@@ -26,6 +26,8 @@ import worms.gui.messages.MessageType;
 import worms.model.Food;
 import worms.model.IFacade;
 import worms.model.World;
+import worms.model.WorldEvent;
+import worms.model.WorldListener;
 import worms.model.Worm;
 
 public class PlayGameScreen extends Screen {
@@ -103,13 +105,88 @@ public class PlayGameScreen extends Screen {
 		switchInputMode(new GameOverMode(this, getCurrentInputMode()));
 	}
 
+	/**
+	 * Objects of the world that changed since the last update, guarded by
+	 * changeLock. Filled by the world listener; only the sprites of these
+	 * objects are updated. The two sets are swapped on every update, so that
+	 * no new set is needed per frame.
+	 */
+	private final Object changeLock = new Object();
+	private Set<Object> changedObjects = new HashSet<Object>();
+	private Set<Object> updatingObjects = new HashSet<Object>();
+	private boolean allChanged = true;
+	private boolean membersChanged = true;
+	private World listenedWorld;
+
+	private final WorldListener worldListener = new WorldListener() {
+		@Override
+		public void worldChanged(World world, WorldEvent event, Object subject) {
+			synchronized (changeLock) {
+				switch (event) {
+				case WORM_ADDED:
+				case WORM_REMOVED:
+				case FOOD_ADDED:
+				case FOOD_EATEN:
+				case PROJECTILE_REMOVED:
+					membersChanged = true;
+					changedObjects.add(subject);
+					break;
+				case TERRAIN_CHANGED:
+					// jump paths and terrain markers of all worms may change
+					allChanged = true;
+					break;
+				default:
+					if (subject != null) {
+						changedObjects.add(subject);
+					}
+				}
+			}
+		}
+	};
+
+	private void listenToWorld() {
+		World world = getWorld();
+		if (world != listenedWorld) {
+			if (listenedWorld != null) {
+				getFacade().removeWorldListener(listenedWorld, worldListener);
+			}
+			if (world != null) {
+				getFacade().addWorldListener(world, worldListener);
+			}
+			listenedWorld = world;
+			synchronized (changeLock) {
+				allChanged = true;
+			}
+		}
+	}
+
 	public synchronized void update() {
-		removeInactiveSprites();
-		addNewSprites();
+		listenToWorld();
+		Set<Object> changed;
+		boolean all, members;
+		synchronized (changeLock) {
+			changed = changedObjects;
+			changedObjects = updatingObjects;
+			updatingObjects = changed;
+			all = allChanged;
+			members = membersChanged;
+			allChanged = false;
+			membersChanged = false;
+		}
+		if (all || members) {
+			removeInactiveSprites();
+			addNewSprites();
+		}
+		Worm selected = getFacade().getCurrentWorm(getWorld());
 		for (Sprite<?> sprite : sprites) {
-			sprite.update();
+			Object object = sprite.getObject();
+			if (all || changed.contains(object) || object == selected
+					|| !(sprite instanceof WormSprite || sprite instanceof FoodSprite)) {
+				sprite.update();
+			}
 		}
-		currentWorm = getFacade().getCurrentWorm(getWorld());
+		changed.clear();
+		currentWorm = selected;
 	}
 
 	protected void removeInactiveSprites() {
@@ -12,6 +12,7 @@ import worms.gui.GUIUtils;
 import worms.gui.Level;
 import worms.gui.game.sprites.FoodSprite;
 import worms.gui.game.sprites.WormSprite;
+import worms.model.Occupancy;
 import worms.model.World;
 
 public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
@@ -22,8 +23,12 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 
 	private static final boolean PAINT_PASSABLE = true;
 
+	private static final double ADJACENCY_MARGIN = 1.1;
+
 	private Image passableImage;
 
+	private long passableEpoch;
+
 	public PlayGameScreenDebugPainter(PlayGameScreen screen) {
 		super(screen);
 	}
@@ -37,9 +42,11 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 	protected void paintLevel() {
 		super.paintLevel();
 
-		if (passableImage == null) {
+		long epoch = getState().getFacade().getTerrainEpoch(getWorld());
+		if (passableImage == null || epoch != passableEpoch) {
 			BufferedImage image = createPassableImage();
 			this.passableImage = image;
+			this.passableEpoch = epoch;
 		}
 
 		currentGraphics.drawImage(passableImage, 0, 0, null);
@@ -81,11 +88,17 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 				double randomizedY = y + (-0.5 + Math.random()) * stepSize * 2;
 				Graphics2D targetGraphics = imGfx;
 				boolean isPassable = false;
-				if (getState().getFacade().isImpassable(world, randomizedX,
-						randomizedY, testRadius)) {
+				// only probe circles whose surroundings are mixed terrain
+				Occupancy occupancy = getOccupancyAround(world, randomizedX,
+						randomizedY, testRadius * ADJACENCY_MARGIN);
+				if (occupancy == Occupancy.IMPASSABLE
+						|| (occupancy == Occupancy.MIXED && getState()
+								.getFacade().isImpassable(world, randomizedX,
+										randomizedY, testRadius))) {
 					targetGraphics.setColor(new Color(255, 0, 0, 4));
-				} else if (getState().getFacade().isAdjacent(world,
-						randomizedX, randomizedY, testRadius)) {
+				} else if (occupancy == Occupancy.MIXED
+						&& getState().getFacade().isAdjacent(world,
+								randomizedX, randomizedY, testRadius)) {
 					targetGraphics = imAdjacencyGfx;
 					targetGraphics.setColor(new Color(0, 255, 0, 64));
 				} else {
@@ -106,6 +119,21 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 		return image;
 	}
 
+	/**
+	 * Returns the occupancy of the square around the given point, or mixed if
+	 * that square does not lie completely inside the given world.
+	 */
+	private Occupancy getOccupancyAround(World world, double x, double y,
+			double halfSide) {
+		Level level = getState().getLevel();
+		if (x - halfSide < 0 || x + halfSide > level.getWorldWidth()
+				|| y - halfSide < 0 || y + halfSide > level.getWorldHeight()) {
+			return Occupancy.MIXED;
+		}
+		return getState().getFacade().getOccupancy(world, x - halfSide,
+				y - halfSide, x + halfSide, y + halfSide);
+	}
+
 	@Override
 	protected void paintWorm(WormSprite sprite) {
 
@@ -126,22 +154,21 @@ public class PlayGameScreenDebugPainter extends PlayGameScreenPainter {
 	@Override
 	protected void drawJumpMarkers(WormSprite sprite) {
 
-		double[][] xys = sprite.getJumpSteps();
-		if (xys != null) {
-			double[] prevXY = xys[0];
-			for (int i = 1; i < xys.length; i++) {
-				double[] xy = xys[i];
-				if (xy != null && prevXY != null) {
-					double jumpX = getScreenX(xy[0]);
-					double jumpY = getScreenY(xy[1]);
-					currentGraphics.setColor(JUMP_MARKER_COLOR);
-					currentGraphics.drawLine((int) getScreenX(prevXY[0]),
-							(int) getScreenY(prevXY[1]), (int) jumpX,
-							(int) jumpY);
-					prevXY = xy;
-					drawCrossMarker(jumpX, jumpY, JUMP_MARKER_SIZE,
-							JUMP_MARKER_COLOR);
-				}
+		double[] xys = sprite.getJumpSteps();
+		if (xys != null && xys.length >= 2) {
+			double prevX = xys[0];
+			double prevY = xys[1];
+			for (int i = 2; i + 1 < xys.length; i += 2) {
+				double jumpX = getScreenX(xys[i]);
+				double jumpY = getScreenY(xys[i + 1]);
+				currentGraphics.setColor(JUMP_MARKER_COLOR);
+				currentGraphics.drawLine((int) getScreenX(prevX),
+						(int) getScreenY(prevY), (int) jumpX,
+						(int) jumpY);
+				prevX = xys[i];
+				prevY = xys[i + 1];
+				drawCrossMarker(jumpX, jumpY, JUMP_MARKER_SIZE,
+						JUMP_MARKER_COLOR);
 			}
 		}
 	}
@@ -8,6 +8,7 @@ import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
@@ -20,6 +21,7 @@ import worms.gui.game.sprites.FoodSprite;
 import worms.gui.game.sprites.ProjectileSprite;
 import worms.gui.game.sprites.WormSprite;
 import worms.model.ModelException;
+import worms.model.TerrainGrid;
 import worms.model.World;
 
 public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
@@ -69,12 +71,44 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 		super(screen);
 	}
 
+	private long terrainEpoch;
+
 	private void createBackgroundImage() {
-		if (scaledImage == null) {
-			scaledImage = GUIUtils.scaleTo(getState().getLevel().getMapImage(),
+		long epoch = getState().getFacade().getTerrainEpoch(getWorld());
+		if (scaledImage == null || epoch != terrainEpoch) {
+			BufferedImage mapImage = getState().getLevel().getMapImage();
+			if (epoch != 0) {
+				mapImage = clearPassablePixels(mapImage, getState()
+						.getFacade().getTerrain(getWorld()));
+			}
+			scaledImage = GUIUtils.scaleTo(mapImage,
 					getScreen().getScreenWidth(),
 					getScreen().getScreenHeight(), Image.SCALE_SMOOTH);
+			terrainEpoch = epoch;
+		}
+	}
+
+	/**
+	 * Returns a copy of the given map image in which every pixel that is
+	 * passable in the given terrain (e.g., because of a crater) is transparent.
+	 */
+	private static BufferedImage clearPassablePixels(BufferedImage mapImage,
+			TerrainGrid terrain) {
+		int w = mapImage.getWidth();
+		int h = mapImage.getHeight();
+		BufferedImage result = new BufferedImage(w, h,
+				BufferedImage.TYPE_INT_ARGB);
+		int[] pixels = new int[w];
+		for (int row = 0; row < h; row++) {
+			mapImage.getRGB(0, row, w, 1, pixels, 0, w);
+			for (int col = 0; col < w; col++) {
+				if (terrain.isPassable(row, col)) {
+					pixels[col] &= 0x00ffffff;
+				}
+			}
+			result.setRGB(0, row, w, 1, pixels, 0, w);
 		}
+		return result;
 	}
 
 	protected GameState getState() {
@@ -298,15 +332,13 @@ public class PlayGameScreenPainter extends AbstractPainter<PlayGameScreen> {
 	}
 
 	protected void drawJumpMarkers(WormSprite sprite) {
-		double[][] xys = sprite.getJumpSteps();
+		double[] xys = sprite.getJumpSteps();
 		if (xys != null) {
-			for (double[] xy : xys) {
-				if (xy != null) {
-					double jumpX = getScreenX(xy[0]);
-					double jumpY = getScreenY(xy[1]);
-					drawCrossMarker(jumpX, jumpY, JUMP_MARKER_SIZE,
-							JUMP_MARKER_COLOR);
-				}
+			for (int i = 0; i + 1 < xys.length; i += 2) {
+				double jumpX = getScreenX(xys[i]);
+				double jumpY = getScreenY(xys[i + 1]);
+				drawCrossMarker(jumpX, jumpY, JUMP_MARKER_SIZE,
+						JUMP_MARKER_COLOR);
 			}
 		}
 	}
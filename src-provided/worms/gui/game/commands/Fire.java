@@ -26,7 +26,7 @@ public class Fire extends Command {
 
 	@Override
 	protected boolean canStart() {
-		return worm != null;
+		return worm != null && getFacade().checkShoot(worm).isFeasible();
 	}
 
 	@Override
@@ -72,11 +72,11 @@ public class Fire extends Command {
 				ProjectileSprite sprite = getScreen().getSpriteOfTypeFor(
 						ProjectileSprite.class, projectile);
 
-				double[] xy = getFacade().getJumpStep(projectile,
-						getElapsedTime());
+				double x = getFacade().getJumpX(projectile, getElapsedTime());
+				double y = getFacade().getJumpY(projectile, getElapsedTime());
 
-				sprite.setCenterLocation(getScreen().getScreenX(xy[0]),
-						getScreen().getScreenY(xy[1]));
+				sprite.setCenterLocation(getScreen().getScreenX(x),
+						getScreen().getScreenY(y));
 			}
 		} catch (ModelException e) {
 			e.printStackTrace();
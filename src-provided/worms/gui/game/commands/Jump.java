@@ -4,6 +4,7 @@ import worms.gui.GUIConstants;
 import worms.gui.game.PlayGameScreen;
 import worms.gui.game.sprites.WormSprite;
 import worms.gui.messages.MessageType;
+import worms.model.Feasibility;
 import worms.model.IFacade;
 import worms.model.ModelException;
 import worms.model.Worm;
@@ -25,15 +26,15 @@ public class Jump extends Command {
 
 	@Override
 	protected boolean canStart() {
-		return getWorm() != null;
+		return getWorm() != null && getFacade().checkJump(getWorm()).isFeasible();
 	}
 
 	@Override
 	protected void doStartExecution() {
-		try {
-			this.jumpDuration = getFacade().getJumpTime(worm,
-					GUIConstants.JUMP_TIME_STEP);
-		} catch (ModelException e) {
+		Feasibility jump = getFacade().checkJump(getWorm());
+		if (jump.isFeasible()) {
+			this.jumpDuration = jump.getValue();
+		} else {
 			cancelExecution();
 		}
 	}
@@ -75,10 +76,12 @@ public class Jump extends Command {
 						completeExecution();
 					}
 				} else {
-					double[] xy = getFacade().getJumpStep(getWorm(),
+					double x = getFacade().getJumpX(getWorm(),
+							getElapsedTime());
+					double y = getFacade().getJumpY(getWorm(),
 							getElapsedTime());
-					sprite.setCenterLocation(getScreen().getScreenX(xy[0]),
-							getScreen().getScreenY(xy[1]));
+					sprite.setCenterLocation(getScreen().getScreenX(x),
+							getScreen().getScreenY(y));
 				}
 			} catch (ModelException e) {
 				e.printStackTrace();
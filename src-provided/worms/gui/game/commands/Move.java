@@ -32,7 +32,7 @@ public class Move extends Command {
 
 	@Override
 	protected boolean canStart() {
-		return getWorm() != null && getFacade().canMove(getWorm());
+		return getWorm() != null && getFacade().checkMove(getWorm()).isFeasible();
 	}
 
 	private double getDuration() {
@@ -1,9 +1,10 @@
 package worms.gui.game.sprites;
 
-import worms.gui.GUIConstants;
 import worms.gui.GUIUtils;
 import worms.gui.game.ImageSprite;
 import worms.gui.game.PlayGameScreen;
+import worms.model.Feasibility;
+import worms.model.JumpSolution;
 import worms.model.ModelException;
 import worms.model.Worm;
 
@@ -16,7 +17,8 @@ public class WormSprite extends ImageSprite<Worm> {
 	private String selectedWeapon;
 	private boolean isJumping;
 	private boolean isMoving;
-	private double[][] xys;
+	private double[] xys;
+	private double[] spareXys;
 	private double orientation;
 	private String name;
 	private String teamName;
@@ -142,26 +144,38 @@ public class WormSprite extends ImageSprite<Worm> {
 		this.selectedWeapon = selectedWeapon;
 	}
 
-	protected static final double JUMP_MARKER_TIME_DISTANCE = 0.1; // worm-seconds
+	protected static final double JUMP_MARKER_TIME_DISTANCE = JumpSolution.ARC_TIME_STEP; // worm-seconds
 
 	private void updateJumpTime() {
+		Feasibility jump = getFacade().checkJump(getWorm());
+		if (!jump.isFeasible()) {
+			this.xys = null;
+			return;
+		}
 		try {
-			double time = getFacade().getJumpTime(getWorm(),
-					GUIConstants.JUMP_TIME_STEP);
-
-			int n = 1 + (int) (time / JUMP_MARKER_TIME_DISTANCE);
-			xys = new double[n][];
-			for (int i = 1; i <= n; i++) {
-				double dt = i * time / n;
-				double[] xy = getFacade().getJumpStep(getWorm(), dt);
-				xys[i - 1] = xy;
-			}
+			// the worm keeps its jump solution until its state changes, so
+			// this copies the arc instead of sampling the trajectory again
+			JumpSolution solution = getFacade().getJumpSolution(getWorm());
+			int n = solution.getNbArcPoints();
+			// fill the spare buffer and swap it in, rather than refilling the
+			// array the painter may be drawing
+			double[] buffer = spareXys;
+			if (buffer == null || buffer.length != 2 * n)
+				buffer = new double[2 * n];
+			solution.copyArc(buffer);
+			this.spareXys = this.xys;
+			this.xys = buffer;
 		} catch (ModelException e) {
 			this.xys = null;
 		}
 	}
 
-	public synchronized double[][] getJumpSteps() {
+	/**
+	 * Returns the locations on the jump trajectory of this worm, with the
+	 * x-coordinate and y-coordinate of each location after each other, or null
+	 * if the worm cannot jump.
+	 */
+	public synchronized double[] getJumpSteps() {
 		return xys;
 	}
 
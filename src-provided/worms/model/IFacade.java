@@ -1,6 +1,7 @@
 package worms.model;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
 
 import worms.gui.game.IActionHandler;
@@ -86,6 +87,12 @@ public interface IFacade {
 	 */
 	void addNewWorm(World world, Program program);
 
+	/**
+	 * Adds the given listener to the given world. From then on, the listener
+	 * is told about every change of the world.
+	 */
+	void addWorldListener(World world, WorldListener listener);
+
 	/**
 	 * Returns whether or not the given worm can fall down
 	 */
@@ -101,6 +108,31 @@ public interface IFacade {
 	 */
 	boolean canTurn(Worm worm, double angle);
 
+	/**
+	 * Returns whether or not the given worm can jump, and why not if it cannot.
+	 * 
+	 * If the worm can jump, the value of the result is the time the jump takes.
+	 * This method never throws an exception, so it can be called on every frame.
+	 */
+	Feasibility checkJump(Worm worm);
+
+	/**
+	 * Returns whether or not the given worm can move, and why not if it cannot.
+	 * 
+	 * This method never throws an exception, so it can be called on every frame.
+	 */
+	Feasibility checkMove(Worm worm);
+
+	/**
+	 * Returns whether or not the given worm can shoot with its selected weapon,
+	 * and why not if it cannot.
+	 * 
+	 * If the worm can shoot, the value of the result is the number of action
+	 * points the shot costs. This method never throws an exception, so it can
+	 * be called on every frame.
+	 */
+	Feasibility checkShoot(Worm worm);
+
 	/**
 	 * Create a new food ration that is positioned at the given location in the given world.
 	 * 
@@ -138,6 +170,24 @@ public interface IFacade {
 	public World createWorld(double width, double height,
 			boolean[][] passableMap, Random random);
 
+	/**
+	 * Creates a new world from a terrain grid.
+	 * 
+	 * @param width The width of the world (in meter)
+	 * 
+	 * @param height The height of the world (in meter)
+	 * 
+	 * @param terrain A terrain grid indicating which parts of the terrain are passable and impassable,
+	 *  with the same orientation as the passable map of {@link #createWorld(double, double, boolean[][], Random)}.
+	 * 
+	 * @param random A random number generator, seeded with the value obtained from the command line or from GUIOptions,
+	 *  that can be used to randomize aspects of the world in a repeatable way.
+	 * 
+	 * @return The world.
+	 */
+	public World createWorld(double width, double height,
+			TerrainGrid terrain, Random random);
+
 	/**
 	 * Create a new worm that is positioned at the given location in the given world,
 	 * looks in the given direction, has the given radius and the given name.
@@ -210,6 +260,40 @@ public interface IFacade {
 	 */
 	double[] getJumpStep(Worm worm, double t);
 
+	/**
+	 * Returns the x-coordinate of the location on the jump trajectory of the
+	 * given projectile after a time t.
+	 */
+	double getJumpX(Projectile projectile, double t);
+
+	/**
+	 * Returns the y-coordinate of the location on the jump trajectory of the
+	 * given projectile after a time t.
+	 */
+	double getJumpY(Projectile projectile, double t);
+
+	/**
+	 * Returns the x-coordinate of the location on the jump trajectory of the
+	 * given worm after a time t.
+	 */
+	double getJumpX(Worm worm, double t);
+
+	/**
+	 * Returns the y-coordinate of the location on the jump trajectory of the
+	 * given worm after a time t.
+	 */
+	double getJumpY(Worm worm, double t);
+
+	/**
+	 * Returns the solution of a jump of the given worm in its current state:
+	 * the time the jump takes, the location where it lands and the locations on
+	 * its trajectory, at most JumpSolution.ARC_TIME_STEP worm-seconds apart.
+	 * 
+	 * The solution is kept by the worm until its state or the terrain changes,
+	 * so asking for it again is cheap.
+	 */
+	JumpSolution getJumpSolution(Worm worm);
+
 	/**
 	 * Determine the time that the given projectile can jump until it hits the terrain, hits a worm, or leaves the world.
 	 * The time should be determined using the given elementary time interval.
@@ -261,6 +345,18 @@ public interface IFacade {
 	 */
 	String getName(Worm worm);
 
+	/**
+	 * Returns whether the part of the terrain of the given world that overlaps
+	 * the given rectangle is passable, impassable or mixed.
+	 * 
+	 * @param world The world whose terrain to check
+	 * @param minX The smallest x-coordinate of the rectangle
+	 * @param minY The smallest y-coordinate of the rectangle
+	 * @param maxX The largest x-coordinate of the rectangle
+	 * @param maxY The largest y-coordinate of the rectangle
+	 */
+	Occupancy getOccupancy(World world, double minX, double minY, double maxX, double maxY);
+
 	/**
 	 * Returns the current orientation of the given worm (in radians).
 	 */
@@ -298,6 +394,17 @@ public interface IFacade {
 	 */
 	String getTeamName(Worm worm);
 
+	/**
+	 * Returns the terrain grid of the given world.
+	 */
+	TerrainGrid getTerrain(World world);
+
+	/**
+	 * Returns the number of times the terrain of the given world has changed,
+	 * for instance because a projectile blasted a crater in it.
+	 */
+	long getTerrainEpoch(World world);
+
 	/**
 	 * Returns the name of a single worm if that worm is the winner, or the name
 	 * of a team if that team is the winner. This method should null if there is no winner.
@@ -422,6 +529,14 @@ public interface IFacade {
 	 */
 	void move(Worm worm);
 
+	/**
+	 * Create and add the given numbers of new worms and new food rations to the given world,
+	 * each at a random adjacent location, as with addNewWorm and addNewFood.
+	 * The i-th new worm behaves according to the i-th given program, or is controlled by the player
+	 * if there is no such program or it is null.
+	 */
+	void populate(World world, int nbWorms, int nbFood, List<Program> programs);
+
 	/**
 	 * Renames the given worm.
 	 */
@@ -452,6 +567,11 @@ public interface IFacade {
 	 */
 	void startNextTurn(World world);
 
+	/**
+	 * Removes the given listener from the given world.
+	 */
+	void removeWorldListener(World world, WorldListener listener);
+
 	/**
 	 * Turns the given worm by the given angle.
 	 */
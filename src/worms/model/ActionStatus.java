@@ -0,0 +1,41 @@
+package worms.model;
+
+/**
+ * An enumeration of the outcomes of a check whether a worm can perform an action,
+ * such as a jump, a move or a shot.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public enum ActionStatus {
+	
+	/**
+	 * The action can be performed.
+	 */
+	FEASIBLE,
+	
+	/**
+	 * The worm does not belong to a world.
+	 */
+	NO_WORLD,
+	
+	/**
+	 * The worm has too few action points for the action.
+	 */
+	NO_ACTION_POINTS,
+	
+	/**
+	 * The direction of the worm does not allow the action.
+	 */
+	INVALID_DIRECTION,
+	
+	/**
+	 * The terrain around the worm does not allow the action.
+	 */
+	BLOCKED,
+	
+	/**
+	 * The worm has no weapon selected.
+	 */
+	NO_WEAPON
+}
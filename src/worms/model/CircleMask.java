@@ -0,0 +1,192 @@
+package worms.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of circle masks involving a radius, a scale factor and the offsets
+ * of the points that are sampled on a circle with that radius and scale factor.
+ * 	A world samples one point per degree on the perimeter of a circle when it checks
+ * 	whether that circle is impassable or adjacent. A circle mask holds the offsets
+ * 	of those points from the centre of the circle, so that these checks do not have to
+ * 	compute any sine or cosine. The offsets are computed with exactly the same expressions
+ * 	as the sampled points themselves, so a check using a mask gives the same result as a
+ * 	check that computes the points directly.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+class CircleMask {
+
+	/**
+	 * Create a new circle mask with the given radius and scale factor.
+	 *
+	 * @param 	radius
+	 * 			The radius of the circle of this new mask.
+	 * @param 	factor
+	 * 			The factor with which the radius is scaled.
+	 * @post	| for each k in 0..getNbSamples()-1:
+	 * 			|	new.getDx(k) == Math.cos(k*Math.PI/180)*radius*factor &&
+	 * 			|	new.getDy(k) == Math.sin(k*Math.PI/180)*radius*factor
+	 */
+	@Raw
+	private CircleMask(double radius, double factor){
+		this.radius = radius;
+		this.factor = factor;
+		this.dx = new double[COSINES.length];
+		this.dy = new double[SINES.length];
+		for(int k = 0; k < COSINES.length; k++){
+			dx[k] = COSINES[k]*radius*factor;
+			dy[k] = SINES[k]*radius*factor;
+		}
+	}
+
+	/**
+	 * Return the circle mask for the given radius and scale factor.
+	 * 	Masks are cached, so asking twice for the same mask returns the same mask.
+	 *
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 * @param 	factor
+	 * 			The factor with which the radius is scaled.
+	 * @return	| result.getRadius() == radius && result.getFactor() == factor
+	 */
+	static CircleMask of(double radius, double factor){
+		ConcurrentHashMap<Double, CircleMask> cache = getCache(factor);
+		Double key = Double.valueOf(radius);
+		CircleMask mask = cache.get(key);
+		if(mask == null){
+			if(cache.size() >= MAX_CACHED_MASKS)
+				cache.clear();
+			mask = new CircleMask(radius, factor);
+			cache.put(key, mask);
+		}
+		return mask;
+	}
+
+	/**
+	 * Return the cache holding the masks with the given scale factor.
+	 */
+	private static ConcurrentHashMap<Double, CircleMask> getCache(double factor){
+		ConcurrentHashMap<Double, CircleMask> cache = CACHES.get(Double.valueOf(factor));
+		if(cache == null){
+			cache = new ConcurrentHashMap<Double, CircleMask>();
+			ConcurrentHashMap<Double, CircleMask> existing = CACHES.putIfAbsent(Double.valueOf(factor), cache);
+			if(existing != null)
+				cache = existing;
+		}
+		return cache;
+	}
+
+
+
+	/**
+	 * Return the radius of the circle of this mask.
+	 */
+	@Basic @Raw @Immutable
+	public double getRadius(){
+		return this.radius;
+	}
+
+	/**
+	 * Variable registering the radius of the circle of this mask.
+	 */
+	private final double radius;
+
+	/**
+	 * Return the factor with which the radius of this mask is scaled.
+	 */
+	@Basic @Raw @Immutable
+	public double getFactor(){
+		return this.factor;
+	}
+
+	/**
+	 * Variable registering the factor with which the radius of this mask is scaled.
+	 */
+	private final double factor;
+
+
+
+	/**
+	 * Return the number of points sampled on the circle of this mask.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbSamples(){
+		return dx.length;
+	}
+
+	/**
+	 * Return the horizontal offset of the given sample from the centre of the circle.
+	 *
+	 * @param 	k
+	 * 			The index of the sample.
+	 */
+	@Basic @Raw @Immutable
+	public double getDx(int k){
+		return dx[k];
+	}
+
+	/**
+	 * Return the vertical offset of the given sample from the centre of the circle.
+	 *
+	 * @param 	k
+	 * 			The index of the sample.
+	 */
+	@Basic @Raw @Immutable
+	public double getDy(int k){
+		return dy[k];
+	}
+
+	/**
+	 * Array registering the horizontal offsets of all samples.
+	 */
+	private final double[] dx;
+
+	/**
+	 * Array registering the vertical offsets of all samples.
+	 */
+	private final double[] dy;
+
+
+
+	/**
+	 * Final class variable registering the cosines of all sampled angles.
+	 */
+	private static final double[] COSINES;
+
+	/**
+	 * Final class variable registering the sines of all sampled angles.
+	 */
+	private static final double[] SINES;
+
+	// The angles are accumulated in steps of one degree, exactly like
+	// the sampling loop that these masks replace.
+	static{
+		int nbSamples = 0;
+		for(double angle = 0; angle < 2*Math.PI; angle += (Math.PI/180))
+			nbSamples++;
+		COSINES = new double[nbSamples];
+		SINES = new double[nbSamples];
+		int k = 0;
+		for(double angle = 0; angle < 2*Math.PI; angle += (Math.PI/180)){
+			COSINES[k] = Math.cos(angle);
+			SINES[k] = Math.sin(angle);
+			k++;
+		}
+	}
+
+	/**
+	 * Final class variable referencing the caches of masks, per scale factor.
+	 */
+	private static final ConcurrentHashMap<Double, ConcurrentHashMap<Double, CircleMask>> CACHES =
+			new ConcurrentHashMap<Double, ConcurrentHashMap<Double, CircleMask>>();
+
+	/**
+	 * Final class variable registering the maximum number of cached masks per scale factor.
+	 */
+	private static final int MAX_CACHED_MASKS = 256;
+}
@@ -0,0 +1,73 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of contacts involving the time at which a circle following a trajectory
+ * makes contact and the worm it makes contact with, if any.
+ * 	A contact without a worm is a contact with impassable terrain
+ * 	or with the border of a world.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class Contact {
+
+	/**
+	 * Create a new contact at the given time with the given worm.
+	 *
+	 * @param 	time
+	 * 			The time of this new contact.
+	 * @param 	worm
+	 * 			The worm of this new contact, or null for a contact with the terrain.
+	 * @post	| new.getTime() == time
+	 * @post	| new.getWorm() == worm
+	 */
+	public Contact(double time, Worm worm){
+		this.time = time;
+		this.worm = worm;
+	}
+
+
+
+	/**
+	 * Return the time of this contact.
+	 * 	This is the last time at which the circle does not yet overlap
+	 * 	what it makes contact with, up to a small tolerance.
+	 */
+	@Basic @Raw @Immutable
+	public double getTime(){
+		return this.time;
+	}
+
+	/**
+	 * Variable registering the time of this contact.
+	 */
+	private final double time;
+
+	/**
+	 * Return the worm of this contact, or null if this is a contact with the terrain.
+	 */
+	@Basic @Raw @Immutable
+	public Worm getWorm(){
+		return this.worm;
+	}
+
+	/**
+	 * Variable referencing the worm of this contact.
+	 */
+	private final Worm worm;
+
+	/**
+	 * Check whether this contact is a contact with the terrain.
+	 *
+	 * @return	| result == (getWorm() == null)
+	 */
+	public boolean isTerrainContact(){
+		return worm == null;
+	}
+}
@@ -0,0 +1,308 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of distance fields over a terrain grid.
+ * 	For each cell, a distance field registers the euclidean distance (in meter)
+ * 	between the centre of that cell and the centre of the nearest impassable cell.
+ * 	The field is computed with the linear-time distance transform of Felzenszwalb
+ * 	and Huttenlocher: a one-dimensional transform along every column, followed
+ * 	by a one-dimensional transform along every row. Both passes are spread over
+ * 	all available processors.
+ * 	When cells of the terrain become passable, the field is only patched in a window
+ * 	around these cells. From then on, the field may underestimate the distance of
+ * 	some cells, but it never overestimates it.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+class DistanceField {
+
+	/**
+	 * Create a new distance field for the given terrain grid.
+	 *
+	 * @param 	terrain
+	 * 			The terrain grid to compute the distances for.
+	 * @param 	cellWidth
+	 * 			The width of a cell of the terrain grid (in meter).
+	 * @param 	cellHeight
+	 * 			The height of a cell of the terrain grid (in meter).
+	 * @post	| for each row, column in terrain:
+	 * 			|	new.getDistance(row, column) ==
+	 * 			|		min({ distance between the centres of (row, column) and (r, c)
+	 * 			|			| terrain.isImpassable(r, c) })
+	 */
+	DistanceField(final TerrainGrid terrain, final double cellWidth, final double cellHeight){
+		this.nbRows = terrain.getNbRows();
+		this.nbColumns = terrain.getNbColumns();
+		this.cellWidth = cellWidth;
+		this.cellHeight = cellHeight;
+		this.distances = new float[nbRows * nbColumns];
+		ParallelTasks.forRange(nbColumns, MIN_CHUNK_SIZE, new ParallelTasks.Chunk(){
+			@Override
+			public void run(int from, int to){
+				transformColumns(terrain, cellHeight, from, to);
+			}
+		});
+		ParallelTasks.forRange(nbRows, MIN_CHUNK_SIZE, new ParallelTasks.Chunk(){
+			@Override
+			public void run(int from, int to){
+				transformRows(cellWidth, from, to);
+			}
+		});
+	}
+
+	/**
+	 * Create a new distance field with the same distances as the given distance field.
+	 *
+	 * @param 	original
+	 * 			The distance field to copy.
+	 * @post	| for each row, column in original:
+	 * 			|	new.getDistance(row, column) == original.getDistance(row, column)
+	 */
+	DistanceField(DistanceField original){
+		this.nbRows = original.nbRows;
+		this.nbColumns = original.nbColumns;
+		this.cellWidth = original.cellWidth;
+		this.cellHeight = original.cellHeight;
+		this.distances = original.distances.clone();
+	}
+
+
+
+	/**
+	 * Return the distance between the centre of the given cell and the centre
+	 * of the nearest impassable cell, or positive infinity if there is no
+	 * impassable cell at all. After an update, the result may be smaller
+	 * than that distance.
+	 *
+	 * @param 	row
+	 * 			The row of the cell.
+	 * @param 	column
+	 * 			The column of the cell.
+	 */
+	@Basic @Raw
+	public float getDistance(int row, int column){
+		return distances[row * nbColumns + column];
+	}
+
+	/**
+	 * Return the number of rows of this distance field.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbRows(){
+		return this.nbRows;
+	}
+
+	/**
+	 * Variable registering the number of rows of this distance field.
+	 */
+	private final int nbRows;
+
+	/**
+	 * Return the number of columns of this distance field.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbColumns(){
+		return this.nbColumns;
+	}
+
+	/**
+	 * Variable registering the number of columns of this distance field.
+	 */
+	private final int nbColumns;
+
+	/**
+	 * Variable registering the width of a cell of the terrain grid (in meter).
+	 */
+	private final double cellWidth;
+
+	/**
+	 * Variable registering the height of a cell of the terrain grid (in meter).
+	 */
+	private final double cellHeight;
+
+	/**
+	 * Array registering the distances of all cells, row after row.
+	 * 	While the field is being built, it holds squared distances.
+	 */
+	private final float[] distances;
+
+
+
+	/**
+	 * Patch this distance field after some cells in the given window of the given
+	 * terrain grid have become passable.
+	 * 	Clearing cells never brings impassable terrain closer, so the old distances
+	 * 	are still valid. For the cells in the window, the distance to the nearest
+	 * 	impassable cell inside the window is computed again. The nearest impassable
+	 * 	cell outside the window is at least as far as the border of the window,
+	 * 	so the smallest of both is a valid distance as well, and the largest valid
+	 * 	distance is kept.
+	 *
+	 * @param 	terrain
+	 * 			The terrain grid of this distance field.
+	 * @param 	fromRow
+	 * 			The first row of the window (inclusive).
+	 * @param 	fromColumn
+	 * 			The first column of the window (inclusive).
+	 * @param 	toRow
+	 * 			The last row of the window (exclusive).
+	 * @param 	toColumn
+	 * 			The last column of the window (exclusive).
+	 * @pre		No cell of the terrain grid has become impassable since this field was built.
+	 * @post	| for each row, column in terrain:
+	 * 			|	new.getDistance(row, column) >= this.getDistance(row, column) &&
+	 * 			|	new.getDistance(row, column) <=
+	 * 			|		min({ distance between the centres of (row, column) and (r, c)
+	 * 			|			| terrain.isImpassable(r, c) })
+	 */
+	public void update(TerrainGrid terrain, int fromRow, int fromColumn, int toRow, int toColumn){
+		int height = toRow - fromRow, width = toColumn - fromColumn;
+		if(height <= 0 || width <= 0)
+			return;
+		int size = Math.max(height, width);
+		double[] f = new double[size];
+		double[] d = new double[size];
+		int[] v = new int[size];
+		double[] z = new double[size + 1];
+		double[] window = new double[height * width];
+		for(int column = 0; column < width; column++){
+			for(int row = 0; row < height; row++)
+				f[row] = terrain.isImpassable(fromRow + row, fromColumn + column) ? 0 : INFINITY;
+			transform(f, d, v, z, height, cellHeight);
+			for(int row = 0; row < height; row++)
+				window[row * width + column] = d[row];
+		}
+		for(int row = 0; row < height; row++){
+			System.arraycopy(window, row * width, f, 0, width);
+			transform(f, d, v, z, width, cellWidth);
+			for(int column = 0; column < width; column++){
+				double distance = (d[column] >= INFINITY) ? Double.POSITIVE_INFINITY : Math.sqrt(d[column]);
+				if(fromRow > 0)
+					distance = Math.min(distance, (row + 1) * cellHeight);
+				if(toRow < nbRows)
+					distance = Math.min(distance, (height - row) * cellHeight);
+				if(fromColumn > 0)
+					distance = Math.min(distance, (column + 1) * cellWidth);
+				if(toColumn < nbColumns)
+					distance = Math.min(distance, (width - column) * cellWidth);
+				int index = (fromRow + row) * nbColumns + fromColumn + column;
+				distances[index] = Math.max(distances[index], (float)distance);
+			}
+		}
+	}
+
+
+
+	/**
+	 * Store, for each cell of the given columns, the squared distance
+	 * to the nearest impassable cell in the same column.
+	 */
+	@Model
+	private void transformColumns(TerrainGrid terrain, double cellHeight, int fromColumn, int toColumn){
+		double[] f = new double[nbRows];
+		double[] d = new double[nbRows];
+		int[] v = new int[nbRows];
+		double[] z = new double[nbRows + 1];
+		for(int column = fromColumn; column < toColumn; column++){
+			for(int row = 0; row < nbRows; row++)
+				f[row] = terrain.isImpassable(row, column) ? 0 : INFINITY;
+			transform(f, d, v, z, nbRows, cellHeight);
+			for(int row = 0; row < nbRows; row++)
+				distances[row * nbColumns + column] = (float)d[row];
+		}
+	}
+
+	/**
+	 * Replace, for each cell of the given rows, the squared column distance by
+	 * the distance to the nearest impassable cell anywhere in the grid.
+	 */
+	@Model
+	private void transformRows(double cellWidth, int fromRow, int toRow){
+		double[] f = new double[nbColumns];
+		double[] d = new double[nbColumns];
+		int[] v = new int[nbColumns];
+		double[] z = new double[nbColumns + 1];
+		for(int row = fromRow; row < toRow; row++){
+			int offset = row * nbColumns;
+			for(int column = 0; column < nbColumns; column++)
+				f[column] = distances[offset + column];
+			transform(f, d, v, z, nbColumns, cellWidth);
+			for(int column = 0; column < nbColumns; column++)
+				distances[offset + column] =
+						(d[column] >= INFINITY) ? Float.POSITIVE_INFINITY : (float)Math.sqrt(d[column]);
+		}
+	}
+
+	/**
+	 * Compute the one-dimensional squared distance transform of the given
+	 * sampled function, as the lower envelope of the parabolas rooted at each sample.
+	 *
+	 * @param 	f
+	 * 			The sampled function.
+	 * @param 	d
+	 * 			The array to store the transform in.
+	 * @param 	v
+	 * 			Scratch space for the indices of the parabolas in the lower envelope.
+	 * @param 	z
+	 * 			Scratch space for the boundaries between those parabolas.
+	 * @param 	n
+	 * 			The number of samples.
+	 * @param 	spacing
+	 * 			The distance between two neighbouring samples (in meter).
+	 * @post	| for each q in 0..n-1:
+	 * 			|	d[q] == min({ f[p] + ((q-p)*spacing)^2 | p in 0..n-1 })
+	 */
+	@Model
+	private static void transform(double[] f, double[] d, int[] v, double[] z, int n, double spacing){
+		double spacing2 = spacing * spacing;
+		int k = -1;
+		for(int q = 0; q < n; q++){
+			if(f[q] >= INFINITY)
+				continue;
+			double s = 0;
+			while(k >= 0){
+				int p = v[k];
+				s = ((f[q] + q * (double)q * spacing2) - (f[p] + p * (double)p * spacing2))
+						/ (2 * spacing2 * (q - p));
+				if(s > z[k])
+					break;
+				k--;
+			}
+			k++;
+			v[k] = q;
+			z[k] = (k == 0) ? Double.NEGATIVE_INFINITY : s;
+			z[k + 1] = Double.POSITIVE_INFINITY;
+		}
+		if(k < 0){
+			for(int q = 0; q < n; q++)
+				d[q] = INFINITY;
+			return;
+		}
+		int j = 0;
+		for(int q = 0; q < n; q++){
+			while(z[j + 1] < q)
+				j++;
+			int p = v[j];
+			d[q] = (q - p) * (double)(q - p) * spacing2 + f[p];
+		}
+	}
+
+
+
+	/**
+	 * Final class variable registering the value used for an infinite squared distance.
+	 */
+	private static final double INFINITY = 1e30;
+
+	/**
+	 * Final class variable registering the minimal number of rows or columns
+	 * handled by one parallel chunk.
+	 */
+	private static final int MIN_CHUNK_SIZE = 64;
+}
@@ -2,6 +2,7 @@ package worms.model;
 
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
 
 
@@ -41,6 +42,17 @@ public class Facade implements IFacade {
 
 
 
+	@Override
+	public void addWorldListener(World world, WorldListener listener) 
+			throws ModelException{
+		try{
+			world.addListener(listener);
+		}
+		catch(IllegalArgumentException x){
+			throw new ModelException("IllegalArgumentException");
+		}
+	}
+
 	@Override
 	public boolean canFall(Worm worm) {
 		return worm.canFall();
@@ -56,6 +68,21 @@ public class Facade implements IFacade {
 		return worm.canTurn(angle);
 	}
 
+	@Override
+	public Feasibility checkJump(Worm worm) {
+		return worm.checkJump();
+	}
+
+	@Override
+	public Feasibility checkMove(Worm worm) {
+		return worm.checkMove();
+	}
+
+	@Override
+	public Feasibility checkShoot(Worm worm) {
+		return worm.getWeapon().checkShoot();
+	}
+
 	@Override
 	public Food createFood(World world, double x, double y) 
 			throws ModelException{
@@ -82,6 +109,19 @@ public class Facade implements IFacade {
 		}
 	}
 
+	@Override
+	public World createWorld(double width, double height,
+			TerrainGrid terrain, Random random) 
+					throws ModelException{
+		try{
+			World world = new World(width, height, terrain, random);
+			return world;
+		}
+		catch(IllegalArgumentException x){
+			throw new ModelException("IllegalArgumentException");
+		}
+	}
+
 	@Override
 	public void fall(Worm worm) 
 			throws ModelException{
@@ -137,6 +177,58 @@ public class Facade implements IFacade {
 		}
 	}
 
+	@Override
+	public double getJumpX(Projectile projectile, double t) {
+		return projectile.jumpX(t);
+	}
+
+	@Override
+	public double getJumpY(Projectile projectile, double t) {
+		return projectile.jumpY(t);
+	}
+
+	@Override
+	public double getJumpX(Worm worm, double t) 
+			throws ModelException{
+		try{
+			return worm.jumpX(t);
+		}
+		catch(IllegalActionPointsException x){
+			throw new ModelException("IllegalActionPointsException");
+		}
+		catch(IllegalDirectionException x){
+			throw new ModelException("IllegalDirectionException");
+		}
+	}
+
+	@Override
+	public double getJumpY(Worm worm, double t) 
+			throws ModelException{
+		try{
+			return worm.jumpY(t);
+		}
+		catch(IllegalActionPointsException x){
+			throw new ModelException("IllegalActionPointsException");
+		}
+		catch(IllegalDirectionException x){
+			throw new ModelException("IllegalDirectionException");
+		}
+	}
+
+	@Override
+	public JumpSolution getJumpSolution(Worm worm) 
+			throws ModelException{
+		try{
+			return worm.getJumpSolution();
+		}
+		catch(IllegalActionPointsException x){
+			throw new ModelException("IllegalActionPointsException");
+		}
+		catch(IllegalDirectionException x){
+			throw new ModelException("IllegalDirectionException");
+		}
+	}
+
 	@Override
 	public double getJumpTime(Projectile projectile, double timeStep) {
 		try{
@@ -189,6 +281,11 @@ public class Facade implements IFacade {
 		return worm.getName();
 	}
 
+	@Override
+	public Occupancy getOccupancy(World world, double minX, double minY, double maxX, double maxY) {
+		return world.getOccupancy(minX, minY, maxX, maxY);
+	}
+
 	@Override
 	public double getOrientation(Worm worm) {
 		return worm.getDirection();
@@ -221,6 +318,16 @@ public class Facade implements IFacade {
 		return worm.getTeam().getTeamName();
 	}
 
+	@Override
+	public TerrainGrid getTerrain(World world) {
+		return world.getTerrain();
+	}
+
+	@Override
+	public long getTerrainEpoch(World world) {
+		return world.getTerrainEpoch();
+	}
+
 	@Override
 	public String getWinner(World world) {
 		return world.getWinner();
@@ -335,6 +442,17 @@ public class Facade implements IFacade {
 		}
 	}
 
+	@Override
+	public void populate(World world, int nbWorms, int nbFood, List<Program> programs) 
+			throws ModelException{
+		try{
+			world.populate(nbWorms, nbFood, programs);
+		}
+		catch(IllegalArgumentException x){
+			throw new ModelException("IllegalArgumentException");
+		}
+	}
+
 	@Override
 	public void rename(Worm worm, String newName) 
 			throws ModelException{
@@ -377,6 +495,11 @@ public class Facade implements IFacade {
 		world.startNextTurn();
 	}
 
+	@Override
+	public void removeWorldListener(World world, WorldListener listener) {
+		world.removeListener(listener);
+	}
+
 	@Override
 	public void turn(Worm worm, double angle) {
 		if(worm.canTurn(angle))
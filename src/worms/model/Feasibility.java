@@ -0,0 +1,131 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of feasibilities involving the outcome of a check whether a worm can perform
+ * an action and, if it can, a value describing the action.
+ * 	Checks return a feasibility instead of throwing an exception, so that they can be
+ * 	made as often as needed, for instance on every frame. Infeasible outcomes are shared
+ * 	constants, so that a failing check does not allocate anything.
+ *
+ * @invar	| getStatus() != null
+ * @invar	| if(!isFeasible()) then Double.isNaN(getValue())
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class Feasibility {
+
+	/**
+	 * Create a new feasibility with the given status and value.
+	 *
+	 * @param 	status
+	 * 			The status of the new feasibility.
+	 * @param 	value
+	 * 			The value of the new feasibility.
+	 * @post	| new.getStatus() == status && new.getValue() == value
+	 */
+	@Raw
+	private Feasibility(ActionStatus status, double value){
+		this.status = status;
+		this.value = value;
+	}
+
+	/**
+	 * Return a feasible outcome with the given value.
+	 *
+	 * @param 	value
+	 * 			The value describing the feasible action.
+	 * @return	| result.getStatus() == ActionStatus.FEASIBLE && result.getValue() == value
+	 */
+	public static Feasibility feasible(double value){
+		return new Feasibility(ActionStatus.FEASIBLE, value);
+	}
+
+	/**
+	 * Return the infeasible outcome with the given status.
+	 *
+	 * @param 	status
+	 * 			The reason why the action cannot be performed.
+	 * @return	| result.getStatus() == status && Double.isNaN(result.getValue())
+	 * @throws	IllegalArgumentException("The given status is not a reason for infeasibility.")
+	 * 			| status == null || status == ActionStatus.FEASIBLE
+	 */
+	public static Feasibility infeasible(ActionStatus status) throws IllegalArgumentException{
+		if(status == null || status == ActionStatus.FEASIBLE)
+			throw new IllegalArgumentException("The given status is not a reason for infeasibility.");
+		return INFEASIBLE[status.ordinal()];
+	}
+
+	/**
+	 * Final class variable referencing the infeasible outcome of each status, by ordinal.
+	 */
+	private static final Feasibility[] INFEASIBLE = new Feasibility[ActionStatus.values().length];
+
+	static{
+		for(ActionStatus status: ActionStatus.values())
+			INFEASIBLE[status.ordinal()] = new Feasibility(status, Double.NaN);
+	}
+
+
+
+	/**
+	 * Return the status of this feasibility.
+	 */
+	@Basic @Raw @Immutable
+	public ActionStatus getStatus(){
+		return this.status;
+	}
+
+	/**
+	 * Variable referencing the status of this feasibility.
+	 */
+	private final ActionStatus status;
+
+	/**
+	 * Return the value of this feasibility, or NaN if the action cannot be performed.
+	 * 	What the value describes depends on the action that was checked.
+	 */
+	@Basic @Raw @Immutable
+	public double getValue(){
+		return this.value;
+	}
+
+	/**
+	 * Variable registering the value of this feasibility.
+	 */
+	private final double value;
+
+	/**
+	 * Check whether the action of this feasibility can be performed.
+	 *
+	 * @return	| result == (getStatus() == ActionStatus.FEASIBLE)
+	 */
+	public boolean isFeasible(){
+		return status == ActionStatus.FEASIBLE;
+	}
+
+	@Override
+	public boolean equals(Object other){
+		if(!(other instanceof Feasibility))
+			return false;
+		Feasibility feasibility = (Feasibility)other;
+		return status == feasibility.status &&
+				Double.doubleToLongBits(value) == Double.doubleToLongBits(feasibility.value);
+	}
+
+	@Override
+	public int hashCode(){
+		return 31*status.hashCode() + Double.valueOf(value).hashCode();
+	}
+
+	@Override
+	public String toString(){
+		return isFeasible() ? status + "(" + value + ")" : status.toString();
+	}
+}
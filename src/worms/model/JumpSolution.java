@@ -0,0 +1,155 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of jump solutions involving the time a jump of a worm takes, the point
+ * where it lands and a sample of the arc it follows.
+ * 	The arc is sampled at the times i*getTime()/n for i from 1 up to n, with n
+ * 	such that the samples lie at most ARC_TIME_STEP seconds apart.
+ *
+ * @invar	| getNbArcPoints() == 1 + (int)(getTime()/ARC_TIME_STEP)
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class JumpSolution {
+
+	/**
+	 * Create a new jump solution with the given time, landing point and arc.
+	 * 	The new solution takes over the given array, which may not be changed afterwards.
+	 *
+	 * @param 	time
+	 * 			The time of the jump of the new solution.
+	 * @param 	landingX
+	 * 			The x-coordinate of the landing point of the new solution.
+	 * @param 	landingY
+	 * 			The y-coordinate of the landing point of the new solution.
+	 * @param 	arc
+	 * 			The sampled arc of the new solution, with the x-coordinate and
+	 * 			y-coordinate of each point after each other.
+	 * @post	| new.getTime() == time
+	 * @post	| new.getLandingX() == landingX && new.getLandingY() == landingY
+	 * @post	| for each i in 0..arc.length/2-1:
+	 * 			|	new.getArcX(i) == arc[2*i] && new.getArcY(i) == arc[2*i+1]
+	 */
+	JumpSolution(double time, double landingX, double landingY, double[] arc){
+		this.time = time;
+		this.landingX = landingX;
+		this.landingY = landingY;
+		this.arc = arc;
+	}
+
+
+
+	/**
+	 * Return the time of the jump of this solution.
+	 * 	A time of pi or two times pi means that the jump ends outside the world.
+	 */
+	@Basic @Raw @Immutable
+	public double getTime(){
+		return this.time;
+	}
+
+	/**
+	 * Variable registering the time of the jump of this solution.
+	 */
+	private final double time;
+
+	/**
+	 * Check whether the jump of this solution ends outside the world.
+	 *
+	 * @return	| result == (getTime() == Math.PI || getTime() == 2*Math.PI)
+	 */
+	public boolean leavesWorld(){
+		return time == Math.PI || time == 2*Math.PI;
+	}
+
+	/**
+	 * Return the x-coordinate of the landing point of this solution.
+	 */
+	@Basic @Raw @Immutable
+	public double getLandingX(){
+		return this.landingX;
+	}
+
+	/**
+	 * Variable registering the x-coordinate of the landing point of this solution.
+	 */
+	private final double landingX;
+
+	/**
+	 * Return the y-coordinate of the landing point of this solution.
+	 */
+	@Basic @Raw @Immutable
+	public double getLandingY(){
+		return this.landingY;
+	}
+
+	/**
+	 * Variable registering the y-coordinate of the landing point of this solution.
+	 */
+	private final double landingY;
+
+	/**
+	 * Return the number of points of the sampled arc of this solution.
+	 */
+	@Raw @Immutable
+	public int getNbArcPoints(){
+		return arc.length/2;
+	}
+
+	/**
+	 * Return the x-coordinate of the point of the sampled arc with the given index.
+	 *
+	 * @param 	index
+	 * 			The index of the point, between 0 and getNbArcPoints() (exclusive).
+	 */
+	@Immutable
+	public double getArcX(int index){
+		return arc[2*index];
+	}
+
+	/**
+	 * Return the y-coordinate of the point of the sampled arc with the given index.
+	 *
+	 * @param 	index
+	 * 			The index of the point, between 0 and getNbArcPoints() (exclusive).
+	 */
+	@Immutable
+	public double getArcY(int index){
+		return arc[2*index + 1];
+	}
+
+	/**
+	 * Copy the sampled arc of this solution into the given array,
+	 * with the x-coordinate and y-coordinate of each point after each other.
+	 *
+	 * @param 	out
+	 * 			The array to copy into, at least 2*getNbArcPoints() long.
+	 * @post	| for each i in 0..getNbArcPoints()-1:
+	 * 			|	new.out[2*i] == getArcX(i) && new.out[2*i+1] == getArcY(i)
+	 * @throws	IllegalArgumentException("The given array is too short.")
+	 * 			| out.length < 2*getNbArcPoints()
+	 */
+	public void copyArc(double[] out) throws IllegalArgumentException{
+		if(out.length < arc.length)
+			throw new IllegalArgumentException("The given array is too short.");
+		System.arraycopy(arc, 0, out, 0, arc.length);
+	}
+
+	/**
+	 * Variable referencing the sampled arc of this solution.
+	 */
+	private final double[] arc;
+
+	/**
+	 * Final class variable registering the largest time (in seconds) between two points
+	 * of the sampled arc of a solution.
+	 */
+	public static final double ARC_TIME_STEP = 0.1;
+}
@@ -0,0 +1,113 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of move plans involving the direction a worm moves in, the distance it covers,
+ * the point where it ends up and the number of action points the move costs.
+ * 	A plan is the outcome of one sweep over all directions a worm can move in, so that
+ * 	checking whether a worm can move and moving it do not repeat that sweep.
+ *
+ * @invar	| getDistance() > 0 && getActionPointCost() >= 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class MovePlan {
+
+	/**
+	 * Create a new move plan with the given direction, distance, end point and cost.
+	 *
+	 * @param 	direction
+	 * 			The direction of the move of the new plan.
+	 * @param 	distance
+	 * 			The distance of the move of the new plan (in meter).
+	 * @param 	targetX
+	 * 			The x-coordinate of the end point of the new plan.
+	 * @param 	targetY
+	 * 			The y-coordinate of the end point of the new plan.
+	 * @param 	actionPointCost
+	 * 			The number of action points the move of the new plan costs.
+	 * @post	| new.getDirection() == direction && new.getDistance() == distance
+	 * @post	| new.getTargetX() == targetX && new.getTargetY() == targetY
+	 * @post	| new.getActionPointCost() == actionPointCost
+	 */
+	MovePlan(double direction, double distance, double targetX, double targetY, int actionPointCost){
+		this.direction = direction;
+		this.distance = distance;
+		this.targetX = targetX;
+		this.targetY = targetY;
+		this.actionPointCost = actionPointCost;
+	}
+
+
+
+	/**
+	 * Return the direction of the move of this plan.
+	 */
+	@Basic @Raw @Immutable
+	public double getDirection(){
+		return this.direction;
+	}
+
+	/**
+	 * Variable registering the direction of the move of this plan.
+	 */
+	private final double direction;
+
+	/**
+	 * Return the distance of the move of this plan (in meter).
+	 */
+	@Basic @Raw @Immutable
+	public double getDistance(){
+		return this.distance;
+	}
+
+	/**
+	 * Variable registering the distance of the move of this plan.
+	 */
+	private final double distance;
+
+	/**
+	 * Return the x-coordinate of the end point of this plan.
+	 */
+	@Basic @Raw @Immutable
+	public double getTargetX(){
+		return this.targetX;
+	}
+
+	/**
+	 * Variable registering the x-coordinate of the end point of this plan.
+	 */
+	private final double targetX;
+
+	/**
+	 * Return the y-coordinate of the end point of this plan.
+	 */
+	@Basic @Raw @Immutable
+	public double getTargetY(){
+		return this.targetY;
+	}
+
+	/**
+	 * Variable registering the y-coordinate of the end point of this plan.
+	 */
+	private final double targetY;
+
+	/**
+	 * Return the number of action points the move of this plan costs.
+	 */
+	@Basic @Raw @Immutable
+	public int getActionPointCost(){
+		return this.actionPointCost;
+	}
+
+	/**
+	 * Variable registering the number of action points the move of this plan costs.
+	 */
+	private final int actionPointCost;
+}
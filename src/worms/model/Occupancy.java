@@ -0,0 +1,26 @@
+package worms.model;
+
+/**
+ * An enumeration of the possible occupancies of a region of the terrain.
+ * 	A region is passable if all its cells are passable, impassable if all its
+ * 	cells are impassable, and mixed otherwise.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public enum Occupancy {
+	PASSABLE, IMPASSABLE, MIXED;
+
+	/**
+	 * Return the occupancy of a region made up of a region with this occupancy
+	 * and a region with the given occupancy.
+	 *
+	 * @param 	other
+	 * 			The occupancy of the other region.
+	 * @return	| if(this == other) then result == this
+	 * 			| else result == MIXED
+	 */
+	public Occupancy combine(Occupancy other){
+		return (this == other) ? this : MIXED;
+	}
+}
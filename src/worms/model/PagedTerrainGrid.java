@@ -0,0 +1,505 @@
+package worms.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of terrain grids whose cells are read from a terrain file on disk.
+ * 	A terrain file starts with a header of four integers (a magic number, a version,
+ * 	the number of rows and the number of columns), followed by square tiles of
+ * 	64 rows by 64 columns, tile row after tile row. Each tile holds one word
+ * 	of 64 cells for each of its rows, top row first.
+ * 	The file is mapped in memory privately, so that changes to a paged grid
+ * 	(such as craters) never reach the file and the same file can be opened
+ * 	for any number of games. A tile is only decoded when one of its cells is
+ * 	visited, and only a bounded number of decoded tiles is kept at a time.
+ * 	When a tile has to make room, the tiles kept are visited in turn and the first
+ * 	one that has not been used since the previous visit goes (a clock, approximating
+ * 	least recently used).
+ * 	Decoded tiles are never changed: a change to a word replaces its tile by a
+ * 	changed copy. Reading a cell of a tile that is kept therefore takes no lock;
+ * 	only decoding a tile and changing a word do.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class PagedTerrainGrid extends TerrainGrid {
+
+	/**
+	 * Create a new paged terrain grid with the given dimensions, reading
+	 * its tiles from the given segments of a terrain file.
+	 */
+	@Model
+	private PagedTerrainGrid(int nbRows, int nbColumns, MappedByteBuffer[] segments,
+			int maxCachedTiles){
+		super(nbRows, nbColumns, false);
+		this.segments = segments;
+		this.maxCachedTiles = maxCachedTiles;
+		this.sharesSegments = false;
+	}
+
+	/**
+	 * Create a new paged terrain grid with the same cells as the given paged terrain grid,
+	 * reading its tiles from the same segments.
+	 * 	The tiles the given grid has changed itself are shared, since tiles are never
+	 * 	changed; the new grid keeps the tiles it changes itself in memory, so that
+	 * 	they never reach the segments.
+	 */
+	@Model
+	private PagedTerrainGrid(PagedTerrainGrid original){
+		super(original.getNbRows(), original.getNbColumns(), false);
+		this.segments = original.segments;
+		this.maxCachedTiles = original.maxCachedTiles;
+		this.sharesSegments = true;
+		synchronized(original){
+			ownTiles.putAll(original.ownTiles);
+		}
+	}
+
+	/**
+	 * Open the given terrain file as a paged terrain grid.
+	 * 	Only the header of the file is read; tiles are read when they are first needed.
+	 *
+	 * @param 	file
+	 * 			The terrain file to open.
+	 * @return	| for each row, column in result:
+	 * 			|	result.isPassable(row, column) ==
+	 * 			|		the cell at that row and column in the given file is passable
+	 * @throws	IOException
+	 * 			The given file does not exist, cannot be read and written, or is not a terrain file.
+	 */
+	public static PagedTerrainGrid open(File file)
+			throws IOException{
+		return open(file, DEFAULT_MAX_CACHED_TILES);
+	}
+
+	/**
+	 * Open the given terrain file as a paged terrain grid that keeps at most
+	 * the given number of decoded tiles.
+	 * 	The tiles are mapped privately, so that changes to the grid never reach the file.
+	 * 	Such a mapping needs a channel opened for reading and writing, so the file must
+	 * 	be writable, even though it is never written.
+	 *
+	 * @param 	file
+	 * 			The terrain file to open.
+	 * @param 	maxCachedTiles
+	 * 			The maximum number of decoded tiles to keep.
+	 * @return	| for each row, column in result:
+	 * 			|	result.isPassable(row, column) ==
+	 * 			|		the cell at that row and column in the given file is passable
+	 * @throws	IOException("The given file does not exist.")
+	 * 			| !file.isFile()
+	 * @throws	IOException("The given file cannot be read and written.")
+	 * 			| !file.canRead() || !file.canWrite()
+	 * @throws	IOException
+	 * 			The given file could not be read, or is not a terrain file.
+	 * @throws	IllegalArgumentException("The given number of tiles is invalid.")
+	 * 			| maxCachedTiles <= 0
+	 */
+	public static PagedTerrainGrid open(File file, int maxCachedTiles)
+			throws IOException, IllegalArgumentException{
+		if(maxCachedTiles <= 0)
+			throw new IllegalArgumentException("The given number of tiles is invalid.");
+		if(!file.isFile())
+			throw new IOException("The given file does not exist.");
+		if(!file.canRead() || !file.canWrite())
+			throw new IOException("The given file cannot be read and written.");
+		RandomAccessFile input = new RandomAccessFile(file, "rw");
+		try{
+			if(input.length() < HEADER_SIZE || input.readInt() != MAGIC || input.readInt() != VERSION)
+				throw new IOException("The given file is not a terrain file.");
+			int nbRows = input.readInt();
+			int nbColumns = input.readInt();
+			if(nbRows <= 0 || nbColumns <= 0)
+				throw new IOException("The given file is not a terrain file.");
+			long nbTiles = getNbTiles(nbRows, nbColumns);
+			if(input.length() < HEADER_SIZE + nbTiles * TILE_BYTES)
+				throw new IOException("The given terrain file is truncated.");
+			FileChannel channel = input.getChannel();
+			MappedByteBuffer[] segments = new MappedByteBuffer[(int)((nbTiles + TILES_PER_SEGMENT - 1) / TILES_PER_SEGMENT)];
+			for(int segment = 0; segment < segments.length; segment++){
+				long firstTile = (long)segment * TILES_PER_SEGMENT;
+				long size = Math.min(TILES_PER_SEGMENT, nbTiles - firstTile) * TILE_BYTES;
+				segments[segment] = channel.map(FileChannel.MapMode.PRIVATE, HEADER_SIZE + firstTile * TILE_BYTES, size);
+			}
+			return new PagedTerrainGrid(nbRows, nbColumns, segments, maxCachedTiles);
+		}
+		finally{
+			input.close();
+		}
+	}
+
+	/**
+	 * Write the given terrain grid to the given terrain file.
+	 *
+	 * @param 	terrain
+	 * 			The terrain grid to write.
+	 * @param 	file
+	 * 			The file to write to.
+	 * @effect	| write(terrain.getNbRows(), terrain.getNbColumns(),
+	 * 			|	a band source copying the cells of terrain, file)
+	 * @throws	IOException
+	 * 			The given file could not be written.
+	 */
+	public static void write(final TerrainGrid terrain, File file)
+			throws IOException{
+		write(terrain.getNbRows(), terrain.getNbColumns(), new BandSource(){
+			@Override
+			public void fill(TerrainGrid band, int fromRow){
+				int toRow = Math.min(terrain.getNbRows(), fromRow + band.getNbRows());
+				for(int row = fromRow; row < toRow; row++){
+					for(int word = 0; word < band.getNbWordsPerRow(); word++)
+						band.setWord(row - fromRow, word, terrain.getWord(row, word));
+				}
+			}
+		}, file);
+	}
+
+	/**
+	 * Write a terrain file with the given dimensions, whose cells are given band
+	 * after band by the given band source.
+	 * 	Only one band of 64 rows is kept in memory at a time, so that terrain files
+	 * 	can be written for terrains that would not fit in memory.
+	 *
+	 * @param 	nbRows
+	 * 			The number of rows of the terrain to write.
+	 * @param 	nbColumns
+	 * 			The number of columns of the terrain to write.
+	 * @param 	source
+	 * 			The band source giving the cells of the terrain.
+	 * @param 	file
+	 * 			The file to write to.
+	 * @throws	IllegalArgumentException("The given dimensions are invalid.")
+	 * 			| nbRows <= 0 || nbColumns <= 0
+	 * @throws	IOException
+	 * 			The given file could not be written.
+	 */
+	public static void write(int nbRows, int nbColumns, BandSource source, File file)
+			throws IOException, IllegalArgumentException{
+		if(nbRows <= 0 || nbColumns <= 0)
+			throw new IllegalArgumentException("The given dimensions are invalid.");
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try{
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(nbRows);
+			output.writeInt(nbColumns);
+			for(int fromRow = 0; fromRow < nbRows; fromRow += TILE_SIZE){
+				TerrainGrid band = new TerrainGrid(TILE_SIZE, nbColumns);
+				source.fill(band, fromRow);
+				for(int word = 0; word < band.getNbWordsPerRow(); word++){
+					for(int row = 0; row < TILE_SIZE; row++)
+						output.writeLong(fromRow + row < nbRows ? band.getWord(row, word) : 0L);
+				}
+			}
+		}
+		finally{
+			output.close();
+		}
+	}
+
+	/**
+	 * An interface of sources of the cells of a terrain, one band of rows at a time.
+	 */
+	public static interface BandSource {
+
+		/**
+		 * Mark the impassable cells of the given band, whose first row is the given
+		 * row of the terrain. All cells of the band are passable when it is given.
+		 * 	Rows of the band beyond the last row of the terrain are ignored.
+		 *
+		 * @param 	band
+		 * 			The band to fill, with as many columns as the terrain.
+		 * @param 	fromRow
+		 * 			The row of the terrain that corresponds to the first row of the band.
+		 */
+		void fill(TerrainGrid band, int fromRow);
+	}
+
+
+
+	/**
+	 * Return the number of tiles of a terrain with the given dimensions.
+	 */
+	@Model
+	private static long getNbTiles(int nbRows, int nbColumns){
+		return (long)((nbRows + TILE_SIZE - 1) / TILE_SIZE) * ((nbColumns + TILE_SIZE - 1) / TILE_SIZE);
+	}
+
+	/**
+	 * Return the maximum number of decoded tiles this paged terrain grid keeps.
+	 */
+	@Basic @Raw @Immutable
+	public int getMaxCachedTiles(){
+		return this.maxCachedTiles;
+	}
+
+	/**
+	 * Variable registering the maximum number of decoded tiles this grid keeps.
+	 */
+	private final int maxCachedTiles;
+
+	@Override
+	protected long getWord(int row, int wordIndex){
+		return getTile(row, wordIndex).words[row & (TILE_SIZE - 1)];
+	}
+
+	/**
+	 * Replace the given word of this terrain grid by the given value.
+	 * 	The tile holding the word is replaced by a changed copy. The word is also
+	 * 	changed in the private mapping of the terrain file, so that it survives
+	 * 	the tile being dropped. A grid that shares its segments with another grid
+	 * 	keeps the changed tile in memory instead.
+	 */
+	@Override
+	protected synchronized void setWord(int row, int wordIndex, long word){
+		long tileIndex = getTileIndex(row, wordIndex);
+		long[] words = getTile(row, wordIndex).words.clone();
+		words[row & (TILE_SIZE - 1)] = word;
+		Tile changed = new Tile(tileIndex, words);
+		if(sharesSegments){
+			if(tiles.remove(tileIndex) != null)
+				nbCachedTiles--;
+			ownTiles.put(tileIndex, changed);
+		}
+		else{
+			if(tiles.put(tileIndex, changed) == null)
+				nbCachedTiles++;
+			while(nbCachedTiles > maxCachedTiles)
+				dropTile();
+			long position = tileIndex * TILE_BYTES + (row & (TILE_SIZE - 1)) * 8L;
+			segments[(int)(position / SEGMENT_BYTES)].putLong((int)(position % SEGMENT_BYTES), word);
+		}
+		lastTile = changed;
+	}
+
+	/**
+	 * Return a new paged terrain grid with the same cells as this paged terrain grid.
+	 * 	The copy reads the tiles this grid has not changed from the same private mapping
+	 * 	of the terrain file, so that copying does not read any tile. From then on, this
+	 * 	grid keeps the tiles it changes in memory as well, so that its changes never
+	 * 	reach the copy.
+	 */
+	@Override
+	public synchronized PagedTerrainGrid copy(){
+		this.sharesSegments = true;
+		return new PagedTerrainGrid(this);
+	}
+
+	/**
+	 * Return the index of the tile holding the given word.
+	 */
+	@Model
+	private long getTileIndex(int row, int wordIndex){
+		return (long)(row >>> TILE_SHIFT) * getNbWordsPerRow() + wordIndex;
+	}
+
+	/**
+	 * Return the decoded tile holding the given word, decoding it first
+	 * if it is not among the tiles kept.
+	 * 	A tile that is kept is found without taking any lock.
+	 */
+	@Model
+	private Tile getTile(int row, int wordIndex){
+		long tileIndex = getTileIndex(row, wordIndex);
+		Tile tile = lastTile;
+		if(tile != null && tile.index == tileIndex)
+			return tile;
+		tile = tiles.get(tileIndex);
+		if(tile == null)
+			tile = ownTiles.get(tileIndex);
+		if(tile == null)
+			tile = loadTile(tileIndex);
+		else if(!tile.used)
+			tile.used = true;
+		lastTile = tile;
+		return tile;
+	}
+
+	/**
+	 * Return the tile with the given index, decoding it from the segments
+	 * if it is not among the tiles kept or changed by this grid.
+	 * 	If this grid already keeps the maximum number of tiles, a tile is dropped first.
+	 */
+	@Model
+	private synchronized Tile loadTile(long tileIndex){
+		Tile tile = ownTiles.get(tileIndex);
+		if(tile == null)
+			tile = tiles.get(tileIndex);
+		if(tile != null)
+			return tile;
+		long[] words = new long[TILE_SIZE];
+		long position = tileIndex * TILE_BYTES;
+		MappedByteBuffer segment = segments[(int)(position / SEGMENT_BYTES)];
+		int offset = (int)(position % SEGMENT_BYTES);
+		for(int tileRow = 0; tileRow < TILE_SIZE; tileRow++)
+			words[tileRow] = segment.getLong(offset + tileRow * 8);
+		while(nbCachedTiles >= maxCachedTiles)
+			dropTile();
+		tile = new Tile(tileIndex, words);
+		tiles.put(tileIndex, tile);
+		nbCachedTiles++;
+		return tile;
+	}
+
+	/**
+	 * Drop one of the decoded tiles this grid keeps.
+	 * 	The clock visits the tiles kept in turn, and gives every tile that has been used
+	 * 	since its previous visit a second chance. After two rounds without a tile to drop,
+	 * 	because other threads keep using them, the tile visited is dropped anyway.
+	 */
+	@Model
+	private synchronized void dropTile(){
+		for(int visited = 0; ; visited++){
+			if(clock == null || !clock.hasNext())
+				clock = tiles.values().iterator();
+			Tile tile = clock.next();
+			if(tile.used && visited < 2*nbCachedTiles)
+				tile.used = false;
+			else{
+				clock.remove();
+				nbCachedTiles--;
+				if(lastTile == tile)
+					lastTile = null;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Return the number of decoded tiles this paged terrain grid currently keeps.
+	 */
+	public synchronized int getNbCachedTiles(){
+		return nbCachedTiles;
+	}
+
+	/**
+	 * A class of decoded tiles involving the index of the tile and its words.
+	 * 	The words of a tile are never changed once it has been decoded.
+	 */
+	private static final class Tile {
+
+		/**
+		 * Create a new tile with the given index and words.
+		 */
+		Tile(long index, long[] words){
+			this.index = index;
+			this.words = words;
+		}
+
+		/**
+		 * Variable registering the index of this tile.
+		 */
+		final long index;
+
+		/**
+		 * Variable referencing the words of this tile, one for each of its rows.
+		 */
+		final long[] words;
+
+		/**
+		 * Variable registering whether this tile has been used since the clock last visited it.
+		 */
+		volatile boolean used = true;
+	}
+
+	/**
+	 * Array referencing the private mappings of the consecutive segments
+	 * of the tiles of the terrain file.
+	 */
+	private final MappedByteBuffer[] segments;
+
+	/**
+	 * Map referencing the decoded tiles this grid keeps, by tile index.
+	 */
+	private final ConcurrentHashMap<Long, Tile> tiles = new ConcurrentHashMap<Long, Tile>();
+
+	/**
+	 * Variable registering the number of decoded tiles this grid keeps.
+	 */
+	private int nbCachedTiles = 0;
+
+	/**
+	 * Variable referencing the position of the clock among the tiles kept,
+	 * or null if it has not started yet.
+	 */
+	private Iterator<Tile> clock = null;
+
+	/**
+	 * Variable registering whether this grid shares the segments of its terrain file
+	 * with the grid it was copied from or with a copy of it.
+	 * 	Once set, it is never cleared again.
+	 */
+	private boolean sharesSegments;
+
+	/**
+	 * Map referencing the tiles this grid has changed itself while sharing its segments, by tile index.
+	 * 	These tiles are never dropped.
+	 */
+	private final ConcurrentHashMap<Long, Tile> ownTiles = new ConcurrentHashMap<Long, Tile>();
+
+	/**
+	 * Variable referencing the tile that was used last, or null.
+	 */
+	private volatile Tile lastTile = null;
+
+
+
+	/**
+	 * Final class variable registering the magic number at the start of every terrain file.
+	 */
+	private static final int MAGIC = 0x5754524E;
+
+	/**
+	 * Final class variable registering the version of the terrain file format.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Final class variable registering the number of bytes of the header of a terrain file.
+	 */
+	private static final int HEADER_SIZE = 16;
+
+	/**
+	 * Final class variable registering the number of rows and columns of a tile.
+	 */
+	private static final int TILE_SIZE = WORD_SIZE;
+
+	/**
+	 * Final class variable registering the shift turning a row into a tile row.
+	 */
+	private static final int TILE_SHIFT = WORD_SHIFT;
+
+	/**
+	 * Final class variable registering the number of bytes of a tile.
+	 */
+	private static final long TILE_BYTES = TILE_SIZE * 8L;
+
+	/**
+	 * Final class variable registering the number of tiles in a mapped segment.
+	 */
+	private static final long TILES_PER_SEGMENT = (1L << 30) / TILE_BYTES;
+
+	/**
+	 * Final class variable registering the number of bytes of a mapped segment.
+	 */
+	private static final long SEGMENT_BYTES = TILES_PER_SEGMENT * TILE_BYTES;
+
+	/**
+	 * Final class variable registering the number of decoded tiles a paged grid keeps by default.
+	 */
+	public static final int DEFAULT_MAX_CACHED_TILES = 4096;
+}
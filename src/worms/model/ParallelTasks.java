@@ -0,0 +1,114 @@
+package worms.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A class of helpers that split work over a range of indices into chunks
+ * and run these chunks on all available processors.
+ * 	Small ranges are handled in the calling thread.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+final class ParallelTasks {
+
+	/**
+	 * An interface of chunks of work over a range of indices.
+	 */
+	interface Chunk {
+
+		/**
+		 * Do the work for all indices from the given first index (inclusive)
+		 * up to the given last index (exclusive).
+		 */
+		void run(int from, int to);
+	}
+
+	/**
+	 * This class only offers class methods.
+	 */
+	private ParallelTasks(){}
+
+	/**
+	 * Run the given chunk of work for all indices from 0 up to (but not including)
+	 * the given number of indices.
+	 * 	The range is split in at most one chunk per available processor,
+	 * 	and no chunk is smaller than the given minimal chunk size.
+	 * 	The calling thread runs one of the chunks itself and waits for the others.
+	 *
+	 * @param 	nbIndices
+	 * 			The number of indices to run the work for.
+	 * @param 	minChunkSize
+	 * 			The minimal number of indices for each chunk.
+	 * @param 	chunk
+	 * 			The work to do.
+	 * @effect	| chunk.run(0, nbIndices), possibly split over several chunks.
+	 */
+	static void forRange(int nbIndices, int minChunkSize, final Chunk chunk){
+		int nbChunks = Math.min(NB_PROCESSORS, nbIndices / Math.max(1, minChunkSize));
+		if(nbChunks <= 1){
+			chunk.run(0, nbIndices);
+			return;
+		}
+		int chunkSize = (nbIndices + nbChunks - 1) / nbChunks;
+		List<Future<?>> futures = new ArrayList<Future<?>>(nbChunks);
+		for(int from = chunkSize; from < nbIndices; from += chunkSize){
+			final int start = from;
+			final int end = Math.min(nbIndices, from + chunkSize);
+			futures.add(getExecutor().submit(new Runnable(){
+				@Override
+				public void run(){
+					chunk.run(start, end);
+				}
+			}));
+		}
+		chunk.run(0, Math.min(nbIndices, chunkSize));
+		for(Future<?> future: futures){
+			try{
+				future.get();
+			}
+			catch(InterruptedException exc){
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(exc);
+			}
+			catch(ExecutionException exc){
+				if(exc.getCause() instanceof RuntimeException)
+					throw (RuntimeException)exc.getCause();
+				throw new IllegalStateException(exc.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Return the executor running the chunks, creating it if needed.
+	 */
+	private static synchronized ExecutorService getExecutor(){
+		if(executor == null){
+			executor = Executors.newFixedThreadPool(NB_PROCESSORS, new ThreadFactory(){
+				@Override
+				public Thread newThread(Runnable runnable){
+					Thread thread = new Thread(runnable, "worms-parallel");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * Class variable referencing the executor running the chunks.
+	 */
+	private static ExecutorService executor = null;
+
+	/**
+	 * Final class variable registering the number of available processors.
+	 */
+	private static final int NB_PROCESSORS = Runtime.getRuntime().availableProcessors();
+}
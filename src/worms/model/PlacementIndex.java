@@ -0,0 +1,316 @@
+package worms.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of placement indices, listing the positions of a world at which a circle
+ * with a given radius can be placed: passable and adjacent to impassable terrain.
+ * 	The candidates are points of a lattice that splits every cell of the terrain grid
+ * 	of the world into equal parts, fine enough to have a point in every band of
+ * 	adjacent positions; every lattice point yields at most one candidate. The candidates
+ * 	are found with one scan over the whole lattice, spread over all available processors;
+ * 	cells that are too far from impassable terrain, or buried too deep in it, are skipped
+ * 	as a whole, so that only the points near the surface of the terrain are tested.
+ * 	When the terrain of the world changes, the index is only rescanned in a window
+ * 	around the changed cells.
+ *
+ * @invar	| for each index in 0..size()-1:
+ * 			|	getWorld().isAdjacent(getX(index), getY(index), getRadius())
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+class PlacementIndex {
+
+	/**
+	 * Create a new placement index for circles with the given radius in the given world.
+	 *
+	 * @param 	world
+	 * 			The world to place circles in.
+	 * @param 	radius
+	 * 			The radius of the circles to place.
+	 * @param 	adjacency
+	 * 			The distance (in meter) from the centre of a circle within which
+	 * 			impassable terrain makes that circle adjacent.
+	 * @post	| new.getWorld() == world && new.getRadius() == radius
+	 * @post	| for each point (x, y) of the lattice of the new index:
+	 * 			|	(for some index in 0..new.size()-1: new.getX(index) == x && new.getY(index) == y)
+	 * 			|		== world.isAdjacent(x, y, radius)
+	 */
+	PlacementIndex(World world, double radius, double adjacency){
+		this.world = world;
+		this.radius = radius;
+		this.adjacency = adjacency;
+		this.nbCellRows = world.getTerrain().getNbRows();
+		this.nbCellColumns = world.getTerrain().getNbColumns();
+		double cellWidth = world.getWidth()/nbCellColumns, cellHeight = world.getHeight()/nbCellRows;
+		double spacing = Math.max(adjacency - radius, MIN_SPACING)/Math.sqrt(2);
+		this.rowsPerCell = Math.max(1, (int)Math.ceil(cellHeight/spacing));
+		this.columnsPerCell = Math.max(1, (int)Math.ceil(cellWidth/spacing));
+		this.nbRows = nbCellRows*rowsPerCell;
+		this.nbColumns = nbCellColumns*columnsPerCell;
+		this.pointWidth = cellWidth/columnsPerCell;
+		this.pointHeight = cellHeight/rowsPerCell;
+		double reach = adjacency + Math.hypot(cellWidth, cellHeight);
+		this.rowMargin = (int)Math.ceil(reach/cellHeight) + 1;
+		this.columnMargin = (int)Math.ceil(reach/cellWidth) + 1;
+		this.points = scan(0, 0, nbCellRows, nbCellColumns);
+		this.size = points.length;
+	}
+
+	/**
+	 * Create a new placement index for the given world, with the same candidates as the given index.
+	 * 	Both indices share the array of candidates, which is replaced rather than changed
+	 * 	when an index is rescanned.
+	 *
+	 * @param 	original
+	 * 			The placement index to copy.
+	 * @param 	world
+	 * 			The world of the new index, with the same terrain as the world of the given index.
+	 * @post	| new.getWorld() == world && new.getRadius() == original.getRadius()
+	 * @post	| for each index in 0..original.size()-1:
+	 * 			|	new.getX(index) == original.getX(index) && new.getY(index) == original.getY(index)
+	 */
+	PlacementIndex(PlacementIndex original, World world){
+		this.world = world;
+		this.radius = original.radius;
+		this.adjacency = original.adjacency;
+		this.nbCellRows = original.nbCellRows;
+		this.nbCellColumns = original.nbCellColumns;
+		this.rowsPerCell = original.rowsPerCell;
+		this.columnsPerCell = original.columnsPerCell;
+		this.nbRows = original.nbRows;
+		this.nbColumns = original.nbColumns;
+		this.pointWidth = original.pointWidth;
+		this.pointHeight = original.pointHeight;
+		this.rowMargin = original.rowMargin;
+		this.columnMargin = original.columnMargin;
+		this.points = original.points;
+		this.size = original.size;
+	}
+
+
+
+	/**
+	 * Return the world of this placement index.
+	 */
+	@Basic @Raw @Immutable
+	public World getWorld(){
+		return this.world;
+	}
+
+	/**
+	 * Variable referencing the world of this placement index.
+	 */
+	private final World world;
+
+	/**
+	 * Return the radius of the circles this placement index places.
+	 */
+	@Basic @Raw @Immutable
+	public double getRadius(){
+		return this.radius;
+	}
+
+	/**
+	 * Variable registering the radius of the circles this placement index places.
+	 */
+	private final double radius;
+
+	/**
+	 * Variable registering the distance within which impassable terrain makes a circle adjacent.
+	 */
+	private final double adjacency;
+
+	/**
+	 * Return the number of candidate positions of this placement index.
+	 */
+	@Basic @Raw
+	public int size(){
+		return this.size;
+	}
+
+	/**
+	 * Return the x-coordinate of the candidate position with the given index.
+	 *
+	 * @param 	index
+	 * 			The index of the candidate, between 0 and size() (exclusive).
+	 */
+	public double getX(int index){
+		return (points[index] % nbColumns + 0.5)*pointWidth;
+	}
+
+	/**
+	 * Return the y-coordinate of the candidate position with the given index.
+	 *
+	 * @param 	index
+	 * 			The index of the candidate, between 0 and size() (exclusive).
+	 */
+	public double getY(int index){
+		return (nbRows - points[index] / nbColumns - 0.5)*pointHeight;
+	}
+
+
+
+	/**
+	 * Rescan this placement index around the given rectangle of changed cells
+	 * of the terrain grid. Every point whose candidacy may depend on these cells
+	 * is scanned again.
+	 *
+	 * @param 	fromRow
+	 * 			The first row of the changed cells (inclusive).
+	 * @param 	fromColumn
+	 * 			The first column of the changed cells (inclusive).
+	 * @param 	toRow
+	 * 			The last row of the changed cells (exclusive).
+	 * @param 	toColumn
+	 * 			The last column of the changed cells (exclusive).
+	 * @post	| for each point (x, y) of the lattice of this index:
+	 * 			|	(for some index in 0..new.size()-1: new.getX(index) == x && new.getY(index) == y)
+	 * 			|		== getWorld().isAdjacent(x, y, getRadius())
+	 */
+	void update(int fromRow, int fromColumn, int toRow, int toColumn){
+		fromRow = Math.max(0, fromRow - rowMargin);
+		fromColumn = Math.max(0, fromColumn - columnMargin);
+		toRow = Math.min(nbCellRows, toRow + rowMargin);
+		toColumn = Math.min(nbCellColumns, toColumn + columnMargin);
+		long[] rescanned = scan(fromRow, fromColumn, toRow, toColumn);
+		long fromPointRow = fromRow*rowsPerCell, toPointRow = toRow*rowsPerCell;
+		long fromPointColumn = fromColumn*columnsPerCell, toPointColumn = toColumn*columnsPerCell;
+		long[] result = new long[size + rescanned.length];
+		int count = 0;
+		for(int index = 0; index < size; index++){
+			long row = points[index] / nbColumns, column = points[index] % nbColumns;
+			if(row < fromPointRow || row >= toPointRow || column < fromPointColumn || column >= toPointColumn)
+				result[count++] = points[index];
+		}
+		System.arraycopy(rescanned, 0, result, count, rescanned.length);
+		count += rescanned.length;
+		Arrays.sort(result, 0, count);
+		this.points = result;
+		this.size = count;
+	}
+
+	/**
+	 * Return the points of the lattice within the given rectangle of cells of the terrain grid
+	 * that are candidate positions, as indices row*nbColumns + column in increasing order.
+	 * 	The rows of cells are spread over all available processors.
+	 */
+	@Model
+	private long[] scan(final int fromRow, final int fromColumn, final int toRow, final int toColumn){
+		final long[][] rows = new long[toRow - fromRow][];
+		ParallelTasks.forRange(toRow - fromRow, MIN_CHUNK_SIZE, new ParallelTasks.Chunk(){
+			@Override
+			public void run(int from, int to){
+				long[] buffer = new long[(toColumn - fromColumn)*rowsPerCell*columnsPerCell];
+				boolean[] skipped = new boolean[toColumn - fromColumn];
+				for(int index = from; index < to; index++)
+					rows[index] = scanRow(fromRow + index, fromColumn, toColumn, buffer, skipped);
+			}
+		});
+		int count = 0;
+		for(long[] row: rows)
+			count += row.length;
+		long[] result = new long[count];
+		count = 0;
+		for(long[] row: rows){
+			System.arraycopy(row, 0, result, count, row.length);
+			count += row.length;
+		}
+		return result;
+	}
+
+	/**
+	 * Return the points of the lattice within the given row of cells of the terrain grid,
+	 * from the given first column up to the given last column, that are candidate positions,
+	 * using the given buffers.
+	 * 	A cell is skipped as a whole if its clearance exceeds the adjacency distance,
+	 * 	if all cells within the adjacency distance around it are passable, or if all
+	 * 	cells within the radius of the circles around it are impassable. The second test
+	 * 	stands in for the first on worlds without a distance field.
+	 */
+	@Model
+	private long[] scanRow(int row, int fromColumn, int toColumn, long[] buffer, boolean[] skipped){
+		double cellWidth = pointWidth*columnsPerCell, cellHeight = pointHeight*rowsPerCell;
+		double minY = (nbCellRows - row - 1)*cellHeight;
+		for(int column = fromColumn; column < toColumn; column++){
+			double minX = column*cellWidth;
+			skipped[column - fromColumn] = 
+					world.getClearance(minX + cellWidth/2, minY + cellHeight/2) > adjacency ||
+					world.getOccupancy(minX - adjacency, minY - adjacency, minX + cellWidth + adjacency, 
+							minY + cellHeight + adjacency) == Occupancy.PASSABLE ||
+					world.getOccupancy(minX - radius, minY - radius, minX + cellWidth + radius, 
+							minY + cellHeight + radius) == Occupancy.IMPASSABLE;
+		}
+		int count = 0;
+		for(int pointRow = row*rowsPerCell; pointRow < (row + 1)*rowsPerCell; pointRow++){
+			double y = (nbRows - pointRow - 0.5)*pointHeight;
+			for(int column = fromColumn; column < toColumn; column++){
+				if(skipped[column - fromColumn])
+					continue;
+				for(int pointColumn = column*columnsPerCell; pointColumn < (column + 1)*columnsPerCell; pointColumn++){
+					double x = (pointColumn + 0.5)*pointWidth;
+					if(world.isAdjacent(x, y, radius))
+						buffer[count++] = (long)pointRow*nbColumns + pointColumn;
+				}
+			}
+		}
+		return Arrays.copyOf(buffer, count);
+	}
+
+	/**
+	 * Variable referencing the candidate points of this placement index,
+	 * as indices row*nbColumns + column in the lattice, in increasing order.
+	 * 	Only the first size() entries are in use.
+	 */
+	private long[] points;
+
+	/**
+	 * Variable registering the number of candidate points of this placement index.
+	 */
+	private int size;
+
+	/**
+	 * Variables registering the number of rows and columns of the lattice
+	 * that each cell of the terrain grid is split into.
+	 */
+	private final int rowsPerCell, columnsPerCell;
+
+	/**
+	 * Variables registering the number of rows and columns of the terrain grid of the world of this index.
+	 */
+	private final int nbCellRows, nbCellColumns;
+
+	/**
+	 * Variables registering the number of rows and columns of the lattice of this index.
+	 */
+	private final int nbRows, nbColumns;
+
+	/**
+	 * Variables registering the horizontal and vertical distance (in meter)
+	 * between neighbouring points of the lattice.
+	 */
+	private final double pointWidth, pointHeight;
+
+	/**
+	 * Variables registering the number of rows and columns of cells around
+	 * changed cells that are rescanned after a change of the terrain.
+	 */
+	private final int rowMargin, columnMargin;
+
+	/**
+	 * Final class variable registering the smallest width (in meter) of the band of
+	 * adjacent positions a lattice is made fine enough for.
+	 */
+	private static final double MIN_SPACING = 0.001;
+
+	/**
+	 * Final class variable registering the minimal number of rows scanned per processor.
+	 */
+	private static final int MIN_CHUNK_SIZE = 16;
+}
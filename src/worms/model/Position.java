@@ -53,6 +53,7 @@ public abstract class Position extends Entity{
 	 * 			The new x-coordinate (in meter).
 	 * @post	The new x-coordinate is equal to the given x-coordinate.
 	 * 			| new.getX() == x
+	 * @effect	| notifyMoved(getX(), getY())
 	 * @throws	IllegalPositionException(x, getY())
 	 * 			| !isValidPosition(x, getY())
 	 */
@@ -61,7 +62,9 @@ public abstract class Position extends Entity{
 			throws IllegalPositionException{
 		if(!isValidPosition(x, getY()))
 			throw new IllegalPositionException(x, getY());
+		double oldX = this.x;
 		this.x = x;
+		notifyMoved(oldX, getY());
 	}
 
 	/**
@@ -79,6 +82,7 @@ public abstract class Position extends Entity{
 	 * 			The new y-coordinate (in meter).
 	 * @post	The new y-coordinate is equal to the given y-coordinate.
 	 * 			| new.getY() == y
+	 * @effect	| notifyMoved(getX(), getY())
 	 * @throws	IllegalPositionException(getX(), y)
 	 * 			| !isValidPosition(getX(), y)
 	 */
@@ -87,7 +91,9 @@ public abstract class Position extends Entity{
 			throws IllegalPositionException{
 		if(!isValidPosition(getX(), y))
 			throw new IllegalPositionException(getX(), y);
+		double oldY = this.y;
 		this.y = y;
+		notifyMoved(getX(), oldY);
 	}
 	
 	/**
@@ -114,6 +120,7 @@ public abstract class Position extends Entity{
 	 * 			| new.getX() == x
 	 * @post	The new y-coordinate is equal to the given y-coordinate.
 	 * 			| new.getY() == y
+	 * @effect	| notifyMoved(getX(), getY())
 	 * @throws 	IllegalPositionException(x, y)
 	 * 			| !isValidPosition(x, y)
 	 */
@@ -122,8 +129,41 @@ public abstract class Position extends Entity{
 			throws IllegalPositionException{
 		if(!isValidPosition(x, y))
 			throw new IllegalPositionException(x, y);
+		double oldX = this.x, oldY = this.y;
 		this.x = x;
 		this.y = y;
+		notifyMoved(oldX, oldY);
+	}
+	
+	/**
+	 * Notify the world of this position, if any, that this position has moved
+	 * away from the given old coordinates, or that its size has changed.
+	 * 
+	 * @param 	oldX
+	 * 			The x-coordinate of this position before it moved.
+	 * @param 	oldY
+	 * 			The y-coordinate of this position before it moved.
+	 * @effect	| if(getWorld() != null)
+	 * 			|	then getWorld().positionChanged(this, oldX, oldY)
+	 */
+	@Model
+	protected void notifyMoved(double oldX, double oldY){
+		if(getWorld() != null)
+			getWorld().positionChanged(this, oldX, oldY);
+	}
+	
+	/**
+	 * Report the given change of this position to the listeners of its world, if any.
+	 * 
+	 * @param 	event
+	 * 			The kind of change.
+	 * @effect	| if(getWorld() != null)
+	 * 			|	then getWorld().fireEvent(event, this)
+	 */
+	@Model
+	protected void notifyWorld(WorldEvent event){
+		if(getWorld() != null)
+			getWorld().fireEvent(event, this);
 	}
 	
 	/**
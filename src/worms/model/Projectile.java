@@ -6,7 +6,7 @@ import be.kuleuven.cs.som.annotate.Raw;
 
 /**
  * A class of projectile associated with a world involving an initial velocity,
- * a radius, a damage, a hitted worm, an x-coordinate, an y-coordinate, a direction,
+ * a radius, a damage, a shooter, a hitted worm, an x-coordinate, an y-coordinate, a direction,
  * a standard acceleration and a world.
  *
  * @version 1.0
@@ -44,12 +44,50 @@ public class Projectile extends Position{
 	 */
 	public Projectile(Worm worm, double initialVelocity, double radius, int damage) 
 			throws IllegalRadiusException, IllegalArgumentException, IllegalPositionException{
+		this(worm, initialVelocity, radius, damage, 0);
+	}
+	
+	/**
+	 * Create a new projectile with the given arguments that blasts a crater where it lands.
+	 * 
+	 * @param 	worm
+	 * 			The worm that 'shoots' this projectile.
+	 * @param 	initialVelocity
+	 * 			The initial velocity for the shot of this projectile.
+	 * @param 	radius
+	 * 			The radius of this projectile.
+	 * @param 	damage
+	 * 			The damage of this projectile.
+	 * @param 	blastRadius
+	 * 			The radius of the crater this projectile blasts.
+	 * @pre		| isValidDirection(worm.getDirection())
+	 * @post	| new.getDirection() == worm.getDirection()
+	 * @post	| new.getInitialVelocity() == initialVelocity
+	 * @post	| new.getRadius() == radius
+	 * @post	| new.getDamage() == damage
+	 * @post	| new.getBlastRadius() == max(0, blastRadius)
+	 * @effect	| this.setWorld(worm.getWorld())
+	 * @effect	| try(
+	 * 			|	this.setInitialPosition(worm.getPosition().getX(), 
+	 * 			|	worm.getPosition().getY(), worm.getRadius())
+	 * 			| )
+	 * 			| catch(IllegalArgumentException exc)(
+	 * 			| 	this.deactivate();
+	 * 			| 	throw exc;
+	 * 			| )
+	 * @throws 	IllegalRadiusException(radius)
+	 * 			| !canHaveAsRadius(radius)
+	 */
+	public Projectile(Worm worm, double initialVelocity, double radius, int damage, double blastRadius) 
+			throws IllegalRadiusException, IllegalArgumentException, IllegalPositionException{
 		this.direction = worm.getDirection();
+		this.shooter = worm;
 		this.initialVelocity = initialVelocity;
 		if(!canHaveAsRadius(radius))
 			throw new IllegalRadiusException(radius);
 		this.radius = radius;
 		this.damage = damage;
+		this.blastRadius = Math.max(0, blastRadius);
 		
 		this.setWorld(worm.getWorld());
 		try{
@@ -62,6 +100,35 @@ public class Projectile extends Position{
 		}
 	}
 	
+	/**
+	 * Create a new projectile in the given world with the same state as the given projectile,
+	 * shot by the given worm.
+	 * 
+	 * @param 	original
+	 * 			The projectile to copy.
+	 * @param 	shooter
+	 * 			The worm that shot the new projectile.
+	 * @param 	world
+	 * 			The world of the new projectile.
+	 * @post	| new.getX() == original.getX() && new.getY() == original.getY()
+	 * @post	| new.getShooter() == shooter
+	 * @post	| new.getDirection() == original.getDirection() && 
+	 * 			|	new.getInitialVelocity() == original.getInitialVelocity()
+	 * @post	| new.getRadius() == original.getRadius() && new.getDamage() == original.getDamage()
+	 * 			|	&& new.getBlastRadius() == original.getBlastRadius()
+	 * @effect	| this.setWorld(world)
+	 */
+	Projectile(Projectile original, Worm shooter, World world){
+		super(original.getX(), original.getY());
+		this.direction = original.direction;
+		this.shooter = shooter;
+		this.initialVelocity = original.initialVelocity;
+		this.radius = original.radius;
+		this.damage = original.damage;
+		this.blastRadius = original.blastRadius;
+		this.setWorld(world);
+	}
+	
 	
 	
 	/**
@@ -93,6 +160,19 @@ public class Projectile extends Position{
 	
 	
 	
+	/**
+	 * Return the worm that shot this projectile.
+	 */
+	@Basic @Raw
+	public Worm getShooter(){
+		return this.shooter;
+	}
+	
+	/**
+	 * Variable referencing the worm that shot this projectile.
+	 */
+	private final Worm shooter;
+	
 	/**
 	 * Return the hitted worm, if any.
 	 */
@@ -134,20 +214,96 @@ public class Projectile extends Position{
 	 * 			|		(STANDARD_ACCELERATION*Math.pow(t,2))/2.0}
 	 */
 	public double[] getJumpStep(double t) {
-		double horizontalVelocity = getInitialVelocity() * Math.cos(this.getDirection());
-		double xPosition = getX() + horizontalVelocity * t;
-		double verticalVelocity = getInitialVelocity() * Math.sin(this.getDirection());
-		double yPosition = getY() + verticalVelocity*t - (STANDARD_ACCELERATION*Math.pow(t,2))/2.0;
-		double[] position = {xPosition, yPosition};
+		double[] position = {jumpX(t), jumpY(t)};
 		return position;
 	}
 	
+	/**
+	 * Return the x-coordinate of the projectile at a given time in a jump.
+	 * 
+	 * @param 	t
+	 * 			The time to check the position of the projectile.
+	 * @return	| result == getX() + getInitialVelocity() * Math.cos(this.getDirection()) * t
+	 */
+	public double jumpX(double t){
+		return Trajectory.getX(getX(), getJumpVelocityX(), t);
+	}
+	
+	/**
+	 * Return the y-coordinate of the projectile at a given time in a jump.
+	 * 
+	 * @param 	t
+	 * 			The time to check the position of the projectile.
+	 * @return	| result == getY() + getInitialVelocity() * Math.sin(this.getDirection())*t - 
+	 * 			|		(STANDARD_ACCELERATION*Math.pow(t,2))/2.0
+	 */
+	public double jumpY(double t){
+		return Trajectory.getY(getY(), getJumpVelocityY(), STANDARD_ACCELERATION, t);
+	}
+	
+	/**
+	 * Store the positions of the projectile at the given number of evenly spread times
+	 * in a jump, up to the given end time, in the given array.
+	 * 	The positions are those at the times i*tEnd/n for i from 1 up to n, with the
+	 * 	x-coordinate and y-coordinate of each position after each other.
+	 * 
+	 * @param 	out
+	 * 			The array to store the positions in, at least 2*n long.
+	 * @param 	n
+	 * 			The number of positions to store.
+	 * @param 	tEnd
+	 * 			The time of the last position to store.
+	 * @post	| for each i in 1..n:
+	 * 			|	new.out[2*(i-1)] == jumpX(i*tEnd/n) && new.out[2*(i-1)+1] == jumpY(i*tEnd/n)
+	 * @throws	IllegalArgumentException("The given array is too short.")
+	 * 			| n < 0 || out.length < 2*n
+	 */
+	public void sampleTrajectory(double[] out, int n, double tEnd) throws IllegalArgumentException{
+		if(n < 0 || out.length < 2*n)
+			throw new IllegalArgumentException("The given array is too short.");
+		double horizontalVelocity = getJumpVelocityX(), verticalVelocity = getJumpVelocityY();
+		for(int i = 1; i <= n; i++){
+			double t = i * tEnd / n;
+			out[2*(i-1)] = Trajectory.getX(getX(), horizontalVelocity, t);
+			out[2*(i-1)+1] = Trajectory.getY(getY(), verticalVelocity, STANDARD_ACCELERATION, t);
+		}
+	}
+	
+	/**
+	 * Return the trajectory of the shot of this projectile.
+	 * 
+	 * @return	| result.getX(t) == getJumpStep(t)[0] && result.getY(t) == getJumpStep(t)[1]
+	 */
+	public Trajectory getTrajectory(){
+		return new Trajectory(getX(), getY(), getJumpVelocityX(), getJumpVelocityY(), STANDARD_ACCELERATION);
+	}
+	
+	/**
+	 * Return the horizontal component of the initial velocity of a jump of the projectile.
+	 * 
+	 * @return	| result == getInitialVelocity() * Math.cos(this.getDirection())
+	 */
+	@Model
+	private double getJumpVelocityX(){
+		return getInitialVelocity() * Math.cos(this.getDirection());
+	}
+	
+	/**
+	 * Return the vertical component of the initial velocity of a jump of the projectile.
+	 * 
+	 * @return	| result == getInitialVelocity() * Math.sin(this.getDirection())
+	 */
+	@Model
+	private double getJumpVelocityY(){
+		return getInitialVelocity() * Math.sin(this.getDirection());
+	}
+	
 	//TODO documentation
 	public double getJumpTime(double timeStep) 
 			throws NullPointerException, IllegalDirectionException{
 		if(this.getWorld() == null)
 			throw new NullPointerException();
-		double[] tempXY = {getX(),getY()};
+		double tempX = getX(), tempY = getY();
 		double radius = this.getRadius();
 		
 		// This temporary variable has to be incremented with a really small value, 
@@ -158,42 +314,20 @@ public class Projectile extends Position{
 		// an IllegalDirectionException.
 		double temp = timeStep;
 		double tempTime = 0.0;
-		while(this.getWorld().isAdjacent(tempXY[0], tempXY[1], radius) && tempTime < (1/8.0)
-				&& this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius) == null){
-			if(this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius) != null){
-				return tempTime;
-			}
+		while(this.getWorld().isAdjacent(tempX, tempY, radius) && tempTime < (1/8.0)){
 			tempTime = tempTime + temp;
-			tempXY = getJumpStep(tempTime);
-		}
-		if(this.getWorld().isImpassable(tempXY[0], tempXY[1], radius)){
-			tempTime = tempTime - (temp/2.0);
-			tempXY = getJumpStep(tempTime);
-			if(this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius) == null)
-				throw new IllegalDirectionException(this.getDirection());
+			tempX = jumpX(tempTime);
+			tempY = jumpY(tempTime);
 		}
-		//TODO deze exception verschillend aanpakken als een worm gehit is...
 		
-		// if 'temp' is smaller than 1/400000 the projectile will leave the world because there is no
-		// possible adjacent position.
-		while(!this.getWorld().isAdjacent(tempXY[0], tempXY[1], radius) && temp >= (1/400000.0)
-				&& this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius) == null){
-			while(!this.getWorld().isImpassable(tempXY[0], tempXY[1], radius)
-					&& this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius) == null){
-				tempTime = tempTime + temp;
-				tempXY = getJumpStep(tempTime);
-			}
-			temp = temp / 3.0;
-			while(this.getWorld().isImpassable(tempXY[0], tempXY[1], radius)){
-				tempTime = tempTime - temp;
-				tempXY = getJumpStep(tempTime);
-			}
-			temp = temp / 3.0;
-		}
+		// The world traces the projectile from its launch up to the first worm it hits,
+		// or up to the terrain it hits after it has cleared the terrain it was shot from.
+		Contact contact = this.getWorld().firstContact(getTrajectory(), tempTime, radius, getShooter());
+		if(contact.isTerrainContact() && this.getWorld().isImpassable(tempX, tempY, radius))
+			throw new IllegalDirectionException(this.getDirection());
+		setHittedWorm(contact.getWorm());
 		
-		setHittedWorm(this.getWorld().hitAnyWorm(tempXY[0], tempXY[1], radius));
-		
-		return tempTime;
+		return contact.getTime();
 	}
 	
 	/**
@@ -202,19 +336,22 @@ public class Projectile extends Position{
 	 * @param 	timeStep
 	 * 	 	 	An elementary time interval during which you may assume
 	 *        	that the projectile will not completely move through a piece of impassable terrain.
-	 * @effect	| setPosition(getJumpStep(getJumpTime(timeStep))[0],
-	 * 			|					getJumpStep(getJumpTime(timeStep))[1])
+	 * @effect	| setPosition(jumpX(getJumpTime(timeStep)), jumpY(getJumpTime(timeStep)))
 	 * @effect	| if(getHittedWorm() != null)
 	 * 			|	then(getHittedWorm().reduceCurrentHitPoints(this.getDamage()))
+	 * @effect	| getWorld().makeCrater(getX(), getY(), getBlastRadius())
 	 * @effect	| deactivate()
 	 */
 	public void jump(double timeStep) 
 			throws NullPointerException, IllegalDirectionException{
-		double[] tempXY = getJumpStep(getJumpTime(timeStep));
-		setPosition(tempXY[0],tempXY[1]);
+		double time = getJumpTime(timeStep);
+		setPosition(jumpX(time), jumpY(time));
 		if(getHittedWorm() != null)
 			getHittedWorm().reduceCurrentHitPoints(this.getDamage());
+		World world = getWorld();
 		deactivate();
+		if(getBlastRadius() > 0)
+			world.makeCrater(getX(), getY(), getBlastRadius());
 	}
 	
 	/**
@@ -286,6 +423,21 @@ public class Projectile extends Position{
 	
 	
 	
+	/**
+	 * Return the radius of the crater this projectile blasts where it lands (in meter).
+	 */
+	@Basic @Raw
+	public double getBlastRadius(){
+		return this.blastRadius;
+	}
+	
+	/**
+	 * Variable registering the radius of the crater this projectile blasts.
+	 */
+	private final double blastRadius;
+	
+	
+	
 	/**
 	 * Check whether the given direction is a valid direction for any projectile.
 	 * 
@@ -0,0 +1,155 @@
+package worms.model;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of unmodifiable, live views on one or two collections of a world.
+ * 	A view always reflects the current contents of its collections, without copying them.
+ * 	Its iterators run over a snapshot of these contents taken when the iterator is
+ * 	created, so that the collections may change while an iterator is in use.
+ * 	The snapshot is an array that is only rebuilt after the owner of the collections
+ * 	has reported a modification with modified; until then, all iterators share it.
+ *
+ * @param	<E>
+ * 			The type of the elements of a view.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+class SnapshotView<E> extends AbstractCollection<E> {
+
+	/**
+	 * Create a new view on the given collection.
+	 *
+	 * @param 	source
+	 * 			The collection to view.
+	 * @post	| new.size() == source.size()
+	 */
+	SnapshotView(Collection<? extends E> source){
+		this(source, null);
+	}
+
+	/**
+	 * Create a new view on the given collections, in which the elements of the first
+	 * collection come before the elements of the second.
+	 *
+	 * @param 	first
+	 * 			The first collection to view.
+	 * @param 	second
+	 * 			The second collection to view, or null.
+	 * @post	| new.size() == first.size() + (second == null ? 0 : second.size())
+	 */
+	SnapshotView(Collection<? extends E> first, Collection<? extends E> second){
+		this.first = first;
+		this.second = second;
+	}
+
+
+
+	/**
+	 * Return the number of times the collections of this view have been modified.
+	 */
+	@Basic @Raw
+	public long getVersion(){
+		return this.version;
+	}
+
+	/**
+	 * Register that the collections of this view have been modified.
+	 *
+	 * @post	| new.getVersion() == getVersion() + 1
+	 */
+	void modified(){
+		this.version++;
+	}
+
+	/**
+	 * Variable registering the number of times the collections of this view have been modified.
+	 */
+	private long version = 0;
+
+	@Override
+	public int size(){
+		return first.size() + ((second == null) ? 0 : second.size());
+	}
+
+	@Override
+	public boolean contains(Object element){
+		return first.contains(element) || (second != null && second.contains(element));
+	}
+
+	/**
+	 * Return an iterator over the elements of this view as they are now.
+	 * 	Later modifications of the collections of this view are not seen by the iterator.
+	 * 	The iterator does not support remove.
+	 */
+	@Override
+	public Iterator<E> iterator(){
+		final Object[] elements = getSnapshot();
+		return new Iterator<E>(){
+			@Override
+			public boolean hasNext(){
+				return index < elements.length;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next(){
+				if(index >= elements.length)
+					throw new NoSuchElementException();
+				return (E)elements[index++];
+			}
+
+			@Override
+			public void remove(){
+				throw new UnsupportedOperationException();
+			}
+
+			private int index = 0;
+		};
+	}
+
+	/**
+	 * Return an array with the current elements of this view, rebuilding it
+	 * if the collections have been modified since it was last built.
+	 * 	The returned array is never changed afterwards.
+	 */
+	@Model
+	private Object[] getSnapshot(){
+		if(snapshot == null || snapshotVersion != version){
+			Object[] elements = new Object[size()];
+			int index = 0;
+			for(E element: first)
+				elements[index++] = element;
+			if(second != null){
+				for(E element: second)
+					elements[index++] = element;
+			}
+			snapshot = elements;
+			snapshotVersion = version;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Variables referencing the collections of this view.
+	 */
+	private final Collection<? extends E> first, second;
+
+	/**
+	 * Variable referencing the last snapshot of the elements of this view.
+	 */
+	private Object[] snapshot = null;
+
+	/**
+	 * Variable registering the version of the collections at the time of the last snapshot.
+	 */
+	private long snapshotVersion = -1;
+}
@@ -0,0 +1,532 @@
+package worms.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of spatial hashes over circular entities of a world.
+ * 	A spatial hash buckets its entities by the square cell that contains their centre.
+ * 	Only cells that hold entities have a bucket, so the cells may cover any area.
+ * 	A query only visits the cells near the queried position, so that it takes
+ * 	constant time on average, whatever the number of entities.
+ * 	The entities do not report their moves themselves: whoever moves an entity of
+ * 	a spatial hash must report its old position with move.
+ * 	All overlap tests compare squared distances. The buckets are kept in an open
+ * 	addressing table keyed on primitive cell keys, so that a query allocates nothing.
+ *
+ * @param	<E>
+ * 			The type of the entities of a spatial hash.
+ *
+ * @invar	| getCellSize() > 0
+ * @invar	| for each entity in this spatial hash: getRadius(entity) <= getMaxRadius()
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+abstract class SpatialHash<E extends Position> {
+
+	/**
+	 * Create a new, empty spatial hash with the given cell size.
+	 *
+	 * @param 	cellSize
+	 * 			The length of the sides of the cells of the new spatial hash (in meter).
+	 * @post	| new.getCellSize() == cellSize
+	 * @post	| new.size() == 0
+	 * @throws	IllegalArgumentException("The given cell size is invalid.")
+	 * 			| !(cellSize > 0)
+	 */
+	SpatialHash(double cellSize) throws IllegalArgumentException{
+		if(!(cellSize > 0))
+			throw new IllegalArgumentException("The given cell size is invalid.");
+		this.cellSize = cellSize;
+	}
+
+
+
+	/**
+	 * Return the radius of the given entity.
+	 *
+	 * @param 	entity
+	 * 			The entity to return the radius of.
+	 */
+	abstract double getRadius(E entity);
+
+	/**
+	 * Return the length of the sides of the cells of this spatial hash (in meter).
+	 */
+	@Basic @Raw @Immutable
+	public double getCellSize(){
+		return this.cellSize;
+	}
+
+	/**
+	 * Variable registering the length of the sides of the cells of this spatial hash.
+	 */
+	private final double cellSize;
+
+	/**
+	 * Return an upper bound on the radius of the entities of this spatial hash.
+	 */
+	@Basic @Raw
+	public double getMaxRadius(){
+		return this.maxRadius;
+	}
+
+	/**
+	 * Variable registering an upper bound on the radius of the entities of this spatial hash.
+	 * 	The bound only grows, so that it does not have to be recomputed when an entity leaves.
+	 */
+	private double maxRadius = 0;
+
+	/**
+	 * Return the number of entities in this spatial hash.
+	 */
+	@Basic @Raw
+	public int size(){
+		return this.size;
+	}
+
+	/**
+	 * Variable registering the number of entities in this spatial hash.
+	 */
+	private int size = 0;
+
+
+
+	/**
+	 * Add the given entity to this spatial hash, at its current position.
+	 *
+	 * @param 	entity
+	 * 			The entity to add.
+	 * @post	| new.size() == size() + 1
+	 * @post	| new.getMaxRadius() >= getRadius(entity)
+	 */
+	public void add(E entity){
+		getOrCreateBucket(getCellKey(entity.getX(), entity.getY())).add(entity);
+		maxRadius = Math.max(maxRadius, getRadius(entity));
+		size++;
+	}
+
+	/**
+	 * Remove the given entity from this spatial hash, at its current position.
+	 *
+	 * @param 	entity
+	 * 			The entity to remove.
+	 * @post	| if(the entity was in this spatial hash)
+	 * 			|	then new.size() == size() - 1
+	 */
+	public void remove(E entity){
+		if(removeFromBucket(getCellKey(entity.getX(), entity.getY()), entity))
+			size--;
+	}
+
+	/**
+	 * Move the given entity of this spatial hash from the given old position
+	 * to its current position.
+	 * 	The radius of the entity may have changed as well.
+	 *
+	 * @param 	entity
+	 * 			The entity that has moved.
+	 * @param 	oldX
+	 * 			The x-coordinate of the entity before it moved.
+	 * @param 	oldY
+	 * 			The y-coordinate of the entity before it moved.
+	 * @post	| new.getMaxRadius() >= getRadius(entity)
+	 */
+	public void move(E entity, double oldX, double oldY){
+		long oldKey = getCellKey(oldX, oldY), newKey = getCellKey(entity.getX(), entity.getY());
+		if(oldKey != newKey && removeFromBucket(oldKey, entity))
+			getOrCreateBucket(newKey).add(entity);
+		maxRadius = Math.max(maxRadius, getRadius(entity));
+	}
+
+
+
+	/**
+	 * Add all entities of this spatial hash that overlap the given circle
+	 * to the given collection.
+	 *
+	 * @param 	x
+	 * 			The x-coordinate of the centre of the circle.
+	 * @param 	y
+	 * 			The y-coordinate of the centre of the circle.
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 * @param 	result
+	 * 			The collection to add the entities to.
+	 * @post	| for each entity in this spatial hash:
+	 * 			|	new.result.contains(entity) == (result.contains(entity) ||
+	 * 			|		Math.hypot(entity.getX() - x, entity.getY() - y) <= getRadius(entity) + radius)
+	 */
+	public void collectOverlapping(double x, double y, double radius, Collection<? super E> result){
+		double reach = radius + maxRadius;
+		int fromColumn = getCell(x - reach), toColumn = getCell(x + reach);
+		int fromRow = getCell(y - reach), toRow = getCell(y + reach);
+		for(int row = fromRow; row <= toRow; row++){
+			for(int column = fromColumn; column <= toColumn; column++){
+				ArrayList<E> bucket = getBucket(getCellKey(column, row));
+				if(bucket == null)
+					continue;
+				for(int index = 0; index < bucket.size(); index++){
+					E entity = bucket.get(index);
+					if(overlaps(entity, x, y, radius))
+						result.add(entity);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the entity of this spatial hash, other than the given excluded entity,
+	 * whose boundary is nearest to the given position and not farther away than the given
+	 * distance, or null if there is no such entity.
+	 * 	The distance to the boundary of an entity is negative if the position lies within it.
+	 * 	The cells are visited in growing rings around the position, until no entity in
+	 * 	a ring further out can be nearer than the nearest one found so far.
+	 *
+	 * @param 	x
+	 * 			The x-coordinate of the position.
+	 * @param 	y
+	 * 			The y-coordinate of the position.
+	 * @param 	maxDistance
+	 * 			The largest distance to the boundary of the entity to look for.
+	 * @param 	excluded
+	 * 			The entity to leave out, or null.
+	 * @return	| result == null || (result != excluded &&
+	 * 			|	getDistance(result, x, y) <= maxDistance &&
+	 * 			|	for each entity in this spatial hash:
+	 * 			|		entity == excluded || getDistance(entity, x, y) >= getDistance(result, x, y))
+	 * @return	| if(result == null)
+	 * 			|	then for each entity in this spatial hash:
+	 * 			|		entity == excluded || getDistance(entity, x, y) > maxDistance
+	 */
+	public E getNearest(double x, double y, double maxDistance, E excluded){
+		if(size == 0)
+			return null;
+		int centreColumn = getCell(x), centreRow = getCell(y);
+		int lastRing = getLastRing(centreColumn, centreRow);
+		E nearest = null;
+		double nearestDistance = maxDistance;
+		for(int ring = 0; ring <= lastRing; ring++){
+			// Every entity in this ring or further out lies at least this far away
+			// from the position.
+			double bound = (ring - 1)*cellSize - maxRadius;
+			if((nearest == null) ? bound > nearestDistance : bound >= nearestDistance)
+				break;
+			for(int row = centreRow - ring; row <= centreRow + ring; row++){
+				boolean onEdge = (row == centreRow - ring) || (row == centreRow + ring);
+				int step = onEdge ? 1 : 2*ring;
+				for(int column = centreColumn - ring; column <= centreColumn + ring; column += Math.max(step, 1)){
+					ArrayList<E> bucket = getBucket(getCellKey(column, row));
+					if(bucket == null)
+						continue;
+					for(int index = 0; index < bucket.size(); index++){
+						E entity = bucket.get(index);
+						if(entity == excluded)
+							continue;
+						double distance = getDistance(entity, x, y);
+						if((nearest == null) ? distance <= nearestDistance : distance < nearestDistance){
+							nearest = entity;
+							nearestDistance = distance;
+						}
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Return at most the given number of entities of this spatial hash, other than the
+	 * given excluded entity, whose boundaries are nearest to the given position and not
+	 * farther away than the given distance, ordered from near to far.
+	 *
+	 * @param 	x
+	 * 			The x-coordinate of the position.
+	 * @param 	y
+	 * 			The y-coordinate of the position.
+	 * @param 	count
+	 * 			The largest number of entities to return.
+	 * @param 	maxDistance
+	 * 			The largest distance to the boundary of the entities to look for.
+	 * @param 	excluded
+	 * 			The entity to leave out, or null.
+	 * @return	| result.size() <= count && !result.contains(excluded) &&
+	 * 			| for each index in 1..result.size()-1:
+	 * 			|	getDistance(result.get(index-1), x, y) <= getDistance(result.get(index), x, y)
+	 * @return	| for each entity in this spatial hash:
+	 * 			|	if(entity != excluded && !result.contains(entity) &&
+	 * 			|			getDistance(entity, x, y) <= maxDistance)
+	 * 			|		then result.size() == count &&
+	 * 			|			getDistance(entity, x, y) >= getDistance(result.get(count-1), x, y)
+	 */
+	public List<E> getNearest(double x, double y, int count, double maxDistance, E excluded){
+		ArrayList<E> nearest = new ArrayList<E>();
+		if(count <= 0 || size == 0)
+			return nearest;
+		count = Math.min(count, size);
+		double[] distances = new double[count + 1];
+		int centreColumn = getCell(x), centreRow = getCell(y);
+		int lastRing = getLastRing(centreColumn, centreRow);
+		for(int ring = 0; ring <= lastRing; ring++){
+			// Every entity in this ring or further out lies at least this far away
+			// from the position.
+			double bound = (ring - 1)*cellSize - maxRadius;
+			if(bound > maxDistance)
+				break;
+			if(nearest.size() == count && bound >= distances[count - 1])
+				break;
+			for(int row = centreRow - ring; row <= centreRow + ring; row++){
+				boolean onEdge = (row == centreRow - ring) || (row == centreRow + ring);
+				int step = onEdge ? 1 : 2*ring;
+				for(int column = centreColumn - ring; column <= centreColumn + ring; column += Math.max(step, 1)){
+					ArrayList<E> bucket = getBucket(getCellKey(column, row));
+					if(bucket == null)
+						continue;
+					for(int entry = 0; entry < bucket.size(); entry++){
+						E entity = bucket.get(entry);
+						if(entity == excluded)
+							continue;
+						double distance = getDistance(entity, x, y);
+						if(distance > maxDistance || (nearest.size() == count && distance >= distances[count - 1]))
+							continue;
+						int index = nearest.size();
+						while(index > 0 && distances[index - 1] > distance){
+							distances[index] = distances[index - 1];
+							index--;
+						}
+						nearest.add(index, entity);
+						distances[index] = distance;
+						if(nearest.size() > count)
+							nearest.remove(count);
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Return the last ring of cells around the given cell that may hold entities.
+	 * 	No cell outside the bounding rectangle of the cells holding entities needs a visit.
+	 */
+	@Model
+	private int getLastRing(int centreColumn, int centreRow){
+		return Math.max(Math.max(centreColumn - minColumn, maxColumn - centreColumn),
+				Math.max(centreRow - minRow, maxRow - centreRow));
+	}
+
+	/**
+	 * Return the distance between the given position and the boundary of the given entity.
+	 *
+	 * @param 	entity
+	 * 			The entity to return the distance to.
+	 * @param 	x
+	 * 			The x-coordinate of the position.
+	 * @param 	y
+	 * 			The y-coordinate of the position.
+	 * @return	| result == Math.hypot(entity.getX() - x, entity.getY() - y) - getRadius(entity)
+	 */
+	public double getDistance(E entity, double x, double y){
+		return Math.hypot(entity.getX() - x, entity.getY() - y) - getRadius(entity);
+	}
+
+	/**
+	 * Check whether the given entity overlaps the given circle.
+	 *
+	 * @return	| result == (Math.hypot(entity.getX() - x, entity.getY() - y) <= getRadius(entity) + radius)
+	 */
+	@Model
+	private boolean overlaps(E entity, double x, double y, double radius){
+		double dx = entity.getX() - x, dy = entity.getY() - y, reach = getRadius(entity) + radius;
+		return dx*dx + dy*dy <= reach*reach;
+	}
+
+
+
+	/**
+	 * Return the index of the cells containing the given coordinate.
+	 */
+	@Model
+	private int getCell(double coordinate){
+		return (int)Math.floor(coordinate/cellSize);
+	}
+
+	/**
+	 * Return the key of the cell containing the given position.
+	 */
+	@Model
+	private long getCellKey(double x, double y){
+		return getCellKey(getCell(x), getCell(y));
+	}
+
+	/**
+	 * Return the key of the cell at the given column and row.
+	 */
+	@Model
+	private static long getCellKey(int column, int row){
+		return (((long)column) << 32) | (row & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Return the slot of the bucket table where the search for the given key starts.
+	 */
+	@Model
+	private static int getHomeSlot(long key, int mask){
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int)(hash ^ (hash >>> 32)) & mask;
+	}
+
+	/**
+	 * Return the bucket of the cell with the given key, or null if that cell holds no entities.
+	 */
+	@Model
+	private ArrayList<E> getBucket(long key){
+		int mask = bucketKeys.length - 1;
+		for(int slot = getHomeSlot(key, mask); ; slot = (slot + 1) & mask){
+			ArrayList<E> bucket = buckets[slot];
+			if(bucket == null || bucketKeys[slot] == key)
+				return bucket;
+		}
+	}
+
+	/**
+	 * Return the bucket of the cell with the given key, creating it if needed.
+	 */
+	@Model
+	private ArrayList<E> getOrCreateBucket(long key){
+		ArrayList<E> bucket = getBucket(key);
+		if(bucket == null){
+			if(2*(nbBuckets + 1) > buckets.length)
+				resizeBuckets(2*buckets.length);
+			bucket = new ArrayList<E>(4);
+			int mask = bucketKeys.length - 1, slot = getHomeSlot(key, mask);
+			while(buckets[slot] != null)
+				slot = (slot + 1) & mask;
+			bucketKeys[slot] = key;
+			buckets[slot] = bucket;
+			nbBuckets++;
+			int column = (int)(key >> 32), row = (int)key;
+			minColumn = Math.min(minColumn, column);
+			maxColumn = Math.max(maxColumn, column);
+			minRow = Math.min(minRow, row);
+			maxRow = Math.max(maxRow, row);
+		}
+		return bucket;
+	}
+
+	/**
+	 * Remove the given entity from the bucket of the cell with the given key, and drop
+	 * the bucket if it becomes empty.
+	 * 	If the dropped bucket lay on the border of the bounding rectangle of the cells
+	 * 	holding entities, that rectangle is shrunk to the remaining buckets.
+	 *
+	 * @return	True if and only if the entity was in that bucket.
+	 */
+	@Model
+	private boolean removeFromBucket(long key, E entity){
+		int mask = bucketKeys.length - 1, slot = getHomeSlot(key, mask);
+		while(buckets[slot] != null && bucketKeys[slot] != key)
+			slot = (slot + 1) & mask;
+		ArrayList<E> bucket = buckets[slot];
+		if(bucket == null || !bucket.remove(entity))
+			return false;
+		if(bucket.isEmpty()){
+			buckets[slot] = null;
+			nbBuckets--;
+			// Shift the buckets after the hole back, so that every search still
+			// reaches its bucket without passing an empty slot.
+			int hole = slot;
+			for(int next = (hole + 1) & mask; buckets[next] != null; next = (next + 1) & mask){
+				if(((next - getHomeSlot(bucketKeys[next], mask)) & mask) >= ((next - hole) & mask)){
+					bucketKeys[hole] = bucketKeys[next];
+					buckets[hole] = buckets[next];
+					buckets[next] = null;
+					hole = next;
+				}
+			}
+			int column = (int)(key >> 32), row = (int)key;
+			if(column == minColumn || column == maxColumn || row == minRow || row == maxRow)
+				updateBounds();
+		}
+		return true;
+	}
+
+	/**
+	 * Replace the bucket table of this spatial hash by a table with the given number of slots,
+	 * holding the same buckets.
+	 */
+	@Model
+	private void resizeBuckets(int nbSlots){
+		long[] oldKeys = bucketKeys;
+		ArrayList<E>[] oldBuckets = buckets;
+		bucketKeys = new long[nbSlots];
+		buckets = newBucketArray(nbSlots);
+		int mask = nbSlots - 1;
+		for(int index = 0; index < oldBuckets.length; index++){
+			if(oldBuckets[index] == null)
+				continue;
+			int slot = getHomeSlot(oldKeys[index], mask);
+			while(buckets[slot] != null)
+				slot = (slot + 1) & mask;
+			bucketKeys[slot] = oldKeys[index];
+			buckets[slot] = oldBuckets[index];
+		}
+	}
+
+	/**
+	 * Recompute the bounding rectangle of the cells holding entities from the buckets.
+	 */
+	@Model
+	private void updateBounds(){
+		minColumn = minRow = Integer.MAX_VALUE;
+		maxColumn = maxRow = Integer.MIN_VALUE;
+		for(int slot = 0; slot < buckets.length; slot++){
+			if(buckets[slot] == null)
+				continue;
+			int column = (int)(bucketKeys[slot] >> 32), row = (int)bucketKeys[slot];
+			minColumn = Math.min(minColumn, column);
+			maxColumn = Math.max(maxColumn, column);
+			minRow = Math.min(minRow, row);
+			maxRow = Math.max(maxRow, row);
+		}
+	}
+
+	/**
+	 * Return a new array of buckets with the given length.
+	 */
+	@Model @SuppressWarnings("unchecked")
+	private static <E> ArrayList<E>[] newBucketArray(int length){
+		return (ArrayList<E>[])new ArrayList<?>[length];
+	}
+
+	/**
+	 * Array registering the key of the cell of each slot of the bucket table that holds a bucket.
+	 * 	Its length is a power of two.
+	 */
+	private long[] bucketKeys = new long[16];
+
+	/**
+	 * Array referencing the bucket of entities of each slot of the bucket table,
+	 * or null for an empty slot.
+	 * 	At least half of the slots are empty.
+	 */
+	private ArrayList<E>[] buckets = newBucketArray(16);
+
+	/**
+	 * Variable registering the number of buckets in the bucket table.
+	 */
+	private int nbBuckets = 0;
+
+	/**
+	 * Variables registering the bounding rectangle of the cells that hold entities.
+	 */
+	private int minColumn = Integer.MAX_VALUE, maxColumn = Integer.MIN_VALUE,
+			minRow = Integer.MAX_VALUE, maxRow = Integer.MIN_VALUE;
+}
@@ -0,0 +1,295 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of summed-area tables over a terrain grid.
+ * 	A summed-area table (or integral image) registers, for each cell, the number
+ * 	of impassable cells above and to the left of it. The number of impassable cells
+ * 	in any rectangle of the terrain then follows from a fixed number of lookups.
+ * 	The table is split in square tiles, each with its own local sums, so that a change
+ * 	to the terrain only has to be patched in the tiles it touches and in the sums of
+ * 	whole tiles, instead of in every cell below and to the right of it.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+class SummedAreaTable {
+
+	/**
+	 * Create a new summed-area table for the given terrain grid.
+	 *
+	 * @param 	terrain
+	 * 			The terrain grid to build the table for.
+	 * @post	| for each fromRow, fromColumn, toRow, toColumn in terrain:
+	 * 			|	new.countImpassable(fromRow, fromColumn, toRow, toColumn) ==
+	 * 			|		terrain.countImpassable(fromRow, fromColumn, toRow, toColumn)
+	 */
+	SummedAreaTable(TerrainGrid terrain){
+		this.terrain = terrain;
+		this.nbRows = terrain.getNbRows();
+		this.nbColumns = terrain.getNbColumns();
+		this.nbTileRows = (nbRows + TILE_SIZE - 1) / TILE_SIZE;
+		this.nbTileColumns = (nbColumns + TILE_SIZE - 1) / TILE_SIZE;
+		this.localSums = new int[nbRows * nbColumns];
+		this.tileSums = new int[(nbTileRows + 1) * (nbTileColumns + 1)];
+		this.bandSums = new int[nbTileRows * TILE_SIZE * (nbTileColumns + 1)];
+		this.stackSums = new int[nbTileColumns * TILE_SIZE * (nbTileRows + 1)];
+		update(0, 0, nbRows, nbColumns);
+	}
+
+	/**
+	 * Create a new summed-area table for the given terrain grid, with the same sums as the given table.
+	 *
+	 * @param 	original
+	 * 			The table to copy.
+	 * @param 	terrain
+	 * 			The terrain grid of the new table, with the same cells as the terrain
+	 * 			grid of the given table.
+	 * @post	| new.getTerrain() == terrain
+	 * @post	| for each fromRow, fromColumn, toRow, toColumn in terrain:
+	 * 			|	new.countImpassable(fromRow, fromColumn, toRow, toColumn) ==
+	 * 			|		original.countImpassable(fromRow, fromColumn, toRow, toColumn)
+	 */
+	SummedAreaTable(SummedAreaTable original, TerrainGrid terrain){
+		this.terrain = terrain;
+		this.nbRows = original.nbRows;
+		this.nbColumns = original.nbColumns;
+		this.nbTileRows = original.nbTileRows;
+		this.nbTileColumns = original.nbTileColumns;
+		this.localSums = original.localSums.clone();
+		this.tileSums = original.tileSums.clone();
+		this.bandSums = original.bandSums.clone();
+		this.stackSums = original.stackSums.clone();
+	}
+
+
+
+	/**
+	 * Return the number of impassable cells in the given rectangle.
+	 *
+	 * @param 	fromRow
+	 * 			The first row of the rectangle (inclusive).
+	 * @param 	fromColumn
+	 * 			The first column of the rectangle (inclusive).
+	 * @param 	toRow
+	 * 			The last row of the rectangle (exclusive).
+	 * @param 	toColumn
+	 * 			The last column of the rectangle (exclusive).
+	 */
+	public int countImpassable(int fromRow, int fromColumn, int toRow, int toColumn){
+		return getPrefixSum(toRow, toColumn) - getPrefixSum(fromRow, toColumn)
+				- getPrefixSum(toRow, fromColumn) + getPrefixSum(fromRow, fromColumn);
+	}
+
+	/**
+	 * Return the number of impassable cells above the given row and
+	 * to the left of the given column.
+	 * 	This is the sum of the whole tiles in that region, of the partial tiles in the
+	 * 	band of the given row, of the partial tiles in the stack of the given column,
+	 * 	and of the local sums of the tile of the given cell.
+	 */
+	@Model
+	private int getPrefixSum(int row, int column){
+		int tileRow = row / TILE_SIZE, tileColumn = column / TILE_SIZE;
+		int sum = tileSums[tileRow * (nbTileColumns + 1) + tileColumn];
+		boolean partialRow = (row % TILE_SIZE != 0), partialColumn = (column % TILE_SIZE != 0);
+		if(partialRow)
+			sum += bandSums[row * (nbTileColumns + 1) + tileColumn];
+		if(partialColumn)
+			sum += stackSums[column * (nbTileRows + 1) + tileRow];
+		if(partialRow && partialColumn)
+			sum += localSums[(row - 1) * nbColumns + column - 1];
+		return sum;
+	}
+
+	/**
+	 * Bring this table up to date with its terrain grid after the cells in the given
+	 * rectangle have changed.
+	 * 	The tiles overlapping the rectangle are recomputed, as well as the sums of the
+	 * 	bands and stacks of tiles these tiles belong to and the sums of whole tiles.
+	 *
+	 * @param 	fromRow
+	 * 			The first row of the rectangle (inclusive).
+	 * @param 	fromColumn
+	 * 			The first column of the rectangle (inclusive).
+	 * @param 	toRow
+	 * 			The last row of the rectangle (exclusive).
+	 * @param 	toColumn
+	 * 			The last column of the rectangle (exclusive).
+	 * @post	| for each fromRow, fromColumn, toRow, toColumn in getTerrain():
+	 * 			|	new.countImpassable(fromRow, fromColumn, toRow, toColumn) ==
+	 * 			|		getTerrain().countImpassable(fromRow, fromColumn, toRow, toColumn)
+	 */
+	public void update(int fromRow, int fromColumn, int toRow, int toColumn){
+		if(fromRow >= toRow || fromColumn >= toColumn)
+			return;
+		int fromTileRow = fromRow / TILE_SIZE, toTileRow = (toRow - 1) / TILE_SIZE + 1;
+		int fromTileColumn = fromColumn / TILE_SIZE, toTileColumn = (toColumn - 1) / TILE_SIZE + 1;
+		for(int tileRow = fromTileRow; tileRow < toTileRow; tileRow++){
+			for(int tileColumn = fromTileColumn; tileColumn < toTileColumn; tileColumn++)
+				updateLocalSums(tileRow, tileColumn);
+		}
+		for(int tileRow = fromTileRow; tileRow < toTileRow; tileRow++)
+			updateBandSums(tileRow);
+		for(int tileColumn = fromTileColumn; tileColumn < toTileColumn; tileColumn++)
+			updateStackSums(tileColumn);
+		updateTileSums();
+	}
+
+	/**
+	 * Recompute the local sums of the given tile from the terrain grid.
+	 */
+	@Model
+	private void updateLocalSums(int tileRow, int tileColumn){
+		int firstRow = tileRow * TILE_SIZE, lastRow = Math.min(nbRows, firstRow + TILE_SIZE);
+		int firstColumn = tileColumn * TILE_SIZE, lastColumn = Math.min(nbColumns, firstColumn + TILE_SIZE);
+		for(int row = firstRow; row < lastRow; row++){
+			int rowSum = 0;
+			int offset = row * nbColumns;
+			for(int column = firstColumn; column < lastColumn; column++){
+				if(terrain.isImpassable(row, column))
+					rowSum++;
+				localSums[offset + column] = (row == firstRow) ? rowSum
+						: localSums[offset - nbColumns + column] + rowSum;
+			}
+		}
+	}
+
+	/**
+	 * Recompute, for each row inside the given band of tiles and each tile column,
+	 * the number of impassable cells from the top of the band down to that row
+	 * and left of that tile column.
+	 */
+	@Model
+	private void updateBandSums(int tileRow){
+		int firstRow = tileRow * TILE_SIZE, lastRow = Math.min(nbRows, firstRow + TILE_SIZE - 1);
+		for(int row = firstRow + 1; row <= lastRow; row++){
+			int offset = row * (nbTileColumns + 1);
+			for(int tileColumn = 0; tileColumn < nbTileColumns; tileColumn++){
+				int lastColumn = Math.min(nbColumns, (tileColumn + 1) * TILE_SIZE) - 1;
+				bandSums[offset + tileColumn + 1] = bandSums[offset + tileColumn]
+						+ localSums[(row - 1) * nbColumns + lastColumn];
+			}
+		}
+	}
+
+	/**
+	 * Recompute, for each column inside the given stack of tiles and each tile row,
+	 * the number of impassable cells from the left of the stack up to that column
+	 * and above that tile row.
+	 */
+	@Model
+	private void updateStackSums(int tileColumn){
+		int firstColumn = tileColumn * TILE_SIZE, lastColumn = Math.min(nbColumns, firstColumn + TILE_SIZE - 1);
+		for(int column = firstColumn + 1; column <= lastColumn; column++){
+			int offset = column * (nbTileRows + 1);
+			for(int tileRow = 0; tileRow < nbTileRows; tileRow++){
+				int lastRow = Math.min(nbRows, (tileRow + 1) * TILE_SIZE) - 1;
+				stackSums[offset + tileRow + 1] = stackSums[offset + tileRow]
+						+ localSums[lastRow * nbColumns + column - 1];
+			}
+		}
+	}
+
+	/**
+	 * Recompute the sums of whole tiles.
+	 */
+	@Model
+	private void updateTileSums(){
+		int stride = nbTileColumns + 1;
+		for(int tileRow = 0; tileRow < nbTileRows; tileRow++){
+			int lastRow = Math.min(nbRows, (tileRow + 1) * TILE_SIZE) - 1;
+			int rowSum = 0;
+			for(int tileColumn = 0; tileColumn < nbTileColumns; tileColumn++){
+				int lastColumn = Math.min(nbColumns, (tileColumn + 1) * TILE_SIZE) - 1;
+				rowSum += localSums[lastRow * nbColumns + lastColumn];
+				tileSums[(tileRow + 1) * stride + tileColumn + 1] = tileSums[tileRow * stride + tileColumn + 1] + rowSum;
+			}
+		}
+	}
+
+
+
+	/**
+	 * Return the terrain grid of this table.
+	 */
+	@Basic @Raw @Immutable
+	public TerrainGrid getTerrain(){
+		return this.terrain;
+	}
+
+	/**
+	 * Variable referencing the terrain grid of this table.
+	 */
+	private final TerrainGrid terrain;
+
+	/**
+	 * Return the number of rows of the terrain of this table.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbRows(){
+		return this.nbRows;
+	}
+
+	/**
+	 * Variable registering the number of rows of the terrain of this table.
+	 */
+	private final int nbRows;
+
+	/**
+	 * Return the number of columns of the terrain of this table.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbColumns(){
+		return this.nbColumns;
+	}
+
+	/**
+	 * Variable registering the number of columns of the terrain of this table.
+	 */
+	private final int nbColumns;
+
+	/**
+	 * Variable registering the number of rows of tiles.
+	 */
+	private final int nbTileRows;
+
+	/**
+	 * Variable registering the number of columns of tiles.
+	 */
+	private final int nbTileColumns;
+
+	/**
+	 * Array registering, for each cell, the number of impassable cells in its tile
+	 * above and to the left of it, the cell itself included, row after row.
+	 */
+	private final int[] localSums;
+
+	/**
+	 * Array registering, for each tile row and tile column, the number of impassable
+	 * cells in the whole tiles above and to the left of them, with an extra row
+	 * and column of zeros at the top and the left.
+	 */
+	private final int[] tileSums;
+
+	/**
+	 * Array registering, for each row and tile column, the number of impassable cells
+	 * in the band of that row, above that row and to the left of that tile column.
+	 */
+	private final int[] bandSums;
+
+	/**
+	 * Array registering, for each column and tile row, the number of impassable cells
+	 * in the stack of that column, to the left of that column and above that tile row.
+	 */
+	private final int[] stackSums;
+
+	/**
+	 * Final class variable registering the number of rows and columns of a tile.
+	 */
+	private static final int TILE_SIZE = 64;
+}
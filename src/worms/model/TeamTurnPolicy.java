@@ -0,0 +1,89 @@
+package worms.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A class of turn policies that give the turn to each team in turn, and within a team,
+ * to each of its worms in turn.
+ * 	The teams take turns in the order in which their worms come up in the turn order
+ * 	of the world. A worm without a team is a team of its own. If all worms belong
+ * 	to the same team, the turn goes to each worm in turn.
+ * 	Passing the turn walks the turn order only as far as the next team and, within that
+ * 	team, as far as the worm after the one that played last.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class TeamTurnPolicy implements TurnPolicy {
+
+	/**
+	 * Return the worm of the given world that gets the turn after the given worm.
+	 *
+	 * @return	| if(current == null || world.getWorms().isEmpty())
+	 * 			|	then result == world.getTurnSuccessor(current)
+	 * 			| else if(some worm in world.getWorms() is not in the team of current)
+	 * 			|	then result is not in the team of current &&
+	 * 			|		result is the worm of its team after the one that played last
+	 * 			| else result == world.getTurnSuccessor(current)
+	 */
+	@Override
+	public Worm getNextWorm(World world, Worm current){
+		Worm first = world.getTurnSuccessor(current);
+		if(current == null || first == null)
+			return remember(first);
+		Team currentTeam = current.getTeam();
+		Worm candidate = first;
+		while(candidate != current && currentTeam != null && candidate.getTeam() == currentTeam){
+			candidate = world.getTurnSuccessor(candidate);
+			if(candidate == first)
+				break;
+		}
+		Team team = candidate.getTeam();
+		if(candidate == current)
+			return remember(first);
+		if(team == null || team == currentTeam)
+			return remember(candidate);
+		Worm last = lastPlayed.get(team);
+		if(last == null || !world.hasAsWorm(last) || last.getTeam() != team)
+			return remember(candidate);
+		Worm next = world.getTurnSuccessor(last);
+		while(next.getTeam() != team)
+			next = world.getTurnSuccessor(next);
+		return remember(next);
+	}
+
+	/**
+	 * Return a new team turn policy for a fork of a world, that remembers for each copied team
+	 * the copy of the worm of that team that played last.
+	 *
+	 * @param 	teamCopies
+	 * 			A map from the teams of the original world to their copies.
+	 * @param 	wormCopies
+	 * 			A map from the worms of the original world to their copies.
+	 */
+	TeamTurnPolicy copy(Map<Team, Team> teamCopies, Map<Worm, Worm> wormCopies){
+		TeamTurnPolicy result = new TeamTurnPolicy();
+		for(Map.Entry<Team, Worm> entry: lastPlayed.entrySet()){
+			Team team = teamCopies.get(entry.getKey());
+			Worm worm = wormCopies.get(entry.getValue());
+			if(team != null && worm != null)
+				result.lastPlayed.put(team, worm);
+		}
+		return result;
+	}
+
+	/**
+	 * Register the given worm as the worm of its team that played last, and return it.
+	 */
+	private Worm remember(Worm worm){
+		if(worm != null && worm.getTeam() != null)
+			lastPlayed.put(worm.getTeam(), worm);
+		return worm;
+	}
+
+	/**
+	 * Map registering, for each team, the worm of that team that played last.
+	 */
+	private final Map<Team, Worm> lastPlayed = new HashMap<Team, Worm>();
+}
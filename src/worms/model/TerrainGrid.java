@@ -0,0 +1,407 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of terrain grids involving a number of rows, a number of columns
+ * and, for each cell, whether that cell is passable or impassable.
+ * 	The cells are packed one bit per cell in words of 64 bits, so that
+ * 	queries on a span of a row or on a rectangle can handle 64 cells at a time.
+ * 	A set bit marks an impassable cell.
+ * 	Row 0 is the top row of the terrain, column 0 the leftmost column,
+ * 	just like in a passable map.
+ *
+ * @invar	| getNbRows() > 0 && getNbColumns() > 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class TerrainGrid {
+
+	/**
+	 * Create a new terrain grid with the given number of rows and columns
+	 * in which every cell is passable.
+	 *
+	 * @param 	nbRows
+	 * 			The number of rows of this new terrain grid.
+	 * @param 	nbColumns
+	 * 			The number of columns of this new terrain grid.
+	 * @post	| new.getNbRows() == nbRows
+	 * @post	| new.getNbColumns() == nbColumns
+	 * @post	| for each row, column in this grid:
+	 * 			|	new.isPassable(row, column)
+	 * @throws	IllegalArgumentException("The given dimensions are invalid.")
+	 * 			| nbRows <= 0 || nbColumns <= 0
+	 */
+	public TerrainGrid(int nbRows, int nbColumns)
+			throws IllegalArgumentException{
+		this(nbRows, nbColumns, true);
+	}
+
+	/**
+	 * Create a new terrain grid with the given number of rows and columns,
+	 * whose words are kept in memory by this grid or by a subclass.
+	 *
+	 * @param 	nbRows
+	 * 			The number of rows of this new terrain grid.
+	 * @param 	nbColumns
+	 * 			The number of columns of this new terrain grid.
+	 * @param 	inMemory
+	 * 			Whether this grid keeps its words in memory itself.
+	 * @post	| new.getNbRows() == nbRows
+	 * @post	| new.getNbColumns() == nbColumns
+	 * @post	| new.isInMemory() == inMemory
+	 * @post	| if(inMemory)
+	 * 			|	then for each row, column in this grid:
+	 * 			|		new.isPassable(row, column)
+	 * @throws	IllegalArgumentException("The given dimensions are invalid.")
+	 * 			| nbRows <= 0 || nbColumns <= 0
+	 */
+	protected TerrainGrid(int nbRows, int nbColumns, boolean inMemory)
+			throws IllegalArgumentException{
+		if(nbRows <= 0 || nbColumns <= 0)
+			throw new IllegalArgumentException("The given dimensions are invalid.");
+		this.nbRows = nbRows;
+		this.nbColumns = nbColumns;
+		this.wordsPerRow = (nbColumns + WORD_SIZE - 1) / WORD_SIZE;
+		this.words = inMemory ? new long[nbRows * wordsPerRow] : null;
+	}
+
+	/**
+	 * Create a new terrain grid from the given passable map.
+	 *
+	 * @param 	passableMap
+	 * 			A rectangular matrix in which passableMap[r][c] is true if and only if
+	 * 			the cell at row r and column c is passable.
+	 * @effect	| this(passableMap.length, passableMap[0].length)
+	 * @post	| for each row, column in passableMap:
+	 * 			|	new.isPassable(row, column) == passableMap[row][column]
+	 * @throws	IllegalArgumentException("The given passable map is not rectangular.")
+	 * 			| for some row in passableMap:
+	 * 			|	passableMap[row].length != passableMap[0].length
+	 */
+	public TerrainGrid(boolean[][] passableMap)
+			throws IllegalArgumentException{
+		this(passableMap.length, passableMap.length == 0 ? 0 : passableMap[0].length);
+		for(int row = 0; row < nbRows; row++){
+			if(passableMap[row].length != nbColumns)
+				throw new IllegalArgumentException("The given passable map is not rectangular.");
+			for(int column = 0; column < nbColumns; column++){
+				if(!passableMap[row][column])
+					setPassable(row, column, false);
+			}
+		}
+	}
+
+
+
+	/**
+	 * Return the number of rows of this terrain grid.
+	 */
+	@Basic @Raw
+	public int getNbRows(){
+		return this.nbRows;
+	}
+
+	/**
+	 * Variable registering the number of rows of this terrain grid.
+	 */
+	private final int nbRows;
+
+	/**
+	 * Return the number of columns of this terrain grid.
+	 */
+	@Basic @Raw
+	public int getNbColumns(){
+		return this.nbColumns;
+	}
+
+	/**
+	 * Variable registering the number of columns of this terrain grid.
+	 */
+	private final int nbColumns;
+
+
+
+	/**
+	 * Check whether the cell at the given row and column is passable.
+	 *
+	 * @param 	row
+	 * 			The row of the cell to check.
+	 * @param 	column
+	 * 			The column of the cell to check.
+	 * @return	| result == !isImpassable(row, column)
+	 */
+	public boolean isPassable(int row, int column){
+		return !isImpassable(row, column);
+	}
+
+	/**
+	 * Check whether the cell at the given row and column is impassable.
+	 *
+	 * @param 	row
+	 * 			The row of the cell to check.
+	 * @param 	column
+	 * 			The column of the cell to check.
+	 * @return	True if and only if the bit of the given cell is set.
+	 */
+	public boolean isImpassable(int row, int column){
+		return (getWord(row, column >>> WORD_SHIFT) & (1L << column)) != 0;
+	}
+
+	/**
+	 * Mark the cell at the given row and column as passable or impassable.
+	 *
+	 * @param 	row
+	 * 			The row of the cell to mark.
+	 * @param 	column
+	 * 			The column of the cell to mark.
+	 * @param 	passable
+	 * 			Whether the cell becomes passable or impassable.
+	 * @post	| new.isPassable(row, column) == passable
+	 */
+	public void setPassable(int row, int column, boolean passable){
+		int wordIndex = column >>> WORD_SHIFT;
+		if(passable)
+			setWord(row, wordIndex, getWord(row, wordIndex) & ~(1L << column));
+		else
+			setWord(row, wordIndex, getWord(row, wordIndex) | (1L << column));
+	}
+
+
+
+	/**
+	 * Mark the cells in the given row from the given first column up to
+	 * (but not including) the given last column as passable or impassable.
+	 *
+	 * @param 	row
+	 * 			The row of the cells to mark.
+	 * @param 	fromColumn
+	 * 			The first column to mark (inclusive).
+	 * @param 	toColumn
+	 * 			The last column to mark (exclusive).
+	 * @param 	passable
+	 * 			Whether the cells become passable or impassable.
+	 * @post	| for each column in fromColumn..toColumn-1:
+	 * 			|	new.isPassable(row, column) == passable
+	 */
+	public void setPassableSpan(int row, int fromColumn, int toColumn, boolean passable){
+		if(fromColumn >= toColumn)
+			return;
+		int firstWord = fromColumn >>> WORD_SHIFT;
+		int lastWord = (toColumn - 1) >>> WORD_SHIFT;
+		for(int word = firstWord; word <= lastWord; word++){
+			long mask = -1L;
+			if(word == firstWord)
+				mask &= -1L << fromColumn;
+			if(word == lastWord)
+				mask &= -1L >>> (WORD_SIZE - 1 - ((toColumn - 1) & (WORD_SIZE - 1)));
+			if(passable)
+				setWord(row, word, getWord(row, word) & ~mask);
+			else
+				setWord(row, word, getWord(row, word) | mask);
+		}
+	}
+
+
+
+	/**
+	 * Return the number of impassable cells in the given row
+	 * from the given first column up to (but not including) the given last column.
+	 *
+	 * @param 	row
+	 * 			The row to count in.
+	 * @param 	fromColumn
+	 * 			The first column to count (inclusive).
+	 * @param 	toColumn
+	 * 			The last column to count (exclusive).
+	 * @return	| result ==
+	 * 			|	card({column in fromColumn..toColumn-1 | isImpassable(row, column)})
+	 */
+	public int countImpassable(int row, int fromColumn, int toColumn){
+		if(fromColumn >= toColumn)
+			return 0;
+		int firstWord = fromColumn >>> WORD_SHIFT;
+		int lastWord = (toColumn - 1) >>> WORD_SHIFT;
+		long firstMask = -1L << fromColumn;
+		long lastMask = -1L >>> (WORD_SIZE - 1 - ((toColumn - 1) & (WORD_SIZE - 1)));
+		if(firstWord == lastWord)
+			return Long.bitCount(getWord(row, firstWord) & firstMask & lastMask);
+		int count = Long.bitCount(getWord(row, firstWord) & firstMask);
+		for(int word = firstWord + 1; word < lastWord; word++)
+			count += Long.bitCount(getWord(row, word));
+		return count + Long.bitCount(getWord(row, lastWord) & lastMask);
+	}
+
+	/**
+	 * Check whether all cells of the given row span are passable.
+	 *
+	 * @return	| result == (countImpassable(row, fromColumn, toColumn) == 0)
+	 */
+	public boolean isPassableSpan(int row, int fromColumn, int toColumn){
+		return countImpassable(row, fromColumn, toColumn) == 0;
+	}
+
+	/**
+	 * Check whether all cells of the given row span are impassable.
+	 *
+	 * @return	| result == (countImpassable(row, fromColumn, toColumn) == toColumn - fromColumn)
+	 */
+	public boolean isImpassableSpan(int row, int fromColumn, int toColumn){
+		return countImpassable(row, fromColumn, toColumn) == Math.max(0, toColumn - fromColumn);
+	}
+
+	/**
+	 * Return the number of impassable cells in the given rectangle.
+	 *
+	 * @param 	fromRow
+	 * 			The first row of the rectangle (inclusive).
+	 * @param 	fromColumn
+	 * 			The first column of the rectangle (inclusive).
+	 * @param 	toRow
+	 * 			The last row of the rectangle (exclusive).
+	 * @param 	toColumn
+	 * 			The last column of the rectangle (exclusive).
+	 * @return	| result == sum({countImpassable(row, fromColumn, toColumn)
+	 * 			|					| row in fromRow..toRow-1})
+	 */
+	public long countImpassable(int fromRow, int fromColumn, int toRow, int toColumn){
+		long count = 0;
+		for(int row = fromRow; row < toRow; row++)
+			count += countImpassable(row, fromColumn, toColumn);
+		return count;
+	}
+
+	/**
+	 * Check whether all cells of the given rectangle are passable.
+	 *
+	 * @return	| result == (countImpassable(fromRow, fromColumn, toRow, toColumn) == 0)
+	 */
+	public boolean isPassableRectangle(int fromRow, int fromColumn, int toRow, int toColumn){
+		for(int row = fromRow; row < toRow; row++){
+			if(!isPassableSpan(row, fromColumn, toColumn))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Check whether all cells of the given rectangle are impassable.
+	 *
+	 * @return	| result == for each row in fromRow..toRow-1:
+	 * 			|	isImpassableSpan(row, fromColumn, toColumn)
+	 */
+	public boolean isImpassableRectangle(int fromRow, int fromColumn, int toRow, int toColumn){
+		for(int row = fromRow; row < toRow; row++){
+			if(!isImpassableSpan(row, fromColumn, toColumn))
+				return false;
+		}
+		return true;
+	}
+
+
+
+	/**
+	 * Return a new terrain grid with the same cells as this terrain grid.
+	 * 	Changing the cells of the copy does not change the cells of this grid.
+	 *
+	 * @return	| result != this && result.getNbRows() == getNbRows() && 
+	 * 			|	result.getNbColumns() == getNbColumns()
+	 * @return	| for each row, column in this grid:
+	 * 			|	result.isPassable(row, column) == isPassable(row, column)
+	 */
+	public TerrainGrid copy(){
+		TerrainGrid result = new TerrainGrid(nbRows, nbColumns);
+		for(int row = 0; row < nbRows; row++){
+			for(int word = 0; word < wordsPerRow; word++)
+				result.setWord(row, word, getWord(row, word));
+		}
+		return result;
+	}
+
+	/**
+	 * Return a new passable map with the contents of this terrain grid.
+	 *
+	 * @return	| for each row, column in this grid:
+	 * 			|	result[row][column] == isPassable(row, column)
+	 */
+	public boolean[][] toPassableMap(){
+		boolean[][] passableMap = new boolean[nbRows][nbColumns];
+		for(int row = 0; row < nbRows; row++){
+			for(int column = 0; column < nbColumns; column++)
+				passableMap[row][column] = isPassable(row, column);
+		}
+		return passableMap;
+	}
+
+
+
+	/**
+	 * Check whether this terrain grid keeps all its cells in memory.
+	 * 	Terrain grids that do not, load their cells on demand, and it is
+	 * 	best not to visit all their cells at once.
+	 */
+	@Basic @Raw
+	public boolean isInMemory(){
+		return this.words != null;
+	}
+
+	/**
+	 * Return the number of words used for each row of this terrain grid.
+	 */
+	@Basic @Raw
+	protected int getNbWordsPerRow(){
+		return this.wordsPerRow;
+	}
+
+	/**
+	 * Return the word holding the bits of the cells of the given row 
+	 * from column 64*wordIndex up to (but not including) column 64*(wordIndex+1).
+	 * 	Bit k of the word holds column 64*wordIndex+k; a set bit marks an impassable cell.
+	 *
+	 * @param 	row
+	 * 			The row of the word.
+	 * @param 	wordIndex
+	 * 			The index of the word in that row.
+	 */
+	protected long getWord(int row, int wordIndex){
+		return words[row * wordsPerRow + wordIndex];
+	}
+
+	/**
+	 * Replace the given word of this terrain grid by the given value.
+	 *
+	 * @param 	row
+	 * 			The row of the word.
+	 * @param 	wordIndex
+	 * 			The index of the word in that row.
+	 * @param 	word
+	 * 			The new value of the word.
+	 * @post	| new.getWord(row, wordIndex) == word
+	 */
+	protected void setWord(int row, int wordIndex, long word){
+		words[row * wordsPerRow + wordIndex] = word;
+	}
+
+	/**
+	 * Variable registering the number of words used for each row.
+	 */
+	private final int wordsPerRow;
+
+	/**
+	 * Array referencing the words holding the bits of all cells, row after row,
+	 * or null if a subclass keeps these words itself.
+	 */
+	private final long[] words;
+
+	/**
+	 * Final class variable registering the number of cells per word.
+	 */
+	protected static final int WORD_SIZE = 64;
+
+	/**
+	 * Final class variable registering the shift turning a column into a word index.
+	 */
+	protected static final int WORD_SHIFT = 6;
+}
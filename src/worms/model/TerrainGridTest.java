@@ -0,0 +1,294 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * A class collecting tests for the class terrain grid.
+ * 
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class TerrainGridTest {
+
+	/**
+	 * Variable referencing a terrain grid that spans more than one word per row.
+	 */
+	private TerrainGrid wideGrid;
+
+	/**
+	 * Set up a mutable test fixture.
+	 * 
+	 * @post	The variable wideGrid references a new terrain grid of 3 rows and 150 columns
+	 * 			in which the columns 60 up to 139 of row 1 are impassable.
+	 */
+	@Before
+	public void setUpMutableFixture(){
+		wideGrid = new TerrainGrid(3, 150);
+		for(int column = 60; column < 140; column++)
+			wideGrid.setPassable(1, column, false);
+	}
+
+	@Test
+	public void constructor_passableMap(){
+		boolean[][] passableMap = {{false,true,true},
+								   {true,false,true}};
+		TerrainGrid grid = new TerrainGrid(passableMap);
+		assertEquals(2, grid.getNbRows());
+		assertEquals(3, grid.getNbColumns());
+		assertTrue(grid.isImpassable(0, 0));
+		assertTrue(grid.isPassable(0, 1));
+		assertTrue(grid.isImpassable(1, 1));
+		assertTrue(Arrays.deepEquals(passableMap, grid.toPassableMap()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_notRectangular(){
+		new TerrainGrid(new boolean[][] {{true,true},{true}});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_illegalDimensions(){
+		new TerrainGrid(0, 5);
+	}
+
+	@Test
+	public void setPassable_legalCase(){
+		wideGrid.setPassable(1, 100, true);
+		assertTrue(wideGrid.isPassable(1, 100));
+		assertTrue(wideGrid.isImpassable(1, 101));
+	}
+
+	@Test
+	public void setPassableSpan_legalCase(){
+		wideGrid.setPassableSpan(1, 62, 130, true);
+		assertEquals(12, wideGrid.countImpassable(1, 0, 150));
+		assertTrue(wideGrid.isImpassable(1, 61));
+		assertTrue(wideGrid.isImpassable(1, 130));
+		wideGrid.setPassableSpan(0, 10, 70, false);
+		assertEquals(60, wideGrid.countImpassable(0, 0, 150));
+	}
+
+	@Test
+	public void countImpassable_rowSpan(){
+		assertEquals(80, wideGrid.countImpassable(1, 0, 150));
+		assertEquals(4, wideGrid.countImpassable(1, 56, 64));
+		assertEquals(0, wideGrid.countImpassable(1, 140, 150));
+		assertEquals(0, wideGrid.countImpassable(0, 0, 150));
+		assertEquals(0, wideGrid.countImpassable(1, 70, 70));
+	}
+
+	@Test
+	public void spans_legalCase(){
+		assertTrue(wideGrid.isImpassableSpan(1, 60, 140));
+		assertFalse(wideGrid.isImpassableSpan(1, 59, 140));
+		assertTrue(wideGrid.isPassableSpan(1, 0, 60));
+		assertFalse(wideGrid.isPassableSpan(1, 0, 61));
+	}
+
+	@Test
+	public void rectangles_legalCase(){
+		assertEquals(80, wideGrid.countImpassable(0, 0, 3, 150));
+		assertTrue(wideGrid.isImpassableRectangle(1, 64, 2, 128));
+		assertFalse(wideGrid.isImpassableRectangle(0, 64, 2, 128));
+		assertTrue(wideGrid.isPassableRectangle(0, 0, 3, 60));
+		assertFalse(wideGrid.isPassableRectangle(0, 0, 3, 61));
+	}
+
+	@Test
+	public void pagedGrid_roundTrip() throws IOException{
+		File file = File.createTempFile("worms-", ".terrain");
+		try{
+			PagedTerrainGrid.write(wideGrid, file);
+			PagedTerrainGrid paged = PagedTerrainGrid.open(file, 1);
+			assertFalse(paged.isInMemory());
+			assertEquals(3, paged.getNbRows());
+			assertEquals(150, paged.getNbColumns());
+			assertTrue(Arrays.deepEquals(wideGrid.toPassableMap(), paged.toPassableMap()));
+			assertEquals(1, paged.getNbCachedTiles());
+		}
+		finally{
+			file.delete();
+		}
+	}
+
+	@Test
+	public void pagedGrid_missingFile() throws IOException{
+		File file = File.createTempFile("worms-", ".terrain");
+		file.delete();
+		try{
+			PagedTerrainGrid.open(file);
+			fail();
+		}
+		catch(IOException exc){
+			assertFalse(file.exists());
+		}
+	}
+
+	@Test
+	public void pagedGrid_concurrentReads() throws Exception{
+		final TerrainGrid grid = new TerrainGrid(200, 300);
+		for(int row = 0; row < 200; row++)
+			for(int column = 0; column < 300; column++)
+				if((row*7 + column*3) % 5 == 0)
+					grid.setPassable(row, column, false);
+		File file = File.createTempFile("worms-", ".terrain");
+		try{
+			PagedTerrainGrid.write(grid, file);
+			final PagedTerrainGrid paged = PagedTerrainGrid.open(file, 3);
+			final boolean[][] expected = grid.toPassableMap();
+			final boolean[] equal = new boolean[4];
+			Thread[] threads = new Thread[4];
+			for(int i = 0; i < threads.length; i++){
+				final int index = i;
+				threads[i] = new Thread(){
+					@Override
+					public void run(){
+						boolean same = true;
+						for(int round = 0; round < 5; round++)
+							same = same && Arrays.deepEquals(expected, paged.toPassableMap());
+						equal[index] = same;
+					}
+				};
+				threads[i].start();
+			}
+			for(int i = 0; i < threads.length; i++){
+				threads[i].join();
+				assertTrue(equal[i]);
+			}
+			assertTrue(paged.getNbCachedTiles() <= 3);
+		}
+		finally{
+			file.delete();
+		}
+	}
+
+	@Test
+	public void pagedGrid_changesStayPrivate() throws IOException{
+		File file = File.createTempFile("worms-", ".terrain");
+		try{
+			PagedTerrainGrid.write(wideGrid, file);
+			PagedTerrainGrid paged = PagedTerrainGrid.open(file, 1);
+			paged.setPassableSpan(1, 60, 140, true);
+			paged.setPassable(2, 0, false);
+			assertEquals(0, paged.countImpassable(1, 0, 150));
+			assertTrue(paged.isImpassable(2, 0));
+			assertTrue(PagedTerrainGrid.open(file).isImpassableSpan(1, 60, 140));
+			assertTrue(PagedTerrainGrid.open(file).isPassable(2, 0));
+		}
+		finally{
+			file.delete();
+		}
+	}
+
+	@Test
+	public void pagedGrid_copyKeepsChangesApart() throws IOException{
+		File file = File.createTempFile("worms-", ".terrain");
+		try{
+			PagedTerrainGrid.write(wideGrid, file);
+			PagedTerrainGrid paged = PagedTerrainGrid.open(file, 1);
+			paged.setPassable(2, 0, false);
+			TerrainGrid copy = paged.copy();
+			copy.setPassableSpan(1, 60, 140, true);
+			assertTrue(copy.isImpassable(2, 0));
+			assertEquals(0, copy.countImpassable(1, 0, 150));
+			assertTrue(paged.isImpassableSpan(1, 60, 140));
+			TerrainGrid copyOfCopy = copy.copy();
+			assertTrue(Arrays.deepEquals(copy.toPassableMap(), copyOfCopy.toPassableMap()));
+			paged.setPassable(0, 5, false);
+			copy.setPassable(0, 6, false);
+			assertTrue(copy.isPassable(0, 5));
+			assertTrue(copyOfCopy.isPassable(0, 5));
+			assertTrue(copyOfCopy.isPassable(0, 6));
+			assertTrue(PagedTerrainGrid.open(file).isPassable(0, 5));
+		}
+		finally{
+			file.delete();
+		}
+	}
+
+	@Test
+	public void summedAreaTable_countsLikeBruteForce(){
+		TerrainGrid grid = randomGrid(150, 200, new Random(4));
+		SummedAreaTable table = new SummedAreaTable(grid);
+		assertCountsLikeBruteForce(table, grid, new Random(5));
+	}
+
+	@Test
+	public void summedAreaTable_updateCountsLikeBruteForce(){
+		Random random = new Random(6);
+		TerrainGrid grid = randomGrid(150, 200, random);
+		SummedAreaTable table = new SummedAreaTable(grid);
+		SummedAreaTable copy = new SummedAreaTable(table, grid.copy());
+		for(int crater = 0; crater < 10; crater++){
+			int fromRow = random.nextInt(140), fromColumn = random.nextInt(190);
+			int toRow = fromRow + 1 + random.nextInt(10), toColumn = fromColumn + 1 + random.nextInt(10);
+			for(int row = fromRow; row < toRow; row++)
+				grid.setPassableSpan(row, fromColumn, toColumn, true);
+			table.update(fromRow, fromColumn, toRow, toColumn);
+		}
+		for(int row = 60; row < 70; row++)
+			grid.setPassableSpan(row, 120, 135, false);
+		table.update(60, 120, 70, 135);
+		assertCountsLikeBruteForce(table, grid, random);
+		assertCountsLikeBruteForce(copy, copy.getTerrain(), random);
+	}
+
+	/**
+	 * Return a new terrain grid with the given dimensions, in which each cell
+	 * is impassable with a chance of one in three.
+	 */
+	private static TerrainGrid randomGrid(int nbRows, int nbColumns, Random random){
+		TerrainGrid grid = new TerrainGrid(nbRows, nbColumns);
+		for(int row = 0; row < nbRows; row++)
+			for(int column = 0; column < nbColumns; column++)
+				grid.setPassable(row, column, random.nextInt(3) != 0);
+		return grid;
+	}
+
+	/**
+	 * Check that the given table counts the impassable cells of random rectangles
+	 * of the given grid, and of rectangles with corners on tile borders, like
+	 * counting them cell by cell does.
+	 */
+	private static void assertCountsLikeBruteForce(SummedAreaTable table, TerrainGrid grid, Random random){
+		int nbRows = grid.getNbRows(), nbColumns = grid.getNbColumns();
+		int[] rows = {0, 1, 63, 64, 65, 128, nbRows - 1, nbRows};
+		int[] columns = {0, 1, 63, 64, 65, 128, 191, 192, nbColumns};
+		for(int fromRow: rows)
+			for(int toRow: rows)
+				for(int fromColumn: columns)
+					for(int toColumn: columns)
+						if(fromRow <= toRow && fromColumn <= toColumn)
+							assertEquals(countBruteForce(grid, fromRow, fromColumn, toRow, toColumn),
+									table.countImpassable(fromRow, fromColumn, toRow, toColumn));
+		for(int i = 0; i < 500; i++){
+			int fromRow = random.nextInt(nbRows + 1), toRow = random.nextInt(nbRows + 1);
+			int fromColumn = random.nextInt(nbColumns + 1), toColumn = random.nextInt(nbColumns + 1);
+			if(fromRow > toRow || fromColumn > toColumn)
+				continue;
+			assertEquals(countBruteForce(grid, fromRow, fromColumn, toRow, toColumn),
+					table.countImpassable(fromRow, fromColumn, toRow, toColumn));
+		}
+	}
+
+	/**
+	 * Return the number of impassable cells of the given grid in the given rectangle,
+	 * counted cell by cell.
+	 */
+	private static int countBruteForce(TerrainGrid grid, int fromRow, int fromColumn, int toRow, int toColumn){
+		int count = 0;
+		for(int row = fromRow; row < toRow; row++)
+			for(int column = fromColumn; column < toColumn; column++)
+				if(grid.isImpassable(row, column))
+					count++;
+		return count;
+	}
+}
@@ -0,0 +1,284 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of occupancy pyramids over a terrain grid.
+ * 	Level 0 of a pyramid is the terrain grid itself. Each node at level k covers
+ * 	a block of 2^k by 2^k cells and registers whether that block is passable,
+ * 	impassable or mixed. The single node at the top level covers the whole grid.
+ * 	A query on a region only descends into the nodes that are mixed.
+ * 	Nodes at the bottom or right border of the grid only cover the cells
+ * 	that actually exist.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+class TerrainPyramid {
+
+	/**
+	 * Create a new pyramid over the given terrain grid.
+	 *
+	 * @param 	terrain
+	 * 			The terrain grid to build the pyramid over.
+	 * @post	| new.getTerrain() == terrain
+	 * @post	| for each level, nodeRow, nodeColumn in this pyramid:
+	 * 			|	new.getOccupancy(level, nodeRow, nodeColumn) ==
+	 * 			|		the occupancy of the cells covered by that node
+	 */
+	TerrainPyramid(TerrainGrid terrain){
+		this.terrain = terrain;
+		int nbLevels = 1;
+		while((terrain.getNbRows() - 1) >> (nbLevels - 1) > 0
+				|| (terrain.getNbColumns() - 1) >> (nbLevels - 1) > 0)
+			nbLevels++;
+		this.levelRows = new int[nbLevels];
+		this.levelColumns = new int[nbLevels];
+		this.nodes = new byte[nbLevels][];
+		levelRows[0] = terrain.getNbRows();
+		levelColumns[0] = terrain.getNbColumns();
+		for(int level = 1; level < nbLevels; level++){
+			levelRows[level] = (levelRows[level - 1] + 1) / 2;
+			levelColumns[level] = (levelColumns[level - 1] + 1) / 2;
+			nodes[level] = new byte[levelRows[level] * levelColumns[level]];
+			for(int nodeRow = 0; nodeRow < levelRows[level]; nodeRow++){
+				for(int nodeColumn = 0; nodeColumn < levelColumns[level]; nodeColumn++)
+					updateNode(level, nodeRow, nodeColumn);
+			}
+		}
+	}
+
+
+	/**
+	 * Create a new pyramid over the given terrain grid, with the same nodes as the given pyramid.
+	 *
+	 * @param 	original
+	 * 			The pyramid to copy.
+	 * @param 	terrain
+	 * 			The terrain grid of the new pyramid, with the same cells as the terrain
+	 * 			grid of the given pyramid.
+	 * @post	| new.getTerrain() == terrain
+	 * @post	| for each level, nodeRow, nodeColumn in this pyramid:
+	 * 			|	new.getOccupancy(level, nodeRow, nodeColumn) ==
+	 * 			|		original.getOccupancy(level, nodeRow, nodeColumn)
+	 */
+	TerrainPyramid(TerrainPyramid original, TerrainGrid terrain){
+		this.terrain = terrain;
+		this.levelRows = original.levelRows;
+		this.levelColumns = original.levelColumns;
+		this.nodes = new byte[original.nodes.length][];
+		for(int level = 1; level < nodes.length; level++)
+			nodes[level] = original.nodes[level].clone();
+	}
+
+
+
+	/**
+	 * Return the terrain grid of this pyramid.
+	 */
+	@Basic @Raw @Immutable
+	public TerrainGrid getTerrain(){
+		return this.terrain;
+	}
+
+	/**
+	 * Variable referencing the terrain grid of this pyramid.
+	 */
+	private final TerrainGrid terrain;
+
+	/**
+	 * Return the number of levels of this pyramid.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbLevels(){
+		return levelRows.length;
+	}
+
+	/**
+	 * Return the number of rows of nodes at the given level of this pyramid.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbRows(int level){
+		return levelRows[level];
+	}
+
+	/**
+	 * Return the number of columns of nodes at the given level of this pyramid.
+	 */
+	@Basic @Raw @Immutable
+	public int getNbColumns(int level){
+		return levelColumns[level];
+	}
+
+	/**
+	 * Return the occupancy of the given node of this pyramid.
+	 *
+	 * @param 	level
+	 * 			The level of the node.
+	 * @param 	nodeRow
+	 * 			The row of the node at that level.
+	 * @param 	nodeColumn
+	 * 			The column of the node at that level.
+	 * @return	| if(level == 0 && getTerrain().isPassable(nodeRow, nodeColumn))
+	 * 			|	then result == Occupancy.PASSABLE
+	 * 			| else if(level == 0)
+	 * 			|	then result == Occupancy.IMPASSABLE
+	 */
+	@Basic @Raw
+	public Occupancy getOccupancy(int level, int nodeRow, int nodeColumn){
+		if(level == 0)
+			return terrain.isImpassable(nodeRow, nodeColumn) ? Occupancy.IMPASSABLE : Occupancy.PASSABLE;
+		return OCCUPANCIES[nodes[level][nodeRow * levelColumns[level] + nodeColumn]];
+	}
+
+
+
+	/**
+	 * Return the occupancy of the cells in the given rectangle of the terrain.
+	 *
+	 * @param 	fromRow
+	 * 			The first row of the rectangle (inclusive).
+	 * @param 	fromColumn
+	 * 			The first column of the rectangle (inclusive).
+	 * @param 	toRow
+	 * 			The last row of the rectangle (exclusive).
+	 * @param 	toColumn
+	 * 			The last column of the rectangle (exclusive).
+	 * @return	| if(getTerrain().isPassableRectangle(fromRow, fromColumn, toRow, toColumn))
+	 * 			|	then result == Occupancy.PASSABLE
+	 * 			| else if(getTerrain().isImpassableRectangle(fromRow, fromColumn, toRow, toColumn))
+	 * 			|	then result == Occupancy.IMPASSABLE
+	 * 			| else result == Occupancy.MIXED
+	 */
+	public Occupancy getOccupancy(int fromRow, int fromColumn, int toRow, int toColumn){
+		return getOccupancy(getNbLevels() - 1, 0, 0, fromRow, fromColumn, toRow, toColumn);
+	}
+
+	/**
+	 * Return the occupancy of the cells in the given rectangle
+	 * that are covered by the given node.
+	 */
+	@Model
+	private Occupancy getOccupancy(int level, int nodeRow, int nodeColumn,
+			int fromRow, int fromColumn, int toRow, int toColumn){
+		Occupancy occupancy = getOccupancy(level, nodeRow, nodeColumn);
+		if(occupancy != Occupancy.MIXED)
+			return occupancy;
+		int firstRow = nodeRow << level, firstColumn = nodeColumn << level;
+		if(fromRow <= firstRow && fromColumn <= firstColumn
+				&& toRow >= Math.min(levelRows[0], firstRow + (1 << level))
+				&& toColumn >= Math.min(levelColumns[0], firstColumn + (1 << level)))
+			return Occupancy.MIXED;
+		int childSize = 1 << (level - 1);
+		Occupancy result = null;
+		for(int childRow = 2 * nodeRow; childRow <= 2 * nodeRow + 1 && childRow < levelRows[level - 1]; childRow++){
+			int childFirstRow = childRow * childSize;
+			if(childFirstRow >= toRow || childFirstRow + childSize <= fromRow)
+				continue;
+			for(int childColumn = 2 * nodeColumn; childColumn <= 2 * nodeColumn + 1 && childColumn < levelColumns[level - 1]; childColumn++){
+				int childFirstColumn = childColumn * childSize;
+				if(childFirstColumn >= toColumn || childFirstColumn + childSize <= fromColumn)
+					continue;
+				Occupancy childOccupancy = getOccupancy(level - 1, childRow, childColumn,
+						fromRow, fromColumn, toRow, toColumn);
+				result = (result == null) ? childOccupancy : result.combine(childOccupancy);
+				if(result == Occupancy.MIXED)
+					return result;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the highest level at which the node covering the given cell is passable,
+	 * or -1 if the given cell itself is impassable.
+	 *
+	 * @param 	row
+	 * 			The row of the cell.
+	 * @param 	column
+	 * 			The column of the cell.
+	 * @return	| if(getTerrain().isImpassable(row, column))
+	 * 			|	then result == -1
+	 * 			| else getOccupancy(result, row >> result, column >> result) == Occupancy.PASSABLE &&
+	 * 			|	(result == getNbLevels() - 1 ||
+	 * 			|		getOccupancy(result + 1, row >> (result + 1), column >> (result + 1)) != Occupancy.PASSABLE)
+	 */
+	public int getPassableLevel(int row, int column){
+		if(terrain.isImpassable(row, column))
+			return -1;
+		int level = 0;
+		while(level + 1 < getNbLevels()
+				&& getOccupancy(level + 1, row >> (level + 1), column >> (level + 1)) == Occupancy.PASSABLE)
+			level++;
+		return level;
+	}
+
+
+
+	/**
+	 * Bring this pyramid up to date with its terrain grid after the cells
+	 * in the given rectangle have changed.
+	 * 	Only the nodes covering the rectangle are recomputed, level after level.
+	 *
+	 * @param 	fromRow
+	 * 			The first row of the rectangle (inclusive).
+	 * @param 	fromColumn
+	 * 			The first column of the rectangle (inclusive).
+	 * @param 	toRow
+	 * 			The last row of the rectangle (exclusive).
+	 * @param 	toColumn
+	 * 			The last column of the rectangle (exclusive).
+	 * @post	| for each level, nodeRow, nodeColumn in this pyramid:
+	 * 			|	new.getOccupancy(level, nodeRow, nodeColumn) ==
+	 * 			|		the occupancy of the cells covered by that node
+	 */
+	public void update(int fromRow, int fromColumn, int toRow, int toColumn){
+		if(fromRow >= toRow || fromColumn >= toColumn)
+			return;
+		for(int level = 1; level < getNbLevels(); level++){
+			for(int nodeRow = fromRow >> level; nodeRow <= (toRow - 1) >> level; nodeRow++){
+				for(int nodeColumn = fromColumn >> level; nodeColumn <= (toColumn - 1) >> level; nodeColumn++)
+					updateNode(level, nodeRow, nodeColumn);
+			}
+		}
+	}
+
+	/**
+	 * Recompute the occupancy of the given node from its children.
+	 */
+	@Model
+	private void updateNode(int level, int nodeRow, int nodeColumn){
+		Occupancy occupancy = null;
+		for(int childRow = 2 * nodeRow; childRow <= 2 * nodeRow + 1 && childRow < levelRows[level - 1]; childRow++){
+			for(int childColumn = 2 * nodeColumn; childColumn <= 2 * nodeColumn + 1 && childColumn < levelColumns[level - 1]; childColumn++){
+				Occupancy childOccupancy = getOccupancy(level - 1, childRow, childColumn);
+				occupancy = (occupancy == null) ? childOccupancy : occupancy.combine(childOccupancy);
+			}
+		}
+		nodes[level][nodeRow * levelColumns[level] + nodeColumn] = (byte)occupancy.ordinal();
+	}
+
+	/**
+	 * Array registering the number of rows of nodes at each level.
+	 */
+	private final int[] levelRows;
+
+	/**
+	 * Array registering the number of columns of nodes at each level.
+	 */
+	private final int[] levelColumns;
+
+	/**
+	 * Array registering, for each level above level 0, the ordinals of the
+	 * occupancies of all its nodes, row after row.
+	 */
+	private final byte[][] nodes;
+
+	/**
+	 * Final class variable registering all occupancies, by ordinal.
+	 */
+	private static final Occupancy[] OCCUPANCIES = Occupancy.values();
+}
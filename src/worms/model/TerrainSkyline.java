@@ -0,0 +1,179 @@
+package worms.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of skylines over a terrain grid, registering for each column of the grid
+ * the runs of impassable cells in that column, from top to bottom.
+ * 	The highest impassable cell at or below a given row of a column then follows
+ * 	from a binary search over the runs of that column, instead of a walk down the column.
+ * 	A change to the terrain only has to be patched in the columns it touches.
+ *
+ * @invar	| for each column in 0..getNbColumns()-1, row in 0..getNbRows()-1:
+ * 			|	getTopImpassableRow(column, row) == the smallest row' >= row with
+ * 			|		getTerrain().isImpassable(row', column), or getNbRows() if there is none
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+class TerrainSkyline {
+
+	/**
+	 * Create a new skyline for the given terrain grid.
+	 *
+	 * @param 	terrain
+	 * 			The terrain grid to build the skyline for.
+	 * @post	| new.getTerrain() == terrain
+	 */
+	TerrainSkyline(TerrainGrid terrain){
+		this.terrain = terrain;
+		this.nbRows = terrain.getNbRows();
+		this.runs = new int[terrain.getNbColumns()][];
+		update(0, runs.length);
+	}
+
+	/**
+	 * Create a new skyline for the given terrain grid, with the same runs as the given skyline.
+	 * 	Both skylines share the runs of each column, which are replaced rather than changed
+	 * 	when a column is patched.
+	 *
+	 * @param 	original
+	 * 			The skyline to copy.
+	 * @param 	terrain
+	 * 			The terrain grid of the new skyline, with the same cells as the terrain
+	 * 			grid of the given skyline.
+	 * @post	| new.getTerrain() == terrain
+	 */
+	TerrainSkyline(TerrainSkyline original, TerrainGrid terrain){
+		this.terrain = terrain;
+		this.nbRows = original.nbRows;
+		this.runs = original.runs.clone();
+	}
+
+
+
+	/**
+	 * Return the terrain grid of this skyline.
+	 */
+	@Basic @Raw
+	public TerrainGrid getTerrain(){
+		return this.terrain;
+	}
+
+	/**
+	 * Variable referencing the terrain grid of this skyline.
+	 */
+	private final TerrainGrid terrain;
+
+	/**
+	 * Return the number of rows of the terrain grid of this skyline.
+	 */
+	@Basic @Raw
+	public int getNbRows(){
+		return this.nbRows;
+	}
+
+	/**
+	 * Variable registering the number of rows of the terrain grid of this skyline.
+	 */
+	private final int nbRows;
+
+	/**
+	 * Return the number of columns of the terrain grid of this skyline.
+	 */
+	@Raw
+	public int getNbColumns(){
+		return runs.length;
+	}
+
+	/**
+	 * Return the highest row at or below the given row of the given column that holds
+	 * an impassable cell, or the number of rows if there is no such row.
+	 *
+	 * @param 	column
+	 * 			The column to look in.
+	 * @param 	row
+	 * 			The row to start looking at.
+	 * @return	| result == the smallest row' >= row with getTerrain().isImpassable(row', column),
+	 * 			|	or getNbRows() if there is none
+	 */
+	public int getTopImpassableRow(int column, int row){
+		int[] columnRuns = runs[column];
+		// Binary search for the first run that ends below the given row.
+		int low = 0, high = columnRuns.length/2;
+		while(low < high){
+			int middle = (low + high) >>> 1;
+			if(columnRuns[2*middle + 1] <= row)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		if(low == columnRuns.length/2)
+			return nbRows;
+		return Math.max(row, columnRuns[2*low]);
+	}
+
+	/**
+	 * Return the highest row at or below the given row, in any of the given columns,
+	 * that holds an impassable cell, or the number of rows if there is no such row.
+	 *
+	 * @param 	row
+	 * 			The row to start looking at.
+	 * @param 	fromColumn
+	 * 			The first column to look in (inclusive).
+	 * @param 	toColumn
+	 * 			The last column to look in (exclusive).
+	 * @return	| result == min({ getTopImpassableRow(column, row) | column in fromColumn..toColumn-1 }
+	 * 			|	union { getNbRows() })
+	 */
+	public int getTopImpassableRow(int row, int fromColumn, int toColumn){
+		int result = nbRows;
+		for(int column = fromColumn; column < toColumn && result > row; column++)
+			result = Math.min(result, getTopImpassableRow(column, row));
+		return result;
+	}
+
+
+
+	/**
+	 * Rebuild the runs of the given columns from the terrain grid of this skyline.
+	 *
+	 * @param 	fromColumn
+	 * 			The first column to rebuild (inclusive).
+	 * @param 	toColumn
+	 * 			The last column to rebuild (exclusive).
+	 * @post	| for each column in fromColumn..toColumn-1, row in 0..getNbRows()-1:
+	 * 			|	new.getTopImpassableRow(column, row) == the smallest row' >= row with
+	 * 			|		getTerrain().isImpassable(row', column), or getNbRows() if there is none
+	 */
+	void update(int fromColumn, int toColumn){
+		int[] buffer = new int[8];
+		for(int column = fromColumn; column < toColumn; column++){
+			int count = 0;
+			int row = 0;
+			while(row < nbRows){
+				if(!terrain.isImpassable(row, column)){
+					row++;
+					continue;
+				}
+				int start = row;
+				while(row < nbRows && terrain.isImpassable(row, column))
+					row++;
+				if(count + 2 > buffer.length)
+					buffer = Arrays.copyOf(buffer, 2*buffer.length);
+				buffer[count++] = start;
+				buffer[count++] = row;
+			}
+			runs[column] = Arrays.copyOf(buffer, count);
+		}
+	}
+
+	/**
+	 * Variable referencing the runs of impassable cells of each column, from top to bottom,
+	 * as the first row (inclusive) and last row (exclusive) of each run after each other.
+	 */
+	private final int[][] runs;
+}
@@ -0,0 +1,200 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of ballistic trajectories involving a starting point, an initial velocity
+ * and a downward acceleration.
+ * 	The position on a trajectory at a given time follows in closed form. The jump steps
+ * 	of worms and projectiles are computed by the same class methods, so that both agree
+ * 	to the last bit.
+ *
+ * @invar	| getGravity() > 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class Trajectory {
+
+	/**
+	 * Create a new trajectory with the given starting point, initial velocity and gravity.
+	 *
+	 * @param 	x
+	 * 			The x-coordinate of the starting point (in meter).
+	 * @param 	y
+	 * 			The y-coordinate of the starting point (in meter).
+	 * @param 	velocityX
+	 * 			The horizontal component of the initial velocity (in meter per second).
+	 * @param 	velocityY
+	 * 			The vertical component of the initial velocity (in meter per second).
+	 * @param 	gravity
+	 * 			The downward acceleration (in meter per second squared).
+	 * @post	| new.getStartX() == x && new.getStartY() == y
+	 * @post	| new.getVelocityX() == velocityX && new.getVelocityY() == velocityY
+	 * @post	| new.getGravity() == gravity
+	 * @throws	IllegalArgumentException("The given gravity is invalid.")
+	 * 			| !(gravity > 0)
+	 */
+	public Trajectory(double x, double y, double velocityX, double velocityY, double gravity)
+			throws IllegalArgumentException{
+		if(!(gravity > 0))
+			throw new IllegalArgumentException("The given gravity is invalid.");
+		this.startX = x;
+		this.startY = y;
+		this.velocityX = velocityX;
+		this.velocityY = velocityY;
+		this.gravity = gravity;
+	}
+
+
+
+	/**
+	 * Return the x-coordinate of the starting point of this trajectory.
+	 */
+	@Basic @Raw @Immutable
+	public double getStartX(){
+		return this.startX;
+	}
+
+	/**
+	 * Variable registering the x-coordinate of the starting point of this trajectory.
+	 */
+	private final double startX;
+
+	/**
+	 * Return the y-coordinate of the starting point of this trajectory.
+	 */
+	@Basic @Raw @Immutable
+	public double getStartY(){
+		return this.startY;
+	}
+
+	/**
+	 * Variable registering the y-coordinate of the starting point of this trajectory.
+	 */
+	private final double startY;
+
+	/**
+	 * Return the horizontal component of the initial velocity of this trajectory.
+	 */
+	@Basic @Raw @Immutable
+	public double getVelocityX(){
+		return this.velocityX;
+	}
+
+	/**
+	 * Variable registering the horizontal component of the initial velocity.
+	 */
+	private final double velocityX;
+
+	/**
+	 * Return the vertical component of the initial velocity of this trajectory.
+	 */
+	@Basic @Raw @Immutable
+	public double getVelocityY(){
+		return this.velocityY;
+	}
+
+	/**
+	 * Variable registering the vertical component of the initial velocity.
+	 */
+	private final double velocityY;
+
+	/**
+	 * Return the downward acceleration of this trajectory.
+	 */
+	@Basic @Raw @Immutable
+	public double getGravity(){
+		return this.gravity;
+	}
+
+	/**
+	 * Variable registering the downward acceleration of this trajectory.
+	 */
+	private final double gravity;
+
+
+
+	/**
+	 * Return the x-coordinate on this trajectory at the given time.
+	 *
+	 * @param 	time
+	 * 			The time since the start of this trajectory.
+	 * @return	| result == getStartX() + getVelocityX()*time
+	 */
+	public double getX(double time){
+		return getX(startX, velocityX, time);
+	}
+
+	/**
+	 * Return the y-coordinate on this trajectory at the given time.
+	 *
+	 * @param 	time
+	 * 			The time since the start of this trajectory.
+	 * @return	| result == getStartY() + getVelocityY()*time - (getGravity()*time^2)/2
+	 */
+	public double getY(double time){
+		return getY(startY, velocityY, gravity, time);
+	}
+
+	/**
+	 * Return the x-coordinate at the given time on a trajectory with the given
+	 * starting x-coordinate and horizontal velocity.
+	 * 	Worms and projectiles compute their jump steps with this method as well,
+	 * 	without creating a trajectory.
+	 *
+	 * @return	| result == startX + velocityX*time
+	 */
+	static double getX(double startX, double velocityX, double time){
+		return startX + velocityX * time;
+	}
+
+	/**
+	 * Return the y-coordinate at the given time on a trajectory with the given
+	 * starting y-coordinate, vertical velocity and gravity.
+	 * 	Worms and projectiles compute their jump steps with this method as well,
+	 * 	without creating a trajectory.
+	 *
+	 * @return	| result == startY + velocityY*time - (gravity*time^2)/2
+	 */
+	static double getY(double startY, double velocityY, double gravity, double time){
+		return startY + velocityY*time - (gravity*Math.pow(time,2))/2.0;
+	}
+
+	/**
+	 * Return the speed on this trajectory at the given time.
+	 *
+	 * @param 	time
+	 * 			The time since the start of this trajectory.
+	 * @return	| result == Math.hypot(getVelocityX(), getVelocityY() - getGravity()*time)
+	 */
+	public double getSpeed(double time){
+		return Math.hypot(velocityX, velocityY - gravity*time);
+	}
+
+	/**
+	 * Return a time span after the given time during which the point on this
+	 * trajectory moves no farther than the given distance away from where it is
+	 * at the given time.
+	 * 	The speed grows at most by the gravity per second, so the distance covered in a
+	 * 	time span dt is at most speed*dt + gravity*dt^2/2; the result is the positive root
+	 * 	of that bound, written so that it stays accurate for small distances.
+	 *
+	 * @param 	time
+	 * 			The time since the start of this trajectory.
+	 * @param 	distance
+	 * 			The distance not to exceed.
+	 * @return	| for each dt in [0, result]:
+	 * 			|	Math.hypot(getX(time + dt) - getX(time), getY(time + dt) - getY(time)) <= distance
+	 */
+	public double getTimeWithin(double time, double distance){
+		if(distance <= 0)
+			return 0;
+		double speed = getSpeed(time);
+		return 2*distance/(speed + Math.sqrt(speed*speed + 2*gravity*distance));
+	}
+}
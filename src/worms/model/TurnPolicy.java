@@ -0,0 +1,25 @@
+package worms.model;
+
+/**
+ * An interface of policies that decide which worm of a world gets the next turn.
+ * 	A policy walks the turn order of the world with World.getTurnSuccessor.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public interface TurnPolicy {
+
+	/**
+	 * Return the worm of the given world that gets the turn after the given worm.
+	 *
+	 * @param 	world
+	 * 			The world in which the turn passes.
+	 * @param 	current
+	 * 			The worm whose turn ends, or null if no worm has had a turn yet.
+	 * 			The worm may have left the world during its turn.
+	 * @return	| if(world.getWorms().isEmpty())
+	 * 			|	then result == null
+	 * 			| else world.hasAsWorm(result)
+	 */
+	Worm getNextWorm(World world, Worm current);
+}
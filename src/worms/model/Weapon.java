@@ -6,8 +6,9 @@ import be.kuleuven.cs.som.annotate.Model;
 import be.kuleuven.cs.som.annotate.Raw;
 /**
  * A class of weapons associated with a worm.
+ * 	A weapon selects one of the weapon types of the catalog of weapon types, or none.
  * 
- * @invar 	| isValidWeapon(getCurrentWeapon())
+ * @invar 	| isValidIndex(getCurrentIndex())
  *
  * @version 1.0
  * @author Laurens Loots, Pieter Vos
@@ -39,209 +40,153 @@ public class Weapon {
 	private final Worm worm;
 	
 	/**
-	 * checks whether or not the given String is a valid weapon.
+	 * checks whether or not the given index is a valid index of a selected weapon type.
 	 * 
-	 * @param 	weapon
-	 * 			the String to check.
-
-	 * @return	| weapon.equals(" ") || weapon.equals("Bazooka") || weapon.equals("Rifle")
+	 * @param 	index
+	 * 			the index to check.
+	 * @return	| index >= -1 && index < WeaponType.getNbWeaponTypes()
 	 */
 	@Model
-	private boolean isValidWeapon(String weapon){
-		return (weapon.equals(" ") || weapon.equals("Bazooka") || weapon.equals("Rifle"));
+	private static boolean isValidIndex(int index){
+		return index >= -1 && index < WeaponType.getNbWeaponTypes();
 	}
 	
 	/**
 	 * Returns the name of the weapon that is currently active for the given worm,
 	 * or null if no weapon is active.
+	 * 
+	 * @return	| if(getCurrentWeaponType() == null)
+	 * 			|	then result == null
+	 * 			| else result == getCurrentWeaponType().getName()
 	 */
-	@Basic @Raw
 	public String getCurrentWeapon(){
-		if(this.currentWeapon.equals(" "))
+		WeaponType type = getCurrentWeaponType();
+		if(type == null)
 			return null;
-		return this.currentWeapon;
+		return type.getName();
+	}
+	
+	/**
+	 * Returns the type of the weapon that is currently active for the given worm,
+	 * or null if no weapon is active.
+	 * 
+	 * @return	| if(getCurrentIndex() == -1)
+	 * 			|	then result == null
+	 * 			| else result == WeaponType.getWeaponType(getCurrentIndex())
+	 */
+	public WeaponType getCurrentWeaponType(){
+		if(this.currentIndex == -1)
+			return null;
+		return WeaponType.getWeaponType(this.currentIndex);
+	}
+	
+	/**
+	 * Returns the index in the catalog of weapon types of the weapon that is currently active
+	 * for the given worm, or -1 if no weapon is active.
+	 */
+	@Basic @Raw
+	public int getCurrentIndex(){
+		return this.currentIndex;
 	}
 	
 	/**
-	 * Activates the next weapon for the worm.
+	 * Activates the next weapon for the worm, in the order of the catalog of weapon types.
+	 * 	After the last weapon type of the catalog, no weapon is active.
 	 * 
-	 * @post 	|if(getCurrentWeapon() == null
-	 * 			|	then new.getCurrentWeapon().equals("Bazooka")
-	 * @post	|if(getCurrentWeapon() == "Bazooka"
-	 * 			|	then new.getCurrentWeapon().equals("Rifle)
-	 * @post	|if(getCurrentWeapon() == "Rifle'
-	 * 			| 	then new.getCurrentWeapon().equals(" ")
+	 * @effect 	| if(getCurrentIndex() + 1 < WeaponType.getNbWeaponTypes())
+	 * 			|	then setCurrentIndex(getCurrentIndex() + 1)
+	 * 			| else setCurrentIndex(-1)
 	 */
 	public void selectNextWeapon()
 	{
-		if(this.getCurrentWeapon() == null)
-			setCurrentWeapon("Bazooka");
-		else if(this.getCurrentWeapon().equals("Bazooka"))
-			setCurrentWeapon("Rifle");
-		else if(this.getCurrentWeapon().equals("Rifle"))
-			setCurrentWeapon(" ");
+		int next = this.currentIndex + 1;
+		if(next >= WeaponType.getNbWeaponTypes())
+			next = -1;
+		setCurrentIndex(next);
 	}
 	
 	/**
-	 * Creates a new Projectile if and only if the cost of action points of the weapon is smaller or
-	 * equal to the current action points of the worm.
+	 * Creates a new Projectile if and only if a weapon is active and the cost of action points
+	 * of the weapon is smaller or equal to the current action points of the worm.
 	 * 
 	 * @param 	propulsion
 	 * 			The initial velocity the new Projectile starts with.
-	 * @post	a new object of the class projectile is created.
+	 * @post	a new object of the class projectile is created, with the radius, initial velocity,
+	 * 			damage and blast radius of the current weapon type.
 	 */
 	public void shoot(int propulsion){
-		if(getCostOfActionPointsOfWeapon() <= getWorm().getCurrentActionPoints()){
+		WeaponType type = getCurrentWeaponType();
+		if(type == null)
+			return;
+		if(type.getActionPointCost() <= getWorm().getCurrentActionPoints()){
 			try{
 				@SuppressWarnings("unused")
-				Projectile projectile = new Projectile(this.getWorm(),this.getInitialVelocity(propulsion),
-						this.getRadiusOfWeapon(), this.getDamageOfWeapon());
-				this.getWorm().reduceCurrentActionPoints(getCostOfActionPointsOfWeapon());
+				Projectile projectile = new Projectile(this.getWorm(), type.getInitialVelocity(propulsion),
+						type.getRadius(), type.getDamage(), type.getBlastRadius());
+				this.getWorm().reduceCurrentActionPoints(type.getActionPointCost());
 			}
 			catch(IllegalRadiusException exc){}
 			catch(IllegalArgumentException exc){}
 		}
 	}
 	
-
-	
 	/**
-	 * Calculates and returns the radius of this weapon.
-	 */
-	@Model
-	private double getRadiusOfWeapon(){
-		double newRadius;
-		if(this.getMassOfWeapon() > 0.0){
-			newRadius = Math.pow((3.0/4.0)*this.getMassOfWeapon()/
-					(DENSITY * Math.PI), (1/3.0));
-		}
-		else
-			newRadius = 0.0;
-		return newRadius;
-	}
-	
-	
-	/**
-	 * returns the mass of this weapon based on the current weapon.
+	 * Check whether the worm can shoot with this weapon, without throwing an exception if it cannot.
 	 * 
-	 * @return	the mass of the weapon.
-	 * 			| if(getCurrentWeapon() == null)
-	 * 			|		then (result == 0)
-	 * 			| if(getCurrentWeapon().equals("Bazooka")
-	 * 			| 		then ( result == 0.300 )
-	 * 			| if(getCurrentWeapon().equals("Rifle")
-	 * 			|		then ( result == 0.010)
-	 * 			| else	( result == 0 )
+	 * @return	If the worm can shoot, a feasible outcome with the cost of action points of the shot.
+	 * 			| if(getCurrentWeaponType() == null)
+	 * 			|	then result.getStatus() == ActionStatus.NO_WEAPON
+	 * 			| else if(getWorm().getWorld() == null)
+	 * 			|	then result.getStatus() == ActionStatus.NO_WORLD
+	 * 			| else if(getCurrentWeaponType().getActionPointCost() > getWorm().getCurrentActionPoints())
+	 * 			|	then result.getStatus() == ActionStatus.NO_ACTION_POINTS
+	 * 			| else result.isFeasible() && result.getValue() == getCurrentWeaponType().getActionPointCost()
 	 */
-	@Model
-	private double getMassOfWeapon(){
-		if(this.getCurrentWeapon() == null)
-			return 0;
-		if(this.getCurrentWeapon().equals("Bazooka"))
-			return 0.300;
-		else if(this.getCurrentWeapon().equals("Rifle"))
-			return 0.010;
-		else
-			return 0;
-	}
-	/**
-	 * Calculate the initial velocity for the projectile based on the propulsion.
-	 * 
-	 * @return	The initial velocity of the projectile.
-	 * 			| if(getCurrentWeapon() == null)
-	 * 			|		then (result == 0)
-	 * 			| if(getCurrentWeapon().equals("Bazooka")
-	 * 			|		then ( initialVelocity = 2.5 + 7.0*(propulsion/100.0) )
-	 * 			| if(getCurrentWeapon().equals("Rifle")
-	 * 			|		then ( initialVelocity = 1.5 )
-	 * 			| result == (initialVelocity / getMassOfWeapon() * 0.5)
-	 */
-	@Model
-	private double getInitialVelocity(int propulsion){
-		if(getCurrentWeapon() == null)
-			return 0;
-		double initialVelocity = 0.0;
-		if(this.getCurrentWeapon().equals("Bazooka"))
-			initialVelocity = 2.5 + 7.0*(propulsion/100.0);
-		else if(this.getCurrentWeapon().equals("Rifle"))
-			initialVelocity = 1.5;
-		
-		return (initialVelocity / getMassOfWeapon()) * 0.5;
+	public Feasibility checkShoot(){
+		WeaponType type = getCurrentWeaponType();
+		if(type == null)
+			return Feasibility.infeasible(ActionStatus.NO_WEAPON);
+		if(getWorm().getWorld() == null)
+			return Feasibility.infeasible(ActionStatus.NO_WORLD);
+		if(type.getActionPointCost() > getWorm().getCurrentActionPoints())
+			return Feasibility.infeasible(ActionStatus.NO_ACTION_POINTS);
+		return Feasibility.feasible(type.getActionPointCost());
 	}
 	
 	/**
-	 * returns the cost of action points of the weapon, based on the currently selected weapon.
+	 * sets the current weapon to the weapon type with the given index if and only if the given index is
+	 * a valid index.
 	 * 
-	 * @return	the cost of action points 
-	 * 			| if(getCurrentWeapon() == null)
-	 * 			|		then (result == 0)
-	 * 			| if(getCurrentWeapon().equals("Bazooka")
-	 * 			|		then (result == 50)
-	 * 			| if(getCurrentWeapon().equals("Rifle")
-	 * 			|		then (result == 10)
-	 * 			| else
-	 * 			|		(return 0)
+	 * @param 	index
+	 * 			The index of the weapon type in the catalog, or -1 for no weapon.
+	 * @post	the new weapon is the weapon type with the given index if and only if the given index is valid.
+	 * 			|if(isValidIndex(index)
+	 * 			|	then (new.getCurrentIndex() == index
+	 * @effect	| if(isValidIndex(index))
+	 * 			|	then getWorm().notifyWorld(WorldEvent.WORM_CHANGED)
 	 */
-	@Model
-	private int getCostOfActionPointsOfWeapon(){
-		if(this.getCurrentWeapon() == null)
-			return 0;
-		if(this.getCurrentWeapon().equals("Bazooka"))
-			return 50;
-		else if(this.getCurrentWeapon().equals("Rifle"))
-			return 10;
-		else
-			return 0;
-	}
-	
-	/**
-	 * returns the damage of the weapon based on the weapon.
-	 * 
-	 * @return	The damage of the weapon
-	 * 			| if(getCurrentWeapon() == null)
-	 * 			|		then (result == 0)
-	 * 			| if(getCurrentWeapon().equals("Bazooka")
-	 * 			|		then ( result == 80 )
-	 * 			| if(getCurrentWeapon().equals("Rifle")
-	 * 			|		then ( result == 20 )
-	 * 			| else
-	 * 			|		(result == 0)
-	 */
-	@Model
-	private int getDamageOfWeapon(){
-		if(this.getCurrentWeapon() == null)
-			return 0;
-		if(this.getCurrentWeapon().equals("Bazooka"))
-			return 80;
-		else if(this.getCurrentWeapon().equals("Rifle"))
-			return 20;
-		else
-			return 0;
+	@Raw @Model
+	private void setCurrentIndex(int index){
+		if(isValidIndex(index)){
+			this.currentIndex = index;
+			getWorm().notifyWorld(WorldEvent.WORM_CHANGED);
+		}
 	}
 	
 	/**
-	 * sets the current weapon to the given weapon if and only if the given weapon is
-	 * a valid weapon.
+	 * Make the current weapon of the given weapon the current weapon of this weapon as well.
 	 * 
-	 * @param 	weapon
-	 * 			The given weapon
-	 * @post	the new weapon is the given weapon if and only if the given weapon is a valid weapon.
-	 * 			|if(isValidWeapon(weapon)
-	 * 			|	then (new.getCurrentWeapon() == weapon
+	 * @param 	other
+	 * 			The weapon to copy the current weapon of.
+	 * @post	| new.getCurrentIndex() == other.getCurrentIndex()
 	 */
-	@Raw @Model
-	private void setCurrentWeapon(String weapon){
-		if(isValidWeapon(weapon))
-			this.currentWeapon = weapon;
+	void copyFrom(Weapon other){
+		this.currentIndex = other.currentIndex;
 	}
 	
 	/**
-	 * Variable referencing the weapon of a worm.
-	 */
-	private String currentWeapon = " ";
-	
-	/**
-	 * Final class variable registering the density of all weapons (in kg/m^3).
+	 * Variable registering the index in the catalog of weapon types of the current weapon of a worm,
+	 * or -1 if no weapon is active.
 	 */
-	private final static double DENSITY = 7800.0;
+	private int currentIndex = -1;
 }
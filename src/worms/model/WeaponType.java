@@ -0,0 +1,354 @@
+package worms.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import be.kuleuven.cs.som.annotate.Raw;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of weapon types, describing the projectiles a weapon fires and what firing them costs.
+ * 	All weapon types a worm can select form the catalog, which is read once from the resource
+ * 	file weapons.txt. Every line of that file that is not empty and does not start with #
+ * 	describes one weapon type, in the order in which worms cycle through them, by the fields
+ * 		name mass minimalForce maximalForce actionPointCost damage blastRadius
+ * 	separated by white space. If the file cannot be found, the catalog holds the bazooka
+ * 	and the rifle.
+ * 	The radius of the projectiles of a weapon type is derived from its mass once, when
+ * 	the weapon type is created.
+ *
+ * @invar	| getName() != null && getMass() > 0
+ * @invar	| 0 <= getMinimalForce() && getMinimalForce() <= getMaximalForce()
+ * @invar	| getActionPointCost() >= 0 && getDamage() >= 0 && getBlastRadius() >= 0
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+@Value
+public class WeaponType {
+
+	/**
+	 * Create a new weapon type with the given properties.
+	 *
+	 * @param 	name
+	 * 			The name of the new weapon type.
+	 * @param 	mass
+	 * 			The mass of the projectiles of the new weapon type (in kg).
+	 * @param 	minimalForce
+	 * 			The force (in N) with which the new weapon type fires at a propulsion yield of 0.
+	 * @param 	maximalForce
+	 * 			The force (in N) with which the new weapon type fires at a propulsion yield of 100.
+	 * @param 	actionPointCost
+	 * 			The number of action points it costs to fire the new weapon type.
+	 * @param 	damage
+	 * 			The number of hit points a worm hit by a projectile of the new weapon type loses.
+	 * @param 	blastRadius
+	 * 			The radius (in meter) of the crater blasted by a projectile of the new weapon type.
+	 * @post	| new.getName().equals(name) && new.getMass() == mass
+	 * @post	| new.getMinimalForce() == minimalForce && new.getMaximalForce() == maximalForce
+	 * @post	| new.getActionPointCost() == actionPointCost && new.getDamage() == damage
+	 * @post	| new.getBlastRadius() == blastRadius
+	 * @post	| new.getRadius() == Math.pow((3.0/4.0)*mass/(DENSITY*Math.PI), 1/3.0)
+	 * @throws	IllegalArgumentException("The given properties do not describe a valid weapon type.")
+	 * 			| name == null || !(mass > 0) || !(0 <= minimalForce && minimalForce <= maximalForce) ||
+	 * 			|	actionPointCost < 0 || damage < 0 || !(blastRadius >= 0)
+	 */
+	public WeaponType(String name, double mass, double minimalForce, double maximalForce,
+			int actionPointCost, int damage, double blastRadius) throws IllegalArgumentException{
+		if(name == null || !(mass > 0) || !(0 <= minimalForce && minimalForce <= maximalForce) ||
+				actionPointCost < 0 || damage < 0 || !(blastRadius >= 0))
+			throw new IllegalArgumentException("The given properties do not describe a valid weapon type.");
+		this.name = name.intern();
+		this.mass = mass;
+		this.minimalForce = minimalForce;
+		this.maximalForce = maximalForce;
+		this.actionPointCost = actionPointCost;
+		this.damage = damage;
+		this.blastRadius = blastRadius;
+		this.radius = Math.pow((3.0/4.0)*mass/(DENSITY*Math.PI), 1/3.0);
+	}
+
+
+
+	/**
+	 * Return the name of this weapon type.
+	 * 	Names are interned, so that names of equal weapon types are the same string.
+	 */
+	@Basic @Raw @Immutable
+	public String getName(){
+		return this.name;
+	}
+
+	/**
+	 * Variable referencing the name of this weapon type.
+	 */
+	private final String name;
+
+	/**
+	 * Return the mass of the projectiles of this weapon type (in kg).
+	 */
+	@Basic @Raw @Immutable
+	public double getMass(){
+		return this.mass;
+	}
+
+	/**
+	 * Variable registering the mass of the projectiles of this weapon type.
+	 */
+	private final double mass;
+
+	/**
+	 * Return the force (in N) with which this weapon type fires at a propulsion yield of 0.
+	 */
+	@Basic @Raw @Immutable
+	public double getMinimalForce(){
+		return this.minimalForce;
+	}
+
+	/**
+	 * Variable registering the force with which this weapon type fires at a propulsion yield of 0.
+	 */
+	private final double minimalForce;
+
+	/**
+	 * Return the force (in N) with which this weapon type fires at a propulsion yield of 100.
+	 */
+	@Basic @Raw @Immutable
+	public double getMaximalForce(){
+		return this.maximalForce;
+	}
+
+	/**
+	 * Variable registering the force with which this weapon type fires at a propulsion yield of 100.
+	 */
+	private final double maximalForce;
+
+	/**
+	 * Return the number of action points it costs to fire this weapon type.
+	 */
+	@Basic @Raw @Immutable
+	public int getActionPointCost(){
+		return this.actionPointCost;
+	}
+
+	/**
+	 * Variable registering the number of action points it costs to fire this weapon type.
+	 */
+	private final int actionPointCost;
+
+	/**
+	 * Return the number of hit points a worm hit by a projectile of this weapon type loses.
+	 */
+	@Basic @Raw @Immutable
+	public int getDamage(){
+		return this.damage;
+	}
+
+	/**
+	 * Variable registering the damage of the projectiles of this weapon type.
+	 */
+	private final int damage;
+
+	/**
+	 * Return the radius (in meter) of the crater blasted by a projectile of this weapon type.
+	 */
+	@Basic @Raw @Immutable
+	public double getBlastRadius(){
+		return this.blastRadius;
+	}
+
+	/**
+	 * Variable registering the blast radius of the projectiles of this weapon type.
+	 */
+	private final double blastRadius;
+
+	/**
+	 * Return the radius (in meter) of the projectiles of this weapon type.
+	 */
+	@Basic @Raw @Immutable
+	public double getRadius(){
+		return this.radius;
+	}
+
+	/**
+	 * Variable registering the radius of the projectiles of this weapon type.
+	 */
+	private final double radius;
+
+	/**
+	 * Return the initial velocity (in m/s) of a projectile of this weapon type
+	 * fired with the given propulsion yield.
+	 * 	The force is exerted on the projectile for half a second.
+	 *
+	 * @param 	propulsion
+	 * 			The propulsion yield, between 0 and 100.
+	 * @return	| result == (getMinimalForce() +
+	 * 			|	(getMaximalForce() - getMinimalForce())*(propulsion/100.0)) / getMass() * 0.5
+	 */
+	public double getInitialVelocity(int propulsion){
+		return ((minimalForce + (maximalForce - minimalForce)*(propulsion/100.0)) / mass) * 0.5;
+	}
+
+	/**
+	 * Final class variable registering the density of all projectiles (in kg/m^3).
+	 */
+	public static final double DENSITY = 7800.0;
+
+	@Override
+	public boolean equals(Object other){
+		if(!(other instanceof WeaponType))
+			return false;
+		WeaponType type = (WeaponType)other;
+		return name == type.name && mass == type.mass && minimalForce == type.minimalForce &&
+				maximalForce == type.maximalForce && actionPointCost == type.actionPointCost &&
+				damage == type.damage && blastRadius == type.blastRadius;
+	}
+
+	@Override
+	public int hashCode(){
+		return name.hashCode();
+	}
+
+	@Override
+	public String toString(){
+		return name;
+	}
+
+
+
+	/**
+	 * Return the number of weapon types in the catalog.
+	 */
+	public static int getNbWeaponTypes(){
+		return getCatalog().size();
+	}
+
+	/**
+	 * Return the weapon type at the given index in the catalog.
+	 *
+	 * @param 	index
+	 * 			The index of the weapon type, between 0 and getNbWeaponTypes() (exclusive).
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbWeaponTypes()
+	 */
+	public static WeaponType getWeaponType(int index) throws IndexOutOfBoundsException{
+		return getCatalog().get(index);
+	}
+
+	/**
+	 * Return all weapon types of the catalog, in the order in which worms cycle through them.
+	 */
+	public static List<WeaponType> getWeaponTypes(){
+		return getCatalog();
+	}
+
+	/**
+	 * Return the catalog, reading it the first time it is needed.
+	 */
+	@Model
+	private static List<WeaponType> getCatalog(){
+		List<WeaponType> result = catalog;
+		if(result == null){
+			synchronized(WeaponType.class){
+				if(catalog == null)
+					catalog = loadCatalog();
+				result = catalog;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Variable referencing the catalog of weapon types, or null if it has not been read yet.
+	 */
+	private static volatile List<WeaponType> catalog = null;
+
+	/**
+	 * Return the weapon types of the resource file weapons.txt,
+	 * or the default weapon types if there is no such file.
+	 *
+	 * @throws	IllegalStateException
+	 * 			The resource file cannot be read or does not describe any valid weapon type.
+	 */
+	@Model
+	private static List<WeaponType> loadCatalog() throws IllegalStateException{
+		InputStream stream = WeaponType.class.getResourceAsStream("/" + CATALOG_FILE);
+		if(stream == null)
+			return Collections.unmodifiableList(Arrays.asList(DEFAULT_TYPES));
+		BufferedReader reader = new BufferedReader(new InputStreamReader(stream));
+		try{
+			return Collections.unmodifiableList(read(reader));
+		}
+		catch(IOException exc){
+			throw new IllegalStateException("The weapon catalog cannot be read.", exc);
+		}
+		catch(IllegalArgumentException exc){
+			throw new IllegalStateException("The weapon catalog is invalid.", exc);
+		}
+		finally{
+			try{
+				reader.close();
+			}
+			catch(IOException exc){}
+		}
+	}
+
+	/**
+	 * Return the weapon types described by the lines of the given reader,
+	 * in the format of the resource file weapons.txt.
+	 *
+	 * @param 	reader
+	 * 			The reader to read the weapon types from.
+	 * @throws	IOException
+	 * 			The given reader cannot be read.
+	 * @throws	IllegalArgumentException("The weapon catalog contains an invalid line.")
+	 * 			Some line does not describe a valid weapon type.
+	 * @throws	IllegalArgumentException("The weapon catalog is empty.")
+	 * 			The given reader does not describe any weapon type.
+	 */
+	static List<WeaponType> read(BufferedReader reader) throws IOException, IllegalArgumentException{
+		List<WeaponType> result = new ArrayList<WeaponType>();
+		String line;
+		while((line = reader.readLine()) != null){
+			line = line.trim();
+			if(line.isEmpty() || line.startsWith("#"))
+				continue;
+			String[] fields = line.split("\\s+");
+			if(fields.length != 7)
+				throw new IllegalArgumentException("The weapon catalog contains an invalid line.");
+			try{
+				result.add(new WeaponType(fields[0], Double.parseDouble(fields[1]), Double.parseDouble(fields[2]),
+						Double.parseDouble(fields[3]), Integer.parseInt(fields[4]), Integer.parseInt(fields[5]),
+						Double.parseDouble(fields[6])));
+			}
+			catch(IllegalArgumentException exc){
+				throw new IllegalArgumentException("The weapon catalog contains an invalid line.", exc);
+			}
+		}
+		if(result.isEmpty())
+			throw new IllegalArgumentException("The weapon catalog is empty.");
+		return result;
+	}
+
+	/**
+	 * Final class variable referencing the name of the resource file of the catalog.
+	 */
+	private static final String CATALOG_FILE = "weapons.txt";
+
+	/**
+	 * Final class variable referencing the weapon types of the catalog if there is no resource file.
+	 */
+	private static final WeaponType[] DEFAULT_TYPES = {
+		new WeaponType("Bazooka", 0.300, 2.5, 9.5, 50, 80, 0.5),
+		new WeaponType("Rifle", 0.010, 1.5, 1.5, 10, 20, 0.0)
+	};
+}
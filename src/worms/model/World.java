@@ -1,9 +1,17 @@
 package worms.model;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import type.Entity;
 
@@ -12,7 +20,7 @@ import be.kuleuven.cs.som.annotate.Model;
 import be.kuleuven.cs.som.annotate.Raw;
 
 /**
- * A class of worlds involving a width, a height, a passable map,
+ * A class of worlds involving a width, a height, a terrain grid,
  * food rations, worms, teams and projectiles.
  * 
  * @invar	| canHaveAsWidthOrHeight(getWidth())
@@ -46,21 +54,169 @@ public class World {
 	 * @param 	random A 
 	 * 			Random number generator, seeded with the value obtained from the command line or from GUIOptions,
 	 *  		that can be used to randomize aspects of the world in a repeatable way.
+	 * @effect	| this(width, height, new TerrainGrid(passableMap), random)
+	 */
+	public World(double width, double height,
+			boolean[][] passableMap, Random random){
+		this(width, height, new TerrainGrid(passableMap), random);
+	}
+	
+	/**
+	 * Creates a new world.
+	 * 
+	 * @param 	width 
+	 * 			The width of this new world (in meter)
+	 * @param 	height 
+	 * 			The height of this new world (in meter)
+	 * @param 	terrain
+	 * 			The terrain grid indicating which parts of the terrain are passable and impassable,
+	 * 			with the same orientation as a passable map.
+	 * 			The terrain pyramid is built for every terrain grid; the other indices that
+	 * 			speed up terrain queries are only built for terrain grids that are kept in memory,
+	 * 			as they take several bytes per cell.
+	 * @param 	random A 
+	 * 			Random number generator, seeded with the value obtained from the command line or from GUIOptions,
+	 *  		that can be used to randomize aspects of the world in a repeatable way.
 	 * @post	| new.getwidth = width
 	 * @post	| new.getheight = height
-	 * @post	| new.getpassableMap = passableMap
+	 * @post	| new.getTerrain() = terrain
 	 * @throws	IllegalArgumentException("The given width or height is not valid.")
 	 * 			| !canHaveAsWidthOrHeight(width) || !canHaveAsWidthOrHeight(height)
 	 *	
 	 */
 	public World(double width, double height,
-			boolean[][] passableMap, Random random){
+			TerrainGrid terrain, Random random){
 		if(!canHaveAsWidthOrHeight(width) || !canHaveAsWidthOrHeight(height))
 			throw new IllegalArgumentException("The given width or height is invalid.");
 		this.width = width;
 		this.height = height;
-		this.passableMap = passableMap;
+		this.terrain = terrain;
 		this.random = random;
+		this.cellDiagonal = Math.hypot(width/terrain.getNbColumns(), height/terrain.getNbRows());
+		this.pyramid = new TerrainPyramid(terrain);
+		if(terrain.isInMemory() && width > 0 && height > 0){
+			this.distanceField = new DistanceField(terrain, 
+					width/terrain.getNbColumns(), height/terrain.getNbRows());
+			this.occupancyTable = new SummedAreaTable(terrain);
+			this.skyline = new TerrainSkyline(terrain);
+		}
+		else{
+			this.distanceField = null;
+			this.occupancyTable = null;
+			this.skyline = null;
+		}
+	}
+	
+	/**
+	 * Create a new world with the same dimensions, terrain and terrain indices as the given world,
+	 * but without any entities.
+	 * 	The terrain and its indices are shared with the given world until one of both
+	 * 	changes them. The random number generator is copied.
+	 * 
+	 * @param 	original
+	 * 			The world to copy.
+	 */
+	@Model
+	private World(World original){
+		this.width = original.width;
+		this.height = original.height;
+		this.random = copyRandom(original.random);
+		this.cellDiagonal = original.cellDiagonal;
+		this.terrain = original.terrain;
+		this.pyramid = original.pyramid;
+		this.distanceField = original.distanceField;
+		this.occupancyTable = original.occupancyTable;
+		this.skyline = original.skyline;
+		this.terrainEpoch = original.terrainEpoch;
+		this.terrainShared = true;
+		original.terrainShared = true;
+		for(Map.Entry<Double, PlacementIndex> entry: original.placementIndices.entrySet())
+			this.placementIndices.put(entry.getKey(), new PlacementIndex(entry.getValue(), this));
+	}
+	
+	/**
+	 * Returns a fork of this world: a new world in the same state as this world,
+	 * that can be changed without changing this world, and the other way around.
+	 * 	The fork shares the terrain of this world and its indices until either world blasts
+	 * 	a crater; only then does that world copy the terrain. The worms, food rations, teams
+	 * 	and projectile of this world are copied into the fork, just like the turn order, the
+	 * 	current worm and the state of the random number generator. A team turn policy is copied
+	 * 	as well; other turn policies are shared with the fork. Programs and listeners are not
+	 * 	copied: the worms of the fork are controlled by whoever simulates it, and the fork
+	 * 	reports its changes to no one.
+	 * 	Since a fork has no state in common with this world that either of them changes,
+	 * 	a fork can be simulated on another thread than this world. Forking itself does
+	 * 	change this world, since it marks the terrain of this world as shared: this world
+	 * 	must not be forked from several threads at once, nor be changed while it is forked.
+	 * 
+	 * @return	| result != this
+	 * @return	| result.getWidth() == getWidth() && result.getHeight() == getHeight()
+	 * @return	| for each row, column in getTerrain():
+	 * 			|	result.getTerrain().isPassable(row, column) == getTerrain().isPassable(row, column)
+	 * @return	| result.getWorms().size() == getWorms().size() &&
+	 * 			|	for each i in 0..getWorms().size()-1:
+	 * 			|		the i-th worm of result has the same state as the i-th worm of this world
+	 * @return	| result.getFood().size() == getFood().size()
+	 * @return	| result.isStarted() == isStarted() && result.isActive() == isActive()
+	 * @return	| if(getCurrentWorm() != null)
+	 * 			|	then result.getCurrentWorm() is the copy of getCurrentWorm()
+	 */
+	public World fork(){
+		World fork = new World(this);
+		Map<Team, Team> teamCopies = new HashMap<Team, Team>();
+		for(Team team: teams){
+			Team copy = new Team(team.getTeamName());
+			fork.addAsTeam(copy);
+			teamCopies.put(team, copy);
+		}
+		Map<Worm, Worm> wormCopies = new HashMap<Worm, Worm>();
+		for(Worm worm: worms){
+			Worm copy = new Worm(worm);
+			fork.addAsWorm(copy);
+			if(worm.getTeam() != null)
+				teamCopies.get(worm.getTeam()).addAsTeamWorm(copy);
+			wormCopies.put(worm, copy);
+		}
+		for(Food food: foodRations)
+			fork.addAsFood(new Food(food.getX(), food.getY()));
+		if(getProjectile() != null)
+			new Projectile(getProjectile(), wormCopies.get(getProjectile().getShooter()), fork);
+		fork.currentWorm = wormCopies.get(currentWorm);
+		fork.successorOfCurrent = wormCopies.get(successorOfCurrent);
+		fork.turnPolicy = (turnPolicy instanceof TeamTurnPolicy) ?
+				((TeamTurnPolicy)turnPolicy).copy(teamCopies, wormCopies) : turnPolicy;
+		fork.start(isStarted());
+		fork.isActive = this.isActive;
+		return fork;
+	}
+	
+	/**
+	 * Returns a copy of the given random number generator, that generates
+	 * the same numbers from now on.
+	 * 	Random number generators are serializable, so the copy is made by
+	 * 	serializing the given generator and reading it back.
+	 * 
+	 * @param 	random
+	 * 			The random number generator to copy, or null.
+	 */
+	@Model
+	private static Random copyRandom(Random random){
+		if(random == null)
+			return null;
+		try{
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream output = new ObjectOutputStream(bytes);
+			output.writeObject(random);
+			output.close();
+			ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+			return (Random)input.readObject();
+		}
+		catch(IOException exc){
+			throw new IllegalStateException(exc);
+		}
+		catch(ClassNotFoundException exc){
+			throw new IllegalStateException(exc);
+		}
 	}
 	
 	
@@ -76,7 +232,7 @@ public class World {
 	 * 			|	(!this.hasAsFood(food))
 	 */
 	public void deactivate(){
-		for(Food food: this.foodRations){
+		for(Food food: getFood()){
 			food.deactivate();
 		}
 		this.isActive = false;
@@ -233,11 +389,21 @@ public class World {
 	
 	
 	/**
-	 * Return the passable map of this world.
+	 * Return the terrain grid of this world.
 	 */
 	@Basic @Raw
+	public TerrainGrid getTerrain(){
+		return this.terrain;
+	}
+	
+	/**
+	 * Return a new passable map with the contents of the terrain of this world.
+	 * 
+	 * @return	| result == getTerrain().toPassableMap()
+	 */
+	@Raw
 	public boolean[][] getPassableMap(){
-		return passableMap;
+		return getTerrain().toPassableMap();
 	}
 	
 	/**
@@ -264,11 +430,12 @@ public class World {
 	public boolean isImpassable(double x, double y, double radius){
 		if(x-radius<0 || x+radius>getWidth() || y-radius<0 || y+radius>getHeight() || radius <= 0)
 			return true;
-		for(double angle = 0;angle<2*Math.PI;angle+=(Math.PI/180)){
-			if (isImpassablePoint(x+(Math.cos(angle)*radius*0.99999999), y+(Math.sin(angle))*radius*0.99999999))
-				return true;
-		}
-		return false;
+		if(getClearance(x, y) > radius*IMPASSABLE_FACTOR)
+			return false;
+		int occupancy = getOccupancyAround(x, y, radius*IMPASSABLE_FACTOR);
+		if(occupancy != MIXED)
+			return occupancy == IMPASSABLE;
+		return hitsImpassableCell(x, y, CircleMask.of(radius, IMPASSABLE_FACTOR));
 	}
 	
 	/**
@@ -289,17 +456,507 @@ public class World {
 	public boolean isAdjacent(double x, double y, double radius){
 		if(isImpassable(x,y,radius))
 			return false;
-		else
-		{
-			for(double angle = 0; angle < 2*Math.PI ; angle = angle + (Math.PI/180))
-			{
-				if (isImpassablePoint(x+(Math.cos(angle)*radius*1.1), y+(Math.sin(angle))*radius*1.1))
-					return true;
-			}
+		if(getClearance(x, y) > radius*ADJACENCY_FACTOR)
 			return false;
+		int occupancy = getOccupancyAround(x, y, radius*ADJACENCY_FACTOR);
+		if(occupancy != MIXED)
+			return occupancy == IMPASSABLE;
+		return hitsImpassableCell(x, y, CircleMask.of(radius, ADJACENCY_FACTOR));
+	}
+	
+	/**
+	 * Returns the clearance around the given point: a lower bound for the radius of 
+	 * the circles around that point that touch impassable terrain.
+	 * 	Every point sampled on a circle around the given point with a smaller radius
+	 * 	lies in a passable cell of the terrain.
+	 * 
+	 * @param 	x
+	 * 			The x-coordinate of the point.
+	 * @param 	y
+	 * 			The y-coordinate of the point.
+	 * @return	The distance from the cell containing the given point to the nearest
+	 * 			impassable cell, reduced with the diagonal of a cell, or zero if this world
+	 * 			has no distance field.
+	 * 			| if(hasDistanceField())
+	 * 			|	then result == distanceField.getDistance(getRowOf(y), getColumnOf(x)) - cellDiagonal
+	 * 			| else result == 0
+	 * 			| for each angle, r in [0, result[:
+	 * 			|	!isImpassablePoint(x + cos(angle)*r, y + sin(angle)*r)
+	 */
+	@Raw
+	public double getClearance(double x, double y){
+		if(distanceField == null)
+			return 0;
+		return distanceField.getDistance(getRowOf(y), getColumnOf(x)) - cellDiagonal;
+	}
+	
+	/**
+	 * Returns whether the cells of the terrain of this world that overlap the given
+	 * rectangle are all passable, all impassable or mixed.
+	 * 	Parts of the rectangle outside this world are ignored.
+	 * 
+	 * @param 	minX
+	 * 			The smallest x-coordinate of the rectangle.
+	 * @param 	minY
+	 * 			The smallest y-coordinate of the rectangle.
+	 * @param 	maxX
+	 * 			The largest x-coordinate of the rectangle.
+	 * @param 	maxY
+	 * 			The largest y-coordinate of the rectangle.
+	 * @return	| let fromRow = getRowOf(maxY), toRow = getRowOf(minY) + 1,
+	 * 			|     fromColumn = getColumnOf(minX), toColumn = getColumnOf(maxX) + 1
+	 * 			| in
+	 * 			|	if(getTerrain().isPassableRectangle(fromRow, fromColumn, toRow, toColumn))
+	 * 			|		then result == Occupancy.PASSABLE
+	 * 			|	else if(getTerrain().isImpassableRectangle(fromRow, fromColumn, toRow, toColumn))
+	 * 			|		then result == Occupancy.IMPASSABLE
+	 * 			|	else result == Occupancy.MIXED
+	 */
+	@Raw
+	public Occupancy getOccupancy(double minX, double minY, double maxX, double maxY){
+		int fromRow = getRowOf(maxY), fromColumn = getColumnOf(minX);
+		int toRow = getRowOf(minY) + 1, toColumn = getColumnOf(maxX) + 1;
+		if(pyramid != null)
+			return pyramid.getOccupancy(fromRow, fromColumn, toRow, toColumn);
+		if(getTerrain().isPassableRectangle(fromRow, fromColumn, toRow, toColumn))
+			return Occupancy.PASSABLE;
+		if(getTerrain().isImpassableRectangle(fromRow, fromColumn, toRow, toColumn))
+			return Occupancy.IMPASSABLE;
+		return Occupancy.MIXED;
+	}
+	
+	/**
+	 * Returns the distance that can be travelled from the given point in the given direction 
+	 * before entering an impassable cell of the terrain or leaving this world.
+	 * 	The ray skips over every passable block of the terrain pyramid at once,
+	 * 	so long rays through open air only visit a few blocks.
+	 * 
+	 * @param 	x
+	 * 			The x-coordinate of the start of the ray.
+	 * @param 	y
+	 * 			The y-coordinate of the start of the ray.
+	 * @param 	direction
+	 * 			The direction of the ray.
+	 * @param 	maxDistance
+	 * 			The maximal distance to travel.
+	 * @return	| result <= maxDistance
+	 * @return	| for each distance in [0, result[:
+	 * 			|	!isImpassablePoint(x + cos(direction)*distance, y + sin(direction)*distance)
+	 * @return	| if(result < maxDistance)
+	 * 			|	then (isImpassablePoint(x + cos(direction)*result, y + sin(direction)*result) ||
+	 * 			|		the point at that distance lies on the border of this world)
+	 */
+	@Raw
+	public double castRay(double x, double y, double direction, double maxDistance){
+		return castRay(x, y, Math.cos(direction), Math.sin(direction), maxDistance);
+	}
+	
+	/**
+	 * Returns the distance that can be travelled from the given point along the given
+	 * unit vector before entering an impassable cell of the terrain or leaving this world.
+	 * 
+	 * @param 	x
+	 * 			The x-coordinate of the start of the ray.
+	 * @param 	y
+	 * 			The y-coordinate of the start of the ray.
+	 * @param 	unitX
+	 * 			The x-component of the unit vector along the ray.
+	 * @param 	unitY
+	 * 			The y-component of the unit vector along the ray.
+	 * @param 	maxDistance
+	 * 			The maximal distance to travel.
+	 * @see		#castRay(double, double, double, double)
+	 */
+	@Raw @Model
+	private double castRay(double x, double y, double unitX, double unitY, double maxDistance){
+		if(x < 0 || x > getWidth() || y < 0 || y > getHeight() || maxDistance <= 0 || !hasArea())
+			return 0;
+		int nbRows = getTerrain().getNbRows(), nbColumns = getTerrain().getNbColumns();
+		double startColumn = x*nbColumns/getWidth(), startRow = nbRows - y*nbRows/getHeight();
+		double columnSpeed = unitX*nbColumns/getWidth();
+		double rowSpeed = -unitY*nbRows/getHeight();
+		int row = getRowOf(y), column = getColumnOf(x);
+		double distance = 0;
+		while(true){
+			int level = getPassableLevel(row, column);
+			if(level < 0)
+				return distance;
+			int fromRow = (row >> level) << level, fromColumn = (column >> level) << level;
+			int toRow = Math.min(nbRows, fromRow + (1 << level));
+			int toColumn = Math.min(nbColumns, fromColumn + (1 << level));
+			double columnExit = Double.POSITIVE_INFINITY, rowExit = Double.POSITIVE_INFINITY;
+			if(columnSpeed > 0)
+				columnExit = (toColumn - startColumn)/columnSpeed;
+			else if(columnSpeed < 0)
+				columnExit = (fromColumn - startColumn)/columnSpeed;
+			if(rowSpeed > 0)
+				rowExit = (toRow - startRow)/rowSpeed;
+			else if(rowSpeed < 0)
+				rowExit = (fromRow - startRow)/rowSpeed;
+			double exit = Math.min(columnExit, rowExit);
+			if(exit >= maxDistance)
+				return maxDistance;
+			distance = Math.max(distance, exit);
+			if(columnExit <= rowExit)
+				column = (columnSpeed > 0) ? toColumn : fromColumn - 1;
+			else
+				column = Math.max(fromColumn, Math.min(toColumn - 1,
+						(int)Math.floor(startColumn + distance*columnSpeed)));
+			if(rowExit <= columnExit)
+				row = (rowSpeed > 0) ? toRow : fromRow - 1;
+			else
+				row = Math.max(fromRow, Math.min(toRow - 1, 
+						(int)Math.floor(startRow + distance*rowSpeed)));
+			if(row < 0 || row >= nbRows || column < 0 || column >= nbColumns)
+				return distance;
+		}
+	}
+	
+	
+	/**
+	 * Returns how far a circle with the given centre and radius can be moved in the
+	 * given direction before its front makes contact with impassable terrain.
+	 * 	Every point that is sampled on the front half of the circle to check whether
+	 * 	it is impassable, traces a ray through the terrain, and the circle makes contact
+	 * 	as soon as the first of these rays enters an impassable cell or the circle
+	 * 	reaches the border of this world. Terrain that already lies inside the circle 
+	 * 	is left behind by the front and does not count as a contact. A circle that has
+	 * 	enough clearance for the whole sweep does not trace any ray.
+	 * 
+	 * @param 	x
+	 * 			The x-coordinate of the centre of the circle.
+	 * @param 	y
+	 * 			The y-coordinate of the centre of the circle.
+	 * @param 	dx
+	 * 			The x-component of the direction to move the circle in.
+	 * @param 	dy
+	 * 			The y-component of the direction to move the circle in.
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 * @param 	maxDistance
+	 * 			The maximal distance to move the circle over.
+	 * @return	| if(isImpassable(x, y, radius))
+	 * 			|	then result == 0
+	 * @return	| result <= maxDistance
+	 * @return	| let unitX = dx/hypot(dx, dy), unitY = dy/hypot(dx, dy) in
+	 * 			|	for each distance in [0, result[, for each sample (px, py) on the front
+	 * 			|		half of the circle around (x + unitX*distance, y + unitY*distance):
+	 * 			|		!isImpassablePoint(px, py)
+	 * @return	| if(result < maxDistance)
+	 * 			|	then isImpassable(x + unitX*(result + epsilon), y + unitY*(result + epsilon), radius)
+	 * 			|		for some arbitrarily small epsilon > 0
+	 */
+	@Raw
+	public double sweepCircle(double x, double y, double dx, double dy, double radius, double maxDistance){
+		if(isImpassable(x, y, radius) || maxDistance <= 0)
+			return 0;
+		double length = Math.hypot(dx, dy);
+		if(length == 0)
+			return maxDistance;
+		double unitX = dx/length, unitY = dy/length;
+		double limit = maxDistance;
+		if(unitX > 0)
+			limit = Math.min(limit, (getWidth() - radius - x)/unitX);
+		else if(unitX < 0)
+			limit = Math.min(limit, (radius - x)/unitX);
+		if(unitY > 0)
+			limit = Math.min(limit, (getHeight() - radius - y)/unitY);
+		else if(unitY < 0)
+			limit = Math.min(limit, (radius - y)/unitY);
+		limit = Math.max(0, limit);
+		if(getClearance(x, y) > radius*IMPASSABLE_FACTOR + limit)
+			return limit;
+		CircleMask mask = CircleMask.of(radius, IMPASSABLE_FACTOR);
+		int nbSamples = mask.getNbSamples();
+		// the samples closest to the front are traced first, so that the contact
+		// distance shrinks quickly and most other rays are short or not needed at all
+		int front = (int)Math.round(Math.atan2(unitY, unitX)*nbSamples/(2*Math.PI));
+		double contact = limit;
+		for(int i = 0; i <= nbSamples/2 && contact > 0; i++){
+			int k = front + (((i & 1) == 0) ? i/2 : -(i + 1)/2);
+			k = ((k % nbSamples) + nbSamples) % nbSamples;
+			double sampleX = x + mask.getDx(k), sampleY = y + mask.getDy(k);
+			if(getClearance(sampleX, sampleY) <= contact)
+				contact = castRay(sampleX, sampleY, unitX, unitY, contact);
+		}
+		return contact;
+	}
+	
+	/**
+	 * Returns the last time on the given trajectory, starting from the given time, at
+	 * which a circle with the given radius that follows the trajectory is still passable, 
+	 * up to a tolerance of TIME_TOLERANCE before it becomes impassable.
+	 * 	The circle is traced along the trajectory: each step is as long as the clearance
+	 * 	around the circle and its distance to the border of this world allow, so that
+	 * 	the circle cannot touch anything during the step. Close to impassable terrain,
+	 * 	the steps move the circle over the diagonal of a cell, or a quarter of its radius
+	 * 	if that is smaller. As soon as a step ends in
+	 * 	an impassable position, the time of contact is found by bisection.
+	 * 
+	 * @param 	trajectory
+	 * 			The trajectory followed by the centre of the circle.
+	 * @param 	fromTime
+	 * 			The time on the trajectory to start from.
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 * @return	| if(isImpassable(trajectory.getX(fromTime), trajectory.getY(fromTime), radius))
+	 * 			|	then result == fromTime
+	 * @return	| else result >= fromTime &&
+	 * 			|	!isImpassable(trajectory.getX(result), trajectory.getY(result), radius) &&
+	 * 			|	for some time in ]result, result + TIME_TOLERANCE]:
+	 * 			|		isImpassable(trajectory.getX(time), trajectory.getY(time), radius)
+	 */
+	@Raw
+	public double sweepTrajectory(Trajectory trajectory, double fromTime, double radius){
+		return traceTrajectory(trajectory, fromTime, fromTime, radius, false, null).getTime();
+	}
+	
+	/**
+	 * Returns the first contact of a circle with the given radius that follows the given
+	 * trajectory from its start, with the worms of this world other than the given shooter
+	 * and with the terrain from the given clear time on.
+	 * 	The circle is traced along the trajectory just like in sweepTrajectory, but each step
+	 * 	is also kept shorter than the gap between the circle and the nearest worm, so that
+	 * 	worms and terrain are handled in a single pass. Terrain before the clear time, where
+	 * 	the circle may still touch the terrain it was launched from, does not count.
+	 * 
+	 * @param 	trajectory
+	 * 			The trajectory followed by the centre of the circle.
+	 * @param 	clearTime
+	 * 			The time from which on contacts with the terrain count.
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 * @param 	shooter
+	 * 			The worm that launched the circle and cannot be hit by it, or null.
+	 * @return	| if(result.getWorm() != null)
+	 * 			|	then hasAsWorm(result.getWorm()) && result.getWorm() != shooter &&
+	 * 			|		the circle overlaps that worm within TIME_TOLERANCE after result.getTime()
+	 * 			| else result.getTime() >= clearTime &&
+	 * 			|	the circle is impassable within TIME_TOLERANCE after result.getTime()
+	 * @return	| for each time in [0, result.getTime()[, for each worm in getWorms():
+	 * 			|	worm == shooter || the circle at that time does not overlap worm
+	 * @return	| for each time in [clearTime, result.getTime()[:
+	 * 			|	!isImpassable(trajectory.getX(time), trajectory.getY(time), radius)
+	 */
+	@Raw
+	public Contact firstContact(Trajectory trajectory, double clearTime, double radius, Worm shooter){
+		return traceTrajectory(trajectory, 0, clearTime, radius, true, shooter);
+	}
+	
+	/**
+	 * Traces a circle with the given radius along the given trajectory from the given time on,
+	 * up to its first contact with the terrain from the given clear time on and,
+	 * if asked for, with the worms of this world other than the given shooter.
+	 * 
+	 * @see		#sweepTrajectory(Trajectory, double, double)
+	 * @see		#firstContact(Trajectory, double, double, Worm)
+	 */
+	@Raw @Model
+	private Contact traceTrajectory(Trajectory trajectory, double fromTime, double clearTime, 
+			double radius, boolean withWorms, Worm shooter){
+		double time = fromTime;
+		Contact contact = getContactAt(trajectory, time, clearTime, radius, withWorms, shooter);
+		if(contact != null)
+			return contact;
+		double minDistance = Math.min(cellDiagonal, radius*MIN_STEP_FACTOR);
+		while(true){
+			double x = trajectory.getX(time), y = trajectory.getY(time);
+			double free = Double.POSITIVE_INFINITY;
+			if(time >= clearTime)
+				free = Math.min(getClearance(x, y) - radius*IMPASSABLE_FACTOR,
+						Math.min(Math.min(x - radius, getWidth() - radius - x), 
+								Math.min(y - radius, getHeight() - radius - y)));
+			if(withWorms){
+				// Only worms nearer than the terrain can shorten the step.
+				Worm worm = wormIndex.getNearest(x, y, free + radius, shooter);
+				if(worm != null)
+					free = Math.min(free, wormIndex.getDistance(worm, x, y) - radius);
+			}
+			double next = (free == Double.POSITIVE_INFINITY) ? clearTime
+					: time + trajectory.getTimeWithin(time, Math.max(free, minDistance));
+			if(time < clearTime)
+				next = Math.min(next, clearTime);
+			contact = getContactAt(trajectory, next, clearTime, radius, withWorms, shooter);
+			if(contact != null){
+				while(next - time > TIME_TOLERANCE){
+					double middle = (time + next)/2;
+					Contact middleContact = getContactAt(trajectory, middle, clearTime, radius, withWorms, shooter);
+					if(middleContact != null){
+						next = middle;
+						contact = middleContact;
+					}
+					else
+						time = middle;
+				}
+				return new Contact(time, contact.getWorm());
+			}
+			time = next;
+		}
+	}
+	
+	/**
+	 * Returns the contact of a circle with the given radius at the given time on the given
+	 * trajectory, or null if the circle does not overlap anything at that time.
+	 * 	A worm other than the given shooter that overlaps the circle is a contact if worms
+	 * 	are asked for; the terrain is a contact if the circle is impassable at a time from
+	 * 	the given clear time on.
+	 */
+	@Raw @Model
+	private Contact getContactAt(Trajectory trajectory, double time, double clearTime, 
+			double radius, boolean withWorms, Worm shooter){
+		double x = trajectory.getX(time), y = trajectory.getY(time);
+		if(withWorms){
+			Worm worm = wormIndex.getNearest(x, y, radius, shooter);
+			if(worm != null)
+				return new Contact(time, worm);
 		}
+		if(time >= clearTime && isImpassable(x, y, radius))
+			return new Contact(time, null);
+		return null;
+	}
+	
+	/**
+	 * Returns the highest level of the terrain pyramid of this world at which the block
+	 * covering the given cell is passable, or -1 if the given cell itself is impassable.
+	 * 	Without a pyramid, every passable cell is a block of its own.
+	 * 
+	 * @return	| if(getTerrain().isImpassable(row, column))
+	 * 			|	then result == -1
+	 * 			| else if(pyramid == null)
+	 * 			|	then result == 0
+	 * 			| else result == pyramid.getPassableLevel(row, column)
+	 */
+	@Raw @Model
+	private int getPassableLevel(int row, int column){
+		if(pyramid != null)
+			return pyramid.getPassableLevel(row, column);
+		return getTerrain().isImpassable(row, column) ? -1 : 0;
 	}
 	
+	/**
+	 * Checks whether the terrain of this world covers a non-empty area.
+	 * 
+	 * @return	| result == (getWidth() > 0 && getHeight() > 0)
+	 */
+	@Raw @Model
+	private boolean hasArea(){
+		return getWidth() > 0 && getHeight() > 0;
+	}
+	
+	/**
+	 * Blasts a crater in the terrain of this world: every cell whose centre lies 
+	 * within the given circle becomes passable.
+	 * 	The terrain indices of this world are only patched around the crater.
+	 * 	Afterwards, all worms that stood on or above the crater and can fall, 
+	 * 	fall down, one after the other.
+	 * 
+	 * @param 	x
+	 * 			The x-coordinate of the centre of the crater.
+	 * @param 	y
+	 * 			The y-coordinate of the centre of the crater.
+	 * @param 	radius
+	 * 			The radius of the crater.
+	 * @post	| for each row, column in getTerrain():
+	 * 			|	if(the centre of the cell at (row, column) lies within the given circle)
+	 * 			|		then new.getTerrain().isPassable(row, column)
+	 * @post	| if(some cell has become passable)
+	 * 			|	then new.getTerrainEpoch() == getTerrainEpoch() + 1
+	 * @effect	| for each worm in getWorms():
+	 * 			|	if(worm stands above the crater && worm.canFall())
+	 * 			|		then worm.fall()
+	 */
+	public void makeCrater(double x, double y, double radius){
+		if(radius <= 0 || !hasArea())
+			return;
+		int nbRows = getTerrain().getNbRows(), nbColumns = getTerrain().getNbColumns();
+		double cellWidth = getWidth()/nbColumns, cellHeight = getHeight()/nbRows;
+		int fromRow = Math.max(0, (int)Math.floor(nbRows - (y + radius)/cellHeight - 0.5));
+		int toRow = Math.min(nbRows, (int)Math.ceil(nbRows - (y - radius)/cellHeight - 0.5) + 1);
+		int fromColumn = nbColumns, toColumn = 0;
+		for(int row = fromRow; row < toRow; row++){
+			double dy = (nbRows - row - 0.5)*cellHeight - y;
+			if(Math.abs(dy) > radius)
+				continue;
+			double halfWidth = Math.sqrt(radius*radius - dy*dy);
+			int first = Math.max(0, (int)Math.ceil((x - halfWidth)/cellWidth - 0.5));
+			int last = Math.min(nbColumns, (int)Math.floor((x + halfWidth)/cellWidth - 0.5) + 1);
+			if(first < last && !getTerrain().isPassableSpan(row, first, last)){
+				if(terrainShared)
+					unshareTerrain();
+				getTerrain().setPassableSpan(row, first, last, true);
+				fromColumn = Math.min(fromColumn, first);
+				toColumn = Math.max(toColumn, last);
+			}
+		}
+		if(fromColumn >= toColumn)
+			return;
+		if(occupancyTable != null)
+			occupancyTable.update(fromRow, fromColumn, toRow, toColumn);
+		if(pyramid != null)
+			pyramid.update(fromRow, fromColumn, toRow, toColumn);
+		if(distanceField != null){
+			int margin = Math.max(toRow - fromRow, toColumn - fromColumn);
+			distanceField.update(getTerrain(), Math.max(0, fromRow - margin), Math.max(0, fromColumn - margin),
+					Math.min(nbRows, toRow + margin), Math.min(nbColumns, toColumn + margin));
+		}
+		if(skyline != null)
+			skyline.update(fromColumn, toColumn);
+		for(PlacementIndex index: placementIndices.values())
+			index.update(fromRow, fromColumn, toRow, toColumn);
+		terrainEpoch++;
+		fireEvent(WorldEvent.TERRAIN_CHANGED, null);
+		List<Worm> fallingWorms = new ArrayList<Worm>();
+		for(Worm worm: worms){
+			double reach = radius + worm.getRadius()*ADJACENCY_FACTOR;
+			if(Math.abs(worm.getX() - x) <= reach && worm.getY() >= y - reach)
+				fallingWorms.add(worm);
+		}
+		for(Worm worm: fallingWorms){
+			if(worm.getWorld() == this && worm.canFall())
+				worm.fall();
+		}
+	}
+	
+	/**
+	 * Replace the terrain of this world and its indices by copies, so that this world
+	 * no longer shares them with its forks or with the world it was forked from.
+	 * 
+	 * @post	| !new.terrainShared
+	 */
+	@Model
+	private void unshareTerrain(){
+		TerrainGrid copy = terrain.copy();
+		if(pyramid != null)
+			pyramid = new TerrainPyramid(pyramid, copy);
+		if(distanceField != null)
+			distanceField = new DistanceField(distanceField);
+		if(occupancyTable != null)
+			occupancyTable = new SummedAreaTable(occupancyTable, copy);
+		if(skyline != null)
+			skyline = new TerrainSkyline(skyline, copy);
+		terrain = copy;
+		terrainShared = false;
+	}
+	
+	/**
+	 * Variable registering whether the terrain of this world and its indices may be shared
+	 * with other worlds, so that they have to be copied before they are changed.
+	 */
+	private boolean terrainShared = false;
+	
+	/**
+	 * Returns the number of times the terrain of this world has changed.
+	 */
+	@Basic @Raw
+	public long getTerrainEpoch(){
+		return this.terrainEpoch;
+	}
+	
+	/**
+	 * Variable registering the number of times the terrain of this world has changed.
+	 */
+	private long terrainEpoch = 0;
+	
 	
 	/**
 	 * returns if the worm can fall or not.
@@ -320,42 +977,233 @@ public class World {
 			return false;
 		return true;
 	}
+	
+	/**
+	 * Returns a lower bound for the heights down to which a circle with the given radius
+	 * can fall freely from the given centre: for every y-coordinate between the result and
+	 * the given y-coordinate, all cells within the adjacency distance of the circle are passable,
+	 * so that the circle is neither impassable nor adjacent there.
+	 * 	The bound follows from the skyline of the terrain, with one lookup per column
+	 * 	that the circle covers. It never lies below the bottom of this world.
+	 * 	Without a skyline, the given y-coordinate is returned.
+	 * 
+	 * @param 	x
+	 * 			the x-coordinate of the centre of the circle.
+	 * @param 	y
+	 * 			the y-coordinate of the centre of the circle.
+	 * @param 	radius
+	 * 			the radius of the circle.
+	 * @return	| result <= y
+	 * @return	| result == y || (for each y' in result..y: canFall(x, y', radius))
+	 * @return	| if(isImpassable(x, y, radius) || getTerrain() is not kept in memory)
+	 * 			|	then result == y
+	 */
+	@Raw
+	public double getFreeFallHeight(double x, double y, double radius){
+		if(skyline == null || isImpassable(x, y, radius))
+			return y;
+		double reach = radius*ADJACENCY_FACTOR;
+		int nbRows = getTerrain().getNbRows(), nbColumns = getTerrain().getNbColumns();
+		// One extra row and column on each side make up for rounding in the offsets of the masks.
+		int fromRow = Math.max(0, getRowOf(y + reach) - 1);
+		int fromColumn = Math.max(0, getColumnOf(x - reach) - 1);
+		int toColumn = Math.min(nbColumns, getColumnOf(x + reach) + 2);
+		int topRow = skyline.getTopImpassableRow(fromRow, fromColumn, toColumn);
+		if(topRow == nbRows)
+			return Math.min(y, radius);
+		if(topRow <= getRowOf(y - reach) + 1)
+			return y;
+		double cellHeight = getHeight()/nbRows;
+		return Math.min(y, Math.max(radius, (nbRows - topRow + 1)*cellHeight + reach));
+	}
 
 	
 	/**
-	 * calculates the right positions int he passable map and
+	 * Returns whether the cells of the square around the given centre with the given
+	 * half side are all passable, all impassable or mixed.
+	 * 	Every point of a circle mask with that radius lies in one of these cells,
+	 * 	so a square that is not mixed settles a check of the mask at once.
+	 * 
+	 * @param	x
+	 * 			the x-coordinate of the centre of the square
+	 * @param 	y
+	 * 			the y-coordinate of the centre of the square
+	 * @param	halfSide
+	 * 			half the length of a side of the square
+	 * @return	|let count = occupancyTable.countImpassable(getRowOf(y+halfSide), getColumnOf(x-halfSide),
+	 * 			|		getRowOf(y-halfSide)+1, getColumnOf(x+halfSide)+1)
+	 * 			|    area = the number of cells in that rectangle
+	 * 			|in
+	 * 			|	if(occupancyTable == null) then result == MIXED
+	 * 			|	else if(count == 0) then result == PASSABLE
+	 * 			|	else if(count == area) then result == IMPASSABLE
+	 * 			|	else result == MIXED
+	 */
+	@Raw @Model
+	private int getOccupancyAround(double x, double y, double halfSide){
+		if(occupancyTable == null)
+			return MIXED;
+		int fromRow = getRowOf(y+halfSide);
+		int toRow = getRowOf(y-halfSide) + 1;
+		int fromColumn = getColumnOf(x-halfSide);
+		int toColumn = getColumnOf(x+halfSide) + 1;
+		int count = occupancyTable.countImpassable(fromRow, fromColumn, toRow, toColumn);
+		if(count == 0)
+			return PASSABLE;
+		if(count == (toRow - fromRow) * (toColumn - fromColumn))
+			return IMPASSABLE;
+		return MIXED;
+	}
+	
+	/**
+	 * Checks whether any of the points of the given circle mask around the given
+	 * centre lies in an impassable cell of the terrain.
+	 * 	Neighbouring points of the mask often fall in the same cell,
+	 * 	each cell is only looked up once in a row of such points.
+	 * 
+	 * @param	x
+	 * 			the x-coordinate of the centre of the mask
+	 * @param 	y
+	 * 			the y-coordinate of the centre of the mask
+	 * @param	mask
+	 * 			the circle mask to check
+	 * @return	|result == for some k in 0..mask.getNbSamples()-1:
+	 * 			|	isImpassablePoint(x+mask.getDx(k), y+mask.getDy(k))
+	 */
+	@Raw @Model
+	private boolean hitsImpassableCell(double x, double y, CircleMask mask){
+		int previousRow = -1, previousColumn = -1;
+		for(int k = 0; k < mask.getNbSamples(); k++){
+			int row = getRowOf(y+mask.getDy(k));
+			int column = getColumnOf(x+mask.getDx(k));
+			if(row != previousRow || column != previousColumn){
+				if(getTerrain().isImpassable(row, column))
+					return true;
+				previousRow = row;
+				previousColumn = column;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * calculates the right cell in the terrain grid and
 	 * returns whether the point is impassable or not.
 	 * 
 	 * @param	x
 	 * 			the given x value
 	 * @param 	y
 	 * 			the given y value
-	 * @return	|!getPassableMap()[intX][intY]
+	 * @return	|getTerrain().isImpassable(getRowOf(y), getColumnOf(x))
 	 */
-	//TODO documentation
-	@Raw
+	@Raw @Model
 	private boolean isImpassablePoint(double x, double y){
-		int intX, intY;
-		double temp = y*getPassableMap().length/getHeight();
-		intX = getPassableMap().length - (int)Math.ceil(temp);
-		temp = x*getPassableMap()[0].length/getWidth();
-		intY = (int)Math.floor(temp);
-		if(intX >= getPassableMap().length)
-			intX = getPassableMap().length - 1;
-		else if(intX < 0)
-			intX = 0;
-		if(intY >= getPassableMap()[0].length)
-			intY = getPassableMap()[0].length - 1;
-		else if(intY < 0)
-			intY = 0;
-		return !getPassableMap()[intX][intY];
+		return getTerrain().isImpassable(getRowOf(y), getColumnOf(x));
+	}
+	
+	/**
+	 * Returns the row of the terrain grid containing the given y-coordinate.
+	 * 
+	 * @param 	y
+	 * 			the given y value
+	 * @return	|result == 
+	 * 			|	max(0, min(getTerrain().getNbRows() - 1, 
+	 * 			|		getTerrain().getNbRows() - ceil(y*getTerrain().getNbRows()/getHeight())))
+	 */
+	@Raw @Model
+	private int getRowOf(double y){
+		int nbRows = getTerrain().getNbRows();
+		int row = nbRows - (int)Math.ceil(y*nbRows/getHeight());
+		if(row >= nbRows)
+			return nbRows - 1;
+		if(row < 0)
+			return 0;
+		return row;
 	}
 	
 	/**
-	 * Variable referencing a rectangular matrix indicating which parts 
-	 * of the terrain are passable and impassable (true or false).
+	 * Returns the column of the terrain grid containing the given x-coordinate.
+	 * 
+	 * @param 	x
+	 * 			the given x value
+	 * @return	|result == 
+	 * 			|	max(0, min(getTerrain().getNbColumns() - 1, 
+	 * 			|		floor(x*getTerrain().getNbColumns()/getWidth())))
 	 */
-	private final boolean[][] passableMap;
+	@Raw @Model
+	private int getColumnOf(double x){
+		int nbColumns = getTerrain().getNbColumns();
+		int column = (int)Math.floor(x*nbColumns/getWidth());
+		if(column >= nbColumns)
+			return nbColumns - 1;
+		if(column < 0)
+			return 0;
+		return column;
+	}
+	
+	/**
+	 * Variable referencing the terrain grid indicating which parts 
+	 * of the terrain are passable and impassable.
+	 */
+	private TerrainGrid terrain;
+	
+	/**
+	 * Variable referencing the occupancy pyramid over the terrain of this world,
+	 * or null if the terrain is not kept in memory.
+	 */
+	private TerrainPyramid pyramid;
+	
+	/**
+	 * Variable referencing the distance field of the terrain of this world,
+	 * or null if the terrain has no area or is not kept in memory.
+	 */
+	private DistanceField distanceField;
+	
+	/**
+	 * Variable referencing the summed-area table counting the impassable cells
+	 * of the terrain of this world, or null if the terrain has no area or is not kept in memory.
+	 */
+	private SummedAreaTable occupancyTable;
+	
+	/**
+	 * Variable referencing the skyline of the terrain of this world,
+	 * or null if the terrain has no area or is not kept in memory.
+	 */
+	private TerrainSkyline skyline;
+	
+	/**
+	 * Variable registering the length of the diagonal of a cell of the terrain (in meter).
+	 */
+	private final double cellDiagonal;
+	
+	/**
+	 * Final class variable registering the factor with which the radius of a circle
+	 * is scaled when checking whether that circle is impassable.
+	 */
+	private static final double IMPASSABLE_FACTOR = 0.99999999;
+	
+	/**
+	 * Final class variable registering the factor with which the radius of a circle
+	 * is scaled when checking whether that circle is adjacent to impassable terrain.
+	 */
+	private static final double ADJACENCY_FACTOR = 1.1;
+	
+	/**
+	 * Final class variable registering the largest fraction of its radius a circle is moved
+	 * over in each step along a trajectory when there is no clearance to take a larger step.
+	 */
+	private static final double MIN_STEP_FACTOR = 0.25;
+	
+	/**
+	 * Final class variable registering the precision (in seconds) with which
+	 * the time of contact on a trajectory is found.
+	 */
+	private static final double TIME_TOLERANCE = 1E-4;
+	
+	/**
+	 * Final class variables registering the possible occupancies of a square of cells.
+	 */
+	private static final int PASSABLE = 0, IMPASSABLE = 1, MIXED = 2;
 	
 
 	
@@ -557,18 +1405,20 @@ public class World {
 
 	/**
 	 * Return all the worms and food rations that are attached to this world.
+	 * 	The result is an unmodifiable, live view: it follows the worms and food rations
+	 * 	of this world without copying them. Its iterators run over a snapshot taken 
+	 * 	when they are created, so worms and food rations may be added or removed while
+	 * 	iterating.
 	 * 
 	 * @return	| result == (getFood() && getWorms())
 	 */
 	public Collection <Entity> getAny(){
-		HashSet<Entity> hashSet = new HashSet<Entity>();
-		hashSet.addAll(getFood());
-		hashSet.addAll(getWorms());
-		return hashSet;
+		return anyView;
 	}
 	
 	/**
 	 * returns the food object if it in within the given radius on the given position.
+	 * 	If several food rations are within the radius, the nearest one is returned.
 	 * @param 	x
 	 * 			the given x-position
 	 * @param 	y
@@ -577,27 +1427,55 @@ public class World {
 	 * 			the given radius
 	 * @return	|if(isImpassable(x,y,radius))
 	 *			|	return null;
-	 *			|for(Food food: foodRations){
-	 *			|		if(Math.pow(Math.pow((food.getX() - x), 2.0) + 
-	 *			|			Math.pow((food.getY() - y), 2.0),(1.0/2.0)) <= 
-	 *			|				(Food.getRadius() + radius)){
-	 *			|			return food;
-	 *			|		}
-	 *			|	}
-	 *			|return null;
+	 *			|else result == getNearestFood(x, y, radius)
 	 * 
 	 */
 	public Food hitAnyFood(double x, double y, double radius){
 		if(isImpassable(x,y,radius))
 			return null;
-		for(Food food: foodRations){
-			if(Math.pow(Math.pow((food.getX() - x), 2.0) + 
-				Math.pow((food.getY() - y), 2.0),(1.0/2.0)) <= 
-					(Food.getRadius() + radius)){
-				return food;
-			}
-		}
-		return null;
+		return getNearestFood(x, y, radius);
+	}
+	
+	/**
+	 * Returns the food ration whose boundary is nearest to the given position and not farther
+	 * away than the given distance, or null if there is no such food ration.
+	 * 
+	 * @param 	x
+	 * 			the given x-position
+	 * @param 	y
+	 * 			the given y-position
+	 * @param 	maxDistance
+	 * 			the largest distance to the boundary of the food ration
+	 * @return	| result == null || (hasAsFood(result) &&
+	 * 			|	Math.hypot(result.getX() - x, result.getY() - y) - Food.getRadius() <= maxDistance &&
+	 * 			|	for each food in getFood():
+	 * 			|		Math.hypot(food.getX() - x, food.getY() - y) >= 
+	 * 			|			Math.hypot(result.getX() - x, result.getY() - y))
+	 * @return	| if(result == null)
+	 * 			|	then for each food in getFood():
+	 * 			|		Math.hypot(food.getX() - x, food.getY() - y) - Food.getRadius() > maxDistance
+	 */
+	public Food getNearestFood(double x, double y, double maxDistance){
+		return foodIndex.getNearest(x, y, maxDistance, null);
+	}
+	
+	/**
+	 * Returns all the food rations that overlap the circle with the given centre and radius.
+	 * 
+	 * @param 	x
+	 * 			the x-coordinate of the centre of the circle
+	 * @param 	y
+	 * 			the y-coordinate of the centre of the circle
+	 * @param 	radius
+	 * 			the radius of the circle
+	 * @return	| for each food in getFood():
+	 * 			|	result.contains(food) == 
+	 * 			|		(Math.hypot(food.getX() - x, food.getY() - y) <= Food.getRadius() + radius)
+	 */
+	public Collection<Food> getFoodWithin(double x, double y, double radius){
+		List<Food> result = new ArrayList<Food>();
+		foodIndex.collectOverlapping(x, y, radius, result);
+		return result;
 	}
 	
 	/**
@@ -649,6 +1527,9 @@ public class World {
 	
 	/**
 	 * Returns all the food rations in this world.
+	 * 	The result is an unmodifiable, live view: it follows the food rations of this world
+	 * 	without copying them. Its iterators run over a snapshot taken when they are
+	 * 	created, so food rations may be added or removed while iterating.
 	 * 
 	 * @return	| ! result.contains(null)
 	 * @return	| for each foodRations in Food
@@ -656,48 +1537,99 @@ public class World {
 	 * 			|		this.hasAsFoodRations(foodRations))
 	 */
 	public Collection<Food> getFood(){
-		return new HashSet<Food>(this.foodRations);
-	}
-	
-	private double[] getNewPosition(double radius){
-		//find a location for the food
-		//determine at which wall we will start searching for a proper place
-		// 0: left wall  1: right wall,  2: bottom wall,  3: top wall
-		double getal = random.nextInt(4);
-		double testX = 0, testY = 0;
-		if(getal == 0){
-			testX = 0;
-			testY = randomStartY();
-		}
-		if(getal == 1){
-			testX = this.getWidth();
-			testY = randomStartY();
-		}
-		if(getal == 2){
-			testX = randomStartX();
-			testY = 0;
-		}
-		if(getal == 3){
-			testX = randomStartX();
-			testY = this.getHeight();
-		}
-		//determine the exact location by constantly checking a place, and going closer to the middle
-		// as suggested in the assignment.
-
-		while (!isAdjacent(testX, testY, radius) && Math.abs(testX-(getWidth()/2)) > 0.1 && Math.abs(testY-(getHeight()/2)) > 0.1)
-		{
-			testX = newX(testX);
-			testY = newY(testY);
+		return foodView;
+	}
+	
+	/**
+	 * Returns a random position in this world at which a circle with the given radius
+	 * is passable and adjacent to impassable terrain.
+	 * 	If this world is not empty, the position is drawn uniformly from the
+	 * 	candidate positions of the placement index for the given radius, with the random
+	 * 	number generator of this world. Otherwise, the position is found by walking from
+	 * 	a random point on a random wall towards the centre of this world, as suggested
+	 * 	in the assignment, for at most MAX_PLACEMENT_ATTEMPTS walks.
+	 * 
+	 * @param 	radius
+	 * 			The radius of the circle to place.
+	 * @return	| isAdjacent(result[0], result[1], radius)
+	 * @throws	IllegalArgumentException("There is no adjacent position for this radius.")
+	 * 			| no position in this world is adjacent for the given radius
+	 */
+	@Model
+	private double[] getNewPosition(double radius) throws IllegalArgumentException{
+		if(getWidth() > 0 && getHeight() > 0){
+			PlacementIndex index = getPlacementIndex(radius);
+			if(index.size() == 0)
+				throw new IllegalArgumentException("There is no adjacent position for this radius.");
+			int candidate = random.nextInt(index.size());
+			double[] position = {index.getX(candidate), index.getY(candidate)};
+			return position;
 		}
-		if(!isAdjacent(testX, testY, radius)){
-			return getNewPosition(radius);
+		for(int attempt = 0; attempt < MAX_PLACEMENT_ATTEMPTS; attempt++){
+			//determine at which wall we will start searching for a proper place
+			// 0: left wall  1: right wall,  2: bottom wall,  3: top wall
+			double getal = random.nextInt(4);
+			double testX = 0, testY = 0;
+			if(getal == 0){
+				testX = 0;
+				testY = randomStartY();
+			}
+			if(getal == 1){
+				testX = this.getWidth();
+				testY = randomStartY();
+			}
+			if(getal == 2){
+				testX = randomStartX();
+				testY = 0;
+			}
+			if(getal == 3){
+				testX = randomStartX();
+				testY = this.getHeight();
+			}
+			//determine the exact location by constantly checking a place, and going closer to the middle
+			// as suggested in the assignment.
+			while (!isAdjacent(testX, testY, radius) && Math.abs(testX-(getWidth()/2)) > 0.1 && Math.abs(testY-(getHeight()/2)) > 0.1)
+			{
+				testX = newX(testX);
+				testY = newY(testY);
+			}
+			if(isAdjacent(testX, testY, radius)){
+				double[] position = {testX, testY};
+				return position;
+			}
 		}
-		else{
-			double[] position = {testX, testY};
-			return position;
+		throw new IllegalArgumentException("There is no adjacent position for this radius.");
+	}
+	
+	/**
+	 * Returns the placement index of this world for circles with the given radius,
+	 * building it the first time it is asked for.
+	 * 
+	 * @param 	radius
+	 * 			The radius of the circles to place.
+	 * @return	| result.getWorld() == this && result.getRadius() == radius
+	 */
+	@Model
+	private PlacementIndex getPlacementIndex(double radius){
+		PlacementIndex index = placementIndices.get(radius);
+		if(index == null){
+			index = new PlacementIndex(this, radius, radius*ADJACENCY_FACTOR);
+			placementIndices.put(radius, index);
 		}
+		return index;
 	}
 	
+	/**
+	 * Variable referencing the placement indices of this world, per radius.
+	 */
+	private final Map<Double, PlacementIndex> placementIndices = new HashMap<Double, PlacementIndex>();
+	
+	/**
+	 * Final class variable registering the maximal number of walks towards the centre
+	 * of a world without a distance field, in search of an adjacent position.
+	 */
+	private static final int MAX_PLACEMENT_ATTEMPTS = 1000;
+	
 	/**
 	 * Create and add a new food ration to the given world.
 	 * The food must be placed at a random adjacent location.
@@ -732,7 +1664,11 @@ public class World {
 		if(food.getWorld() != null)
 			throw new IllegalArgumentException("You can't add this food.");
 		this.foodRations.add(food);
+		this.foodIndex.add(food);
+		this.foodView.modified();
+		this.anyView.modified();
 		food.setWorld(this);
+		fireEvent(WorldEvent.FOOD_ADDED, food);
 	}
 	
 	/**
@@ -752,7 +1688,11 @@ public class World {
 		if(!hasAsFood(food))
 			throw new IllegalArgumentException();
 		this.foodRations.remove(food);
+		this.foodIndex.remove(food);
+		this.foodView.modified();
+		this.anyView.modified();
 		food.setWorld(null);
+		fireEvent(WorldEvent.FOOD_EATEN, food);
 	}
 	
 	
@@ -765,7 +1705,24 @@ public class World {
 	 * @invar	| for each foodRations in foodRations
 	 * 			|	(foodRations.getWorld() == this)
 	 */
-	private HashSet<Food> foodRations = new HashSet<Food>();
+	private final HashSet<Food> foodRations = new HashSet<Food>();
+	
+	/**
+	 * A live view on the food rations attached to this world.
+	 */
+	private final SnapshotView<Food> foodView = new SnapshotView<Food>(foodRations);
+	
+	/**
+	 * A spatial hash over the food rations attached to this world.
+	 * 
+	 * @invar	| foodIndex contains exactly the food rations in foodRations
+	 */
+	private final SpatialHash<Food> foodIndex = new SpatialHash<Food>(ENTITY_CELL_SIZE){
+		@Override
+		double getRadius(Food food){
+			return Food.getRadius();
+		}
+	};
 	//FOOD
 	
 	
@@ -778,54 +1735,135 @@ public class World {
 	}
 	
 	/**
-	 * Starts the next turn in the given world by finding the current worm in the linkedHashSet
-	 * and selecting the next worm as new current Worm
+	 * Starts the next turn in the given world: the turn policy of this world selects
+	 * the worm after the current worm as new current worm.
+	 * 
+	 * @effect	| if(!getWorms().isEmpty())
+	 * 			|	then startNextTurn_Aux(getTurnPolicy().getNextWorm(this, getCurrentWorm()))
+	 * @post	| new.getCurrentWorm() == getTurnPolicy().getNextWorm(this, getCurrentWorm())
 	 */
-	//vorige worm checken, zoeken in linkedHashSet, en de volgende in de set nemen als current worm.
-	//TODO documentation
 	public void startNextTurn(){
-		Iterator<Worm> it = worms.iterator();
-		if (this.currentWorm == null)
-		{
-			currentWorm = it.next();
+		Worm next = getTurnPolicy().getNextWorm(this, this.currentWorm);
+		if(next == null)
+			return;
+		this.currentWorm = next;
+		this.successorOfCurrent = null;
+		this.startNextTurn_Aux(currentWorm);
+		fireEvent(WorldEvent.TURN_STARTED, currentWorm);
+	}
+	
+	/**
+	 * Returns the worm after the given worm in the turn order of this world.
+	 * 	The turn order is the order in which the worms were added to this world, 
+	 * 	closed into a ring. This takes constant time.
+	 * 
+	 * @param 	worm
+	 * 			The worm to return the successor of.
+	 * @return	| if(getWorms().isEmpty())
+	 * 			|	then result == null
+	 * @return	| else if(hasAsWorm(worm))
+	 * 			|	then result is the worm after worm in getWorms(), or the first worm 
+	 * 			|		in getWorms() if worm is the last one
+	 * @return	| else if(worm == getCurrentWorm())
+	 * 			|	then result is the worm that came after the current worm when it
+	 * 			|		left this world, or the next worm still in this world after it
+	 * @return	| else result == the first worm in getWorms()
+	 */
+	public Worm getTurnSuccessor(Worm worm){
+		if(firstInTurn == null)
+			return null;
+		if(worm != null && hasAsWorm(worm))
+			return worm.nextInTurn;
+		if(worm != null && worm == currentWorm && successorOfCurrent != null)
+			return successorOfCurrent;
+		return firstInTurn;
+	}
+	
+	/**
+	 * Returns the turn policy of this world.
+	 */
+	@Basic @Raw
+	public TurnPolicy getTurnPolicy(){
+		return this.turnPolicy;
+	}
+	
+	/**
+	 * Sets the turn policy of this world to the given policy.
+	 * 
+	 * @param 	turnPolicy
+	 * 			The new turn policy.
+	 * @post	| new.getTurnPolicy() == turnPolicy
+	 * @throws	IllegalArgumentException("The given turn policy is invalid.")
+	 * 			| turnPolicy == null
+	 */
+	public void setTurnPolicy(TurnPolicy turnPolicy) 
+			throws IllegalArgumentException{
+		if(turnPolicy == null)
+			throw new IllegalArgumentException("The given turn policy is invalid.");
+		this.turnPolicy = turnPolicy;
+	}
+	
+	/**
+	 * Variable referencing the turn policy of this world.
+	 */
+	private TurnPolicy turnPolicy = new WormTurnPolicy();
+	
+	/**
+	 * Adds the given worm at the end of the turn order of this world.
+	 * 
+	 * @param 	worm
+	 * 			The worm to link.
+	 */
+	@Model
+	private void linkInTurn(Worm worm){
+		if(firstInTurn == null){
+			worm.previousInTurn = worm;
+			worm.nextInTurn = worm;
+			firstInTurn = worm;
 		}
-		else
-		{
-			String lastWormName = currentWorm.getName();
-			boolean flag = false;
-			Worm testWorm = null;
-			while(!flag)
-			{
-				testWorm = it.next();
-				if(testWorm.getName().equals(lastWormName))
-					flag = true;
-								
-			}
-			
-			if(it.hasNext())
-				currentWorm = it.next();
-			else
-			{
-				Iterator<Worm> it2 = worms.iterator();
-				currentWorm = it2.next();		
-			}
-			while(currentWorm == null&& it.hasNext())
-			{
-				currentWorm = it.next();
-			}
-			if(currentWorm == null)
-			{
-				Iterator<Worm> it3 = worms.iterator();
-				while(currentWorm == null &&it3.hasNext())
-				{
-					currentWorm = it3.next();
-				}
-			}
+		else{
+			Worm last = firstInTurn.previousInTurn;
+			worm.previousInTurn = last;
+			worm.nextInTurn = firstInTurn;
+			last.nextInTurn = worm;
+			firstInTurn.previousInTurn = worm;
 		}
-		
-		this.startNextTurn_Aux(currentWorm);
 	}
 	
+	/**
+	 * Removes the given worm from the turn order of this world.
+	 * 	If the given worm is the current worm, or the worm that came after the current
+	 * 	worm when it left, its successor is registered as the worm after the current one.
+	 * 
+	 * @param 	worm
+	 * 			The worm to unlink.
+	 */
+	@Model
+	private void unlinkFromTurn(Worm worm){
+		Worm next = (worm.nextInTurn == worm) ? null : worm.nextInTurn;
+		if(worm == currentWorm || worm == successorOfCurrent)
+			successorOfCurrent = next;
+		if(next != null){
+			worm.previousInTurn.nextInTurn = next;
+			next.previousInTurn = worm.previousInTurn;
+		}
+		if(firstInTurn == worm)
+			firstInTurn = next;
+		worm.previousInTurn = null;
+		worm.nextInTurn = null;
+	}
+	
+	/**
+	 * Variable referencing the first worm in the turn order of this world.
+	 */
+	private Worm firstInTurn = null;
+	
+	/**
+	 * Variable referencing the worm that gets the turn after the current worm,
+	 * if the current worm has left this world.
+	 */
+	private Worm successorOfCurrent = null;
+	
 	/**
 	 * Resets the worms action points and gives it 10 extra hp if possible.
 	 * 
@@ -858,6 +1896,7 @@ public class World {
 	
 	/**
 	 * returns the worm object if it is in within the given radius on the given position.
+	 * 	If several worms are within the radius, the worm whose boundary is nearest is returned.
 	 * @param 	x
 	 * 			the given x-position
 	 * @param 	y
@@ -866,27 +1905,81 @@ public class World {
 	 * 			the given radius
 	 * @return	|if(isImpassable(x,y,radius))
 	 *			|	return null;
-	 *			|for(Worm worm: worms){
-	 *			|		if(Math.pow(Math.pow((worm.getX() - x), 2.0) + 
-	 *			|			Math.pow((worm.getY() - y), 2.0),(1.0/2.0)) <= 
-	 *			|				(worm.getRadius() + radius)){
-	 *			|			return worm;
-	 *			|		}
-	 *			|	}
-	 *			|return null;
+	 *			|else result == getNearestWorm(x, y, radius, null)
 	 * 
 	 */
 	public Worm hitAnyWorm(double x, double y, double radius){
 		if(isImpassable(x,y,radius))
 			return null;
-		for(Worm worm: worms){
-			if(Math.pow(Math.pow((worm.getX() - x), 2) + 
-				Math.pow((worm.getY() - y), 2),(1/2.0)) <= 
-					(worm.getRadius() + radius)){
-				return worm;
-			}
-		}
-		return null;
+		return getNearestWorm(x, y, radius, null);
+	}
+	
+	/**
+	 * Returns the worm, other than the given excluded worm, whose boundary is nearest to 
+	 * the given position and not farther away than the given distance, or null if there
+	 * is no such worm.
+	 * 	The distance to the boundary of a worm is negative if the position lies within that worm.
+	 * 
+	 * @param 	x
+	 * 			the given x-position
+	 * @param 	y
+	 * 			the given y-position
+	 * @param 	maxDistance
+	 * 			the largest distance to the boundary of the worm
+	 * @param 	excluded
+	 * 			the worm to leave out, or null
+	 * @return	| result == null || (hasAsWorm(result) && result != excluded &&
+	 * 			|	Math.hypot(result.getX() - x, result.getY() - y) - result.getRadius() <= maxDistance &&
+	 * 			|	for each worm in getWorms():
+	 * 			|		worm == excluded || Math.hypot(worm.getX() - x, worm.getY() - y) - worm.getRadius() >=
+	 * 			|			Math.hypot(result.getX() - x, result.getY() - y) - result.getRadius())
+	 * @return	| if(result == null)
+	 * 			|	then for each worm in getWorms():
+	 * 			|		worm == excluded || 
+	 * 			|			Math.hypot(worm.getX() - x, worm.getY() - y) - worm.getRadius() > maxDistance
+	 */
+	public Worm getNearestWorm(double x, double y, double maxDistance, Worm excluded){
+		return wormIndex.getNearest(x, y, maxDistance, excluded);
+	}
+	
+	/**
+	 * Returns at most the given number of worms whose boundaries are nearest to the given
+	 * position, ordered from near to far.
+	 * 
+	 * @param 	x
+	 * 			the given x-position
+	 * @param 	y
+	 * 			the given y-position
+	 * @param 	count
+	 * 			the largest number of worms to return
+	 * @return	| result.size() == Math.min(Math.max(count, 0), getWorms().size())
+	 * @return	| for each worm in getWorms():
+	 * 			|	if(!result.contains(worm))
+	 * 			|		then for each other in result:
+	 * 			|			Math.hypot(worm.getX() - x, worm.getY() - y) - worm.getRadius() >=
+	 * 			|				Math.hypot(other.getX() - x, other.getY() - y) - other.getRadius()
+	 */
+	public List<Worm> getNearestWorms(double x, double y, int count){
+		return wormIndex.getNearest(x, y, count, Double.POSITIVE_INFINITY, null);
+	}
+	
+	/**
+	 * Returns all the worms that overlap the circle with the given centre and radius.
+	 * 
+	 * @param 	x
+	 * 			the x-coordinate of the centre of the circle
+	 * @param 	y
+	 * 			the y-coordinate of the centre of the circle
+	 * @param 	radius
+	 * 			the radius of the circle
+	 * @return	| for each worm in getWorms():
+	 * 			|	result.contains(worm) == 
+	 * 			|		(Math.hypot(worm.getX() - x, worm.getY() - y) <= worm.getRadius() + radius)
+	 */
+	public Collection<Worm> getWormsWithin(double x, double y, double radius){
+		List<Worm> result = new ArrayList<Worm>();
+		wormIndex.collectOverlapping(x, y, radius, result);
+		return result;
 	}
 	
 	/**
@@ -932,10 +2025,13 @@ public class World {
 	}
 	
 	/**
-	 * Returns all the worms in the given world
+	 * Returns all the worms in the given world, in the order in which they were added.
+	 * 	The result is an unmodifiable, live view: it follows the worms of this world
+	 * 	without copying them. Its iterators run over a snapshot taken when they are
+	 * 	created, so worms may be added or removed while iterating.
 	 */
 	public Collection<Worm> getWorms(){
-		return new LinkedHashSet<Worm>(this.worms);
+		return wormView;
 	}
 	
 	
@@ -974,7 +2070,68 @@ public class World {
 			program.setWorm(newWorm);
 	}
 	
-
+	/**
+	 * Create and add the given number of new worms and new food rations to this world,
+	 * each at a random adjacent location.
+	 * 	All positions are drawn first, with the random number generator of this world:
+	 * 	the positions of the new worms one after the other, then those of the new food rations.
+	 * 	The new worms are then created and added to this world in the order of their
+	 * 	positions. If this world has more than one team, each new worm
+	 * 	joins the team that is smallest at that moment, as with addNewWorm; the sizes of
+	 * 	the teams are only counted once.
+	 * 
+	 * @param 	nbWorms
+	 * 			The number of new worms.
+	 * @param 	nbFood
+	 * 			The number of new food rations.
+	 * @param 	programs
+	 * 			The programs of the new worms in the order of their creation, or null.
+	 * 			New worms beyond the end of this list, or with a null program,
+	 * 			are controlled by the player.
+	 * @effect	| for each i in 0..nbWorms-1:
+	 * 			|	addNewWorm((programs != null && i < programs.size()) ? programs.get(i) : null)
+	 * @effect	| for each i in 0..nbFood-1:
+	 * 			|	addNewFood()
+	 * @throws	IllegalArgumentException("The given number of worms or food rations is invalid.")
+	 * 			| nbWorms < 0 || nbFood < 0
+	 * @throws	IllegalArgumentException("There is no adjacent position for this radius.")
+	 * 			| no position in this world is adjacent for new worms or new food rations
+	 * 			| 	that have to be added
+	 */
+	public void populate(int nbWorms, int nbFood, List<Program> programs) 
+			throws IllegalArgumentException{
+		if(nbWorms < 0 || nbFood < 0)
+			throw new IllegalArgumentException("The given number of worms or food rations is invalid.");
+		double[] wormPositions = new double[2*nbWorms];
+		for(int i = 0; i < nbWorms; i++)
+			System.arraycopy(getNewPosition(0.25), 0, wormPositions, 2*i, 2);
+		double[] foodPositions = new double[2*nbFood];
+		for(int i = 0; i < nbFood; i++)
+			System.arraycopy(getNewPosition(Food.getRadius()), 0, foodPositions, 2*i, 2);
+		Team[] teamArray = teams.toArray(new Team[teams.size()]);
+		int[] teamSizes = new int[teamArray.length];
+		for(int i = 0; i < teamArray.length; i++)
+			teamSizes[i] = teamArray[i].getSizeOfTeam();
+		for(int i = 0; i < nbWorms; i++){
+			Worm newWorm = new Worm(wormPositions[2*i], wormPositions[2*i + 1], 0, 0.25, 
+					"Not Yet Named " + (worms.size() + 1));
+			this.addAsWorm(newWorm);
+			if(teamArray.length > 1){
+				int smallest = 0;
+				for(int team = 1; team < teamArray.length; team++){
+					if(teamSizes[team] < teamSizes[smallest])
+						smallest = team;
+				}
+				teamArray[smallest].addAsTeamWorm(newWorm);
+				teamSizes[smallest]++;
+			}
+			Program program = (programs != null && i < programs.size()) ? programs.get(i) : null;
+			if(program != null)
+				program.setWorm(newWorm);
+		}
+		for(int i = 0; i < nbFood; i++)
+			this.addAsFood(new Food(foodPositions[2*i], foodPositions[2*i + 1]));
+	}
 	
 	/**
 	 * add the given worm to the set of worms attached to this world.
@@ -1001,7 +2158,12 @@ public class World {
 		if(worm.getWorld() != null)
 			throw new IllegalArgumentException();
 		this.worms.add(worm);
+		this.wormIndex.add(worm);
+		this.linkInTurn(worm);
+		this.wormView.modified();
+		this.anyView.modified();
 		worm.setWorld(this);
+		fireEvent(WorldEvent.WORM_ADDED, worm);
 	}
 	
 	/**
@@ -1023,7 +2185,12 @@ public class World {
 		if(!hasAsWorm(worm))
 			throw new IllegalArgumentException();
 		this.worms.remove(worm);
+		this.wormIndex.remove(worm);
+		this.unlinkFromTurn(worm);
+		this.wormView.modified();
+		this.anyView.modified();
 		worm.setWorld(null);
+		fireEvent(WorldEvent.WORM_REMOVED, worm);
 	}
 	
 	/**
@@ -1038,7 +2205,121 @@ public class World {
 	 * 			| for each worm in worms:
 	 * 			| 	(worm.getWorld() == this)
 	 */
-	private LinkedHashSet<Worm> worms = new LinkedHashSet<Worm>();
+	private final LinkedHashSet<Worm> worms = new LinkedHashSet<Worm>();
+	
+	/**
+	 * A live view on the worms attached to this world.
+	 */
+	private final SnapshotView<Worm> wormView = new SnapshotView<Worm>(worms);
+	
+	/**
+	 * A live view on the food rations and worms attached to this world.
+	 */
+	private final SnapshotView<Entity> anyView = new SnapshotView<Entity>(foodRations, worms);
+	
+	/**
+	 * A spatial hash over the worms attached to this world.
+	 * 
+	 * @invar	| wormIndex contains exactly the worms in worms
+	 */
+	private final SpatialHash<Worm> wormIndex = new SpatialHash<Worm>(ENTITY_CELL_SIZE){
+		@Override
+		double getRadius(Worm worm){
+			return worm.getRadius();
+		}
+	};
+	
+	/**
+	 * Updates the spatial hashes of this world after the given entity of this world
+	 * has moved away from the given old position or has changed in size.
+	 * 
+	 * @param 	entity
+	 * 			The entity that has changed.
+	 * @param 	oldX
+	 * 			The x-coordinate of the entity before the change.
+	 * @param 	oldY
+	 * 			The y-coordinate of the entity before the change.
+	 */
+	void positionChanged(Position entity, double oldX, double oldY){
+		if(entity instanceof Worm && hasAsWorm((Worm)entity)){
+			wormIndex.move((Worm)entity, oldX, oldY);
+			fireEvent(WorldEvent.WORM_MOVED, entity);
+		}
+		else if(entity instanceof Food && hasAsFood((Food)entity))
+			foodIndex.move((Food)entity, oldX, oldY);
+		else if(entity == getProjectile())
+			fireEvent(WorldEvent.PROJECTILE_MOVED, entity);
+	}
+	
+	/**
+	 * Adds the given listener to the listeners of this world.
+	 * 	A listener that is added more than once, is called more than once for each change.
+	 * 
+	 * @param 	listener
+	 * 			The listener to add.
+	 * @post	| the given listener is called for every change of this world from now on
+	 * @throws	IllegalArgumentException("The given listener is invalid.")
+	 * 			| listener == null
+	 */
+	public void addListener(WorldListener listener) 
+			throws IllegalArgumentException{
+		if(listener == null)
+			throw new IllegalArgumentException("The given listener is invalid.");
+		WorldListener[] newListeners = new WorldListener[listeners.length + 1];
+		System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+		newListeners[listeners.length] = listener;
+		this.listeners = newListeners;
+	}
+	
+	/**
+	 * Removes the given listener from the listeners of this world, once.
+	 * 
+	 * @param 	listener
+	 * 			The listener to remove.
+	 * @post	| if the given listener was added only once,
+	 * 			|	it is no longer called for the changes of this world
+	 */
+	public void removeListener(WorldListener listener){
+		for(int index = 0; index < listeners.length; index++){
+			if(listeners[index] == listener){
+				WorldListener[] newListeners = new WorldListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, newListeners, 0, index);
+				System.arraycopy(listeners, index + 1, newListeners, index, listeners.length - index - 1);
+				this.listeners = newListeners;
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Reports the given change of this world to all its listeners.
+	 * 	The listeners are called in the order in which they were added. The array of
+	 * 	listeners is replaced, never changed, when listeners are added or removed, 
+	 * 	so that reporting a change allocates nothing.
+	 * 
+	 * @param 	event
+	 * 			The kind of change.
+	 * @param 	subject
+	 * 			The entity the change is about, or null.
+	 */
+	void fireEvent(WorldEvent event, Object subject){
+		WorldListener[] current = this.listeners;
+		for(int index = 0; index < current.length; index++)
+			current[index].worldChanged(this, event, subject);
+	}
+	
+	/**
+	 * Variable referencing the listeners of this world.
+	 */
+	private volatile WorldListener[] listeners = new WorldListener[0];
+	
+	/**
+	 * Final class variable registering the length of the sides of the cells
+	 * of the spatial hashes over the worms and food rations of a world (in meter).
+	 * 	It is a few times the radius of a typical worm, so that most queries only
+	 * 	visit a handful of cells.
+	 */
+	private static final double ENTITY_CELL_SIZE = 1.0;
 
 	
 	//WORM
@@ -1091,7 +2372,12 @@ public class World {
 		assert(projectile != null || getProjectile() == null || !(getProjectile().getWorld() == this));
 		if(!canHaveAsProjectile(projectile))
 			throw new IllegalArgumentException("Invalid projectile");
+		Projectile old = this.projectile;
 		this.projectile = projectile;
+		if(old != null && old != projectile)
+			fireEvent(WorldEvent.PROJECTILE_REMOVED, old);
+		if(projectile != null && projectile != old)
+			fireEvent(WorldEvent.PROJECTILE_SPAWNED, projectile);
 	}
 	
 	private Projectile projectile = null;
@@ -0,0 +1,79 @@
+package worms.model;
+
+/**
+ * An enumeration of the kinds of changes a world reports to its listeners.
+ * 	Each event comes with the entity it is about, its subject, as documented
+ * 	for each kind of event.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public enum WorldEvent {
+	
+	/**
+	 * A worm, the subject, has been added to the world.
+	 */
+	WORM_ADDED,
+	
+	/**
+	 * A worm, the subject, has left the world, usually because it died.
+	 */
+	WORM_REMOVED,
+	
+	/**
+	 * A worm, the subject, has moved or has changed in size.
+	 */
+	WORM_MOVED,
+	
+	/**
+	 * A worm, the subject, has turned.
+	 */
+	WORM_TURNED,
+	
+	/**
+	 * The hit points of a worm, the subject, have changed, through damage
+	 * or through the healing at the start of its turn.
+	 */
+	WORM_DAMAGED,
+	
+	/**
+	 * Another property of a worm, the subject, has changed: its name, its team,
+	 * its action points or its selected weapon.
+	 */
+	WORM_CHANGED,
+	
+	/**
+	 * A food ration, the subject, has been added to the world.
+	 */
+	FOOD_ADDED,
+	
+	/**
+	 * A food ration, the subject, has left the world, usually because it was eaten.
+	 */
+	FOOD_EATEN,
+	
+	/**
+	 * A projectile, the subject, has become the active projectile of the world.
+	 */
+	PROJECTILE_SPAWNED,
+	
+	/**
+	 * The active projectile of the world, the subject, has moved.
+	 */
+	PROJECTILE_MOVED,
+	
+	/**
+	 * The active projectile of the world, the subject, has been removed.
+	 */
+	PROJECTILE_REMOVED,
+	
+	/**
+	 * The turn of a worm, the subject, has started.
+	 */
+	TURN_STARTED,
+	
+	/**
+	 * The terrain of the world has changed. There is no subject.
+	 */
+	TERRAIN_CHANGED;
+}
@@ -0,0 +1,26 @@
+package worms.model;
+
+/**
+ * An interface of listeners to the changes of a world.
+ * 	A world reports each change with a single call, without creating an object
+ * 	for it, so that listening costs little even for frequent changes.
+ * 	A listener is called while the change is being made; it should not change
+ * 	the world itself.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public interface WorldListener {
+
+	/**
+	 * React to the given change of the given world.
+	 *
+	 * @param 	world
+	 * 			The world that has changed.
+	 * @param 	event
+	 * 			The kind of change.
+	 * @param 	subject
+	 * 			The entity the change is about, or null if there is none.
+	 */
+	void worldChanged(World world, WorldEvent event, Object subject);
+}
@@ -2,6 +2,12 @@ package worms.model;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Random;
 
 import org.junit.Before;
@@ -58,7 +64,7 @@ public class WorldTest {
 		World myWorld = new World(10,15,passableMap, random);
 		assertTrue(myWorld.getWidth() == 10);
 		assertTrue(myWorld.getHeight() == 15);
-		assertTrue(myWorld.getPassableMap().equals(passableMap));
+		assertTrue(Arrays.deepEquals(myWorld.getPassableMap(), passableMap));
 		assertTrue(myWorld.getRandom().equals(random));
 	}
 	@Test(expected = IllegalArgumentException.class)
@@ -177,7 +183,7 @@ public class WorldTest {
 								   {false,false,false,false,false,false}};
 		
 		World testWorld = new World(6,6,passableMap,random);
-		assertTrue(testWorld.getPassableMap().equals(passableMap));
+		assertTrue(Arrays.deepEquals(testWorld.getPassableMap(), passableMap));
 	}
 	
 	@Test
@@ -215,6 +221,475 @@ public class WorldTest {
 		assertTrue(testWorld1.isAdjacent(2,2,1));
 	}
 	
+	@Test
+	public void getClearance_legalCase(){
+		assertEquals(2 - Math.sqrt(2), testWorld1.getClearance(3, 3), 1e-6);
+		assertTrue(!testWorld1.isImpassable(3, 3, testWorld1.getClearance(3, 3)));
+	}
+	
+	@Test
+	public void getClearance_impassableCell(){
+		assertTrue(testWorld1.getClearance(0.5, 0.5) < 0);
+	}
+	
+	@Test
+	public void getOccupancy_passableRegion(){
+		assertEquals(Occupancy.PASSABLE, testWorld1.getOccupancy(1.5, 1.5, 4.5, 4.5));
+	}
+	
+	@Test
+	public void getOccupancy_impassableRegion(){
+		assertEquals(Occupancy.IMPASSABLE, testWorld1.getOccupancy(0.1, 0.1, 0.9, 5.9));
+	}
+	
+	@Test
+	public void getOccupancy_mixedRegion(){
+		assertEquals(Occupancy.MIXED, testWorld1.getOccupancy(0, 0, 6, 6));
+	}
+	
+	@Test
+	public void castRay_hitsWall(){
+		assertEquals(2, testWorld1.castRay(3, 3, 0, 10), 1E-9);
+		assertEquals(1.5, testWorld1.castRay(3, 3.5, Math.PI/2, 10), 1E-9);
+	}
+	
+	@Test
+	public void sweepTrajectory_hitsFloor(){
+		Trajectory trajectory = new Trajectory(3, 2, 0, 0, 10);
+		assertEquals(Math.sqrt(0.1), testWorld1.sweepTrajectory(trajectory, 0, 0.5), 1E-3);
+		trajectory = new Trajectory(3, 2, 1, 3, 10);
+		double time = testWorld1.sweepTrajectory(trajectory, 0, 0.5);
+		assertFalse(testWorld1.isImpassable(trajectory.getX(time), trajectory.getY(time), 0.5));
+		assertTrue(testWorld1.isAdjacent(trajectory.getX(time), trajectory.getY(time), 0.5));
+	}
+	
+	@Test
+	public void sweepTrajectory_impassableStart(){
+		assertEquals(0.2, testWorld1.sweepTrajectory(new Trajectory(0.5, 3, 0, 0, 10), 0.2, 0.5), 1E-9);
+	}
+	
+	@Test
+	public void getJumpTime_landsLikeSteppingSolver(){
+		boolean[][] unevenMap = new boolean[20][20];
+		for(int row = 0; row < 20; row++)
+			for(int column = 0; column < 20; column++)
+				unevenMap[row][column] = row < 16 && column < 18 && !(row > 12 && column % 5 == 2) &&
+						!(row == 5 && column > 10);
+		World[] worlds = {testWorld1, new World(10, 10, unevenMap, new Random(0))};
+		int landings = 0;
+		for(World world : worlds){
+			for(double x = 1; x < world.getWidth() - 1; x += 0.7){
+				for(int i = 1; i < 6; i++){
+					Worm worm = new Worm(x, 2.5, i*Math.PI/6, 0.4, "Test");
+					if(world.isImpassable(x, 2.5, 0.4))
+						continue;
+					world.addAsWorm(worm);
+					if(worm.canFall())
+						worm.fall();
+					double[] expected = steppingJumpLanding(world, worm);
+					if(expected == null)
+						assertEquals(ActionStatus.BLOCKED, worm.checkJump().getStatus());
+					else{
+						double time = worm.getJumpTime();
+						assertEquals(expected[0], worm.jumpX(time), 1E-9);
+						assertEquals(expected[1], worm.jumpY(time), 1E-9);
+						landings++;
+					}
+					world.removeAsWorm(worm);
+				}
+			}
+		}
+		assertTrue(landings > 20);
+	}
+	
+	/**
+	 * Return the landing point of a jump of the given worm in the given world, found by
+	 * walking the whole jump in fixed steps like the jump solver used to,
+	 * or null if the worm cannot jump.
+	 */
+	private static double[] steppingJumpLanding(World world, Worm worm){
+		double radius = worm.getRadius();
+		double x = worm.getX(), y = worm.getY();
+		Trajectory trajectory = worm.getJumpTrajectory();
+		double temp = (1/4.0)/Math.hypot(trajectory.getVelocityX(), trajectory.getVelocityY());
+		double time = 0.0;
+		while(world.isAdjacent(x, y, radius) && time < (1/2.0)){
+			time = time + temp;
+			x = worm.jumpX(time);
+			y = worm.jumpY(time);
+		}
+		if(world.isImpassable(x, y, radius))
+			return null;
+		while(!world.isAdjacent(x, y, radius) && temp >= (1/8100.0)){
+			while(!world.isImpassable(x, y, radius)){
+				time = time + temp;
+				x = worm.jumpX(time);
+				y = worm.jumpY(time);
+			}
+			temp = temp / 3.0;
+			while(world.isImpassable(x, y, radius)){
+				time = time - temp;
+				x = worm.jumpX(time);
+				y = worm.jumpY(time);
+			}
+			temp = temp / 3.0;
+		}
+		if(!world.isAdjacent(x, y, radius))
+			return new double[] {worm.jumpX(time < Math.PI ? Math.PI : 2*Math.PI),
+					worm.jumpY(time < Math.PI ? Math.PI : 2*Math.PI)};
+		if(Math.hypot(x - worm.getX(), y - worm.getY()) < radius)
+			return null;
+		return new double[] {x, y};
+	}
+	
+	@Test
+	public void firstContact_hitsWorm(){
+		Worm shooter = new Worm(2, 3, 0, 0.5, "Shooter");
+		Worm target = new Worm(4, 3, 0, 0.5, "Target");
+		testWorld1.addAsWorm(shooter);
+		testWorld1.addAsWorm(target);
+		Contact contact = testWorld1.firstContact(new Trajectory(2, 3, 10, 0, 1E-9), 0, 0.25, shooter);
+		assertSame(target, contact.getWorm());
+		assertEquals(0.125, contact.getTime(), 1E-3);
+	}
+
+	@Test
+	public void firstContact_hitsTerrain(){
+		Worm shooter = new Worm(3, 3, 0, 0.5, "Shooter");
+		testWorld1.addAsWorm(shooter);
+		Contact contact = testWorld1.firstContact(new Trajectory(3, 3, 0, 0, 10), 0, 0.5, shooter);
+		assertTrue(contact.isTerrainContact());
+		assertEquals(Math.sqrt(0.3), contact.getTime(), 1E-3);
+	}
+
+	@Test
+	public void getNearestWorms_legalCase(){
+		Worm near = new Worm(2, 2, 0, 0.5, "Near");
+		Worm middle = new Worm(4, 2, 0, 0.5, "Middle");
+		Worm far = new Worm(4, 4.5, 0, 0.25, "Far");
+		testWorld1.addAsWorm(far);
+		testWorld1.addAsWorm(middle);
+		testWorld1.addAsWorm(near);
+		assertEquals(Arrays.asList(near, middle), testWorld1.getNearestWorms(1.5, 1.5, 2));
+		assertEquals(Arrays.asList(near, middle, far), testWorld1.getNearestWorms(1.5, 1.5, 5));
+		assertSame(middle, testWorld1.getNearestWorm(1.5, 1.5, 10, near));
+		assertNull(testWorld1.getNearestWorm(1.5, 1.5, 1, near));
+	}
+
+	@Test
+	public void getNearestWorm_likeBruteForce(){
+		World world = new World(200, 200, new boolean[50][50], new Random(3));
+		Random random = new Random(12);
+		List<Worm> worms = new ArrayList<Worm>();
+		for(int i = 0; i < 60; i++){
+			Worm worm = new Worm(random.nextDouble()*200, random.nextDouble()*200, 0, 0.25 + random.nextDouble(), "Worm");
+			world.addAsWorm(worm);
+			worms.add(worm);
+		}
+		for(int i = 0; i < 20; i++)
+			worms.get(i).setPosition(random.nextDouble()*20, random.nextDouble()*20);
+		for(int i = 20; i < 40; i++)
+			world.removeAsWorm(worms.get(i));
+		List<Worm> remaining = new ArrayList<Worm>(worms.subList(0, 20));
+		remaining.addAll(worms.subList(40, 60));
+		for(int query = 0; query < 200; query++){
+			double x = random.nextDouble()*200, y = random.nextDouble()*200;
+			double nearest = Double.POSITIVE_INFINITY;
+			for(Worm worm: remaining)
+				nearest = Math.min(nearest, Math.hypot(worm.getX() - x, worm.getY() - y) - worm.getRadius());
+			Worm found = world.getNearestWorm(x, y, Double.POSITIVE_INFINITY, null);
+			assertEquals(nearest, Math.hypot(found.getX() - x, found.getY() - y) - found.getRadius(), 0);
+			assertSame(found, world.getNearestWorms(x, y, 3).get(0));
+		}
+		for(Worm worm: remaining)
+			world.removeAsWorm(worm);
+		assertNull(world.getNearestWorm(100, 100, Double.POSITIVE_INFINITY, null));
+	}
+
+	@Test
+	public void getWormsWithin_followsMoves(){
+		Worm worm = new Worm(2, 2, 0, 0.5, "Mover");
+		testWorld1.addAsWorm(worm);
+		assertEquals(1, testWorld1.getWormsWithin(2.5, 2, 0.1).size());
+		worm.setPosition(4, 4);
+		assertTrue(testWorld1.getWormsWithin(2.5, 2, 0.1).isEmpty());
+		assertSame(worm, testWorld1.hitAnyWorm(4, 3.5, 0.25));
+		testWorld1.removeAsWorm(worm);
+		assertNull(testWorld1.hitAnyWorm(4, 3.5, 0.25));
+	}
+
+	@Test
+	public void getWorms_liveView(){
+		Collection<Worm> worms = testWorld1.getWorms();
+		Worm first = new Worm(2, 2, 0, 0.5, "First");
+		Worm second = new Worm(4, 4, 0, 0.5, "Second");
+		testWorld1.addAsWorm(first);
+		testWorld1.addAsWorm(second);
+		assertEquals(2, worms.size());
+		assertEquals(2, testWorld1.getAny().size());
+		int count = 0;
+		for(Worm worm: worms){
+			testWorld1.removeAsWorm(worm);
+			count++;
+		}
+		assertEquals(2, count);
+		assertTrue(worms.isEmpty());
+		assertTrue(testWorld1.getAny().isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getWorms_unmodifiable(){
+		testWorld1.getWorms().add(new Worm(2, 2, 0, 0.5, "Intruder"));
+	}
+
+	@Test
+	public void startNextTurn_roundRobin(){
+		Worm first = new Worm(2, 2, 0, 0.5, "First");
+		Worm second = new Worm(4, 2, 0, 0.5, "Second");
+		Worm third = new Worm(3, 4, 0, 0.5, "Third");
+		testWorld1.addAsWorm(first);
+		testWorld1.addAsWorm(second);
+		testWorld1.addAsWorm(third);
+		testWorld1.startNextTurn();
+		assertSame(first, testWorld1.getCurrentWorm());
+		testWorld1.startNextTurn();
+		assertSame(second, testWorld1.getCurrentWorm());
+		testWorld1.removeAsWorm(second);
+		testWorld1.startNextTurn();
+		assertSame(third, testWorld1.getCurrentWorm());
+		testWorld1.startNextTurn();
+		assertSame(first, testWorld1.getCurrentWorm());
+	}
+
+	@Test
+	public void startNextTurn_teamPolicy(){
+		Team teamA = new Team("Alpha");
+		Team teamB = new Team("Bravo");
+		testWorld1.addAsTeam(teamA);
+		testWorld1.addAsTeam(teamB);
+		Worm a1 = new Worm(2, 2, 0, 0.5, "Aone");
+		Worm a2 = new Worm(4, 2, 0, 0.5, "Atwo");
+		Worm b1 = new Worm(2, 4, 0, 0.5, "Bone");
+		Worm b2 = new Worm(4, 4, 0, 0.5, "Btwo");
+		for(Worm worm: Arrays.asList(a1, a2, b1, b2))
+			testWorld1.addAsWorm(worm);
+		teamA.addAsTeamWorm(a1);
+		teamA.addAsTeamWorm(a2);
+		teamB.addAsTeamWorm(b1);
+		teamB.addAsTeamWorm(b2);
+		testWorld1.setTurnPolicy(new TeamTurnPolicy());
+		Worm[] expected = {a1, b1, a2, b2, a1};
+		for(Worm worm: expected){
+			testWorld1.startNextTurn();
+			assertSame(worm, testWorld1.getCurrentWorm());
+		}
+	}
+
+	@Test
+	public void addListener_receivesEvents(){
+		final List<WorldEvent> events = new ArrayList<WorldEvent>();
+		final List<Object> subjects = new ArrayList<Object>();
+		WorldListener listener = new WorldListener(){
+			@Override
+			public void worldChanged(World world, WorldEvent event, Object subject){
+				events.add(event);
+				subjects.add(subject);
+			}
+		};
+		testWorld1.addListener(listener);
+		Worm worm = new Worm(2, 2, 0, 0.5, "Listened");
+		testWorld1.addAsWorm(worm);
+		worm.setPosition(3, 3);
+		Food food = new Food(4, 4);
+		testWorld1.addAsFood(food);
+		food.deactivate();
+		testWorld1.removeListener(listener);
+		worm.setPosition(2, 2);
+		assertEquals(Arrays.asList(WorldEvent.WORM_ADDED, WorldEvent.WORM_MOVED,
+				WorldEvent.FOOD_ADDED, WorldEvent.FOOD_EATEN), events);
+		assertEquals(Arrays.asList(worm, worm, food, food), subjects);
+	}
+
+	@Test
+	public void addNewFood_adjacentAndRepeatable(){
+		boolean[][] passableMap = testWorld1.getPassableMap();
+		World first = new World(6, 6, passableMap, new Random(7));
+		World second = new World(6, 6, passableMap, new Random(7));
+		for(int i = 0; i < 5; i++){
+			first.addNewFood();
+			second.addNewFood();
+		}
+		List<Food> firstFood = new ArrayList<Food>(first.getFood());
+		List<Food> secondFood = new ArrayList<Food>(second.getFood());
+		double firstSum = 0, secondSum = 0;
+		for(Food food: firstFood){
+			assertTrue(first.isAdjacent(food.getX(), food.getY(), Food.getRadius()));
+			firstSum += food.getX()*31 + food.getY();
+		}
+		for(Food food: secondFood)
+			secondSum += food.getX()*31 + food.getY();
+		assertEquals(firstSum, secondSum, 1E-9);
+	}
+	
+	@Test
+	public void addNewWorm_adjacentAfterCrater(){
+		testWorld1.makeCrater(0.5, 3, 1);
+		for(int i = 0; i < 5; i++)
+			testWorld1.addNewWorm(null);
+		for(Worm worm: testWorld1.getWorms())
+			assertTrue(testWorld1.isAdjacent(worm.getX(), worm.getY(), worm.getRadius()));
+	}
+	
+	@Test
+	public void addNewFood_pagedLikeInMemory() throws IOException{
+		Random random = new Random(3);
+		TerrainGrid grid = new TerrainGrid(60, 80);
+		for(int row = 30; row < 60; row++)
+			for(int column = 0; column < 80; column++)
+				if(random.nextInt(4) > 0)
+					grid.setPassable(row, column, false);
+		File file = File.createTempFile("worms-", ".terrain");
+		try{
+			PagedTerrainGrid.write(grid, file);
+			World inMemory = new World(40, 30, grid.copy(), new Random(11));
+			World paged = new World(40, 30, PagedTerrainGrid.open(file, 2), new Random(11));
+			inMemory.makeCrater(20, 15, 3);
+			paged.makeCrater(20, 15, 3);
+			for(int i = 0; i < 10; i++){
+				inMemory.addNewFood();
+				paged.addNewFood();
+			}
+			double inMemorySum = 0, pagedSum = 0;
+			for(Food food: inMemory.getFood())
+				inMemorySum += food.getX()*31 + food.getY();
+			for(Food food: paged.getFood()){
+				assertTrue(paged.isAdjacent(food.getX(), food.getY(), Food.getRadius()));
+				pagedSum += food.getX()*31 + food.getY();
+			}
+			assertEquals(inMemorySum, pagedSum, 1E-9);
+		}
+		finally{
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void populate_legalCase(){
+		Team teamA = new Team("Alpha");
+		Team teamB = new Team("Bravo");
+		testWorld1.addAsTeam(teamA);
+		testWorld1.addAsTeam(teamB);
+		teamA.addAsTeamWorm(addWorm(new Worm(2, 2, 0, 0.5, "Aone")));
+		testWorld1.populate(5, 4, null);
+		assertEquals(6, testWorld1.getWorms().size());
+		assertEquals(4, testWorld1.getFood().size());
+		assertEquals(3, teamA.getSizeOfTeam());
+		assertEquals(3, teamB.getSizeOfTeam());
+		for(Worm worm: testWorld1.getWorms()){
+			if(worm.getName().startsWith("Not Yet Named"))
+				assertTrue(testWorld1.isAdjacent(worm.getX(), worm.getY(), worm.getRadius()));
+		}
+		for(Food food: testWorld1.getFood())
+			assertTrue(testWorld1.isAdjacent(food.getX(), food.getY(), Food.getRadius()));
+	}
+	
+	@Test
+	public void populate_repeatable(){
+		boolean[][] passableMap = testWorld1.getPassableMap();
+		World first = new World(6, 6, passableMap, new Random(11));
+		World second = new World(6, 6, passableMap, new Random(11));
+		first.populate(20, 10, null);
+		second.populate(20, 10, null);
+		List<Worm> firstWorms = new ArrayList<Worm>(first.getWorms());
+		List<Worm> secondWorms = new ArrayList<Worm>(second.getWorms());
+		for(int i = 0; i < firstWorms.size(); i++){
+			assertEquals(firstWorms.get(i).getX(), secondWorms.get(i).getX(), 0);
+			assertEquals(firstWorms.get(i).getY(), secondWorms.get(i).getY(), 0);
+			assertEquals(firstWorms.get(i).getName(), secondWorms.get(i).getName());
+		}
+	}
+	
+	@Test
+	public void fork_isolated(){
+		Worm worm = addWorm(new Worm(2, 1.5, 0, 0.5, "Worm"));
+		addWorm(new Worm(4, 1.5, 0, 0.5, "Other"));
+		testWorld1.startGame();
+		World fork = testWorld1.fork();
+		assertEquals(2, fork.getWorms().size());
+		Worm copy = fork.getCurrentWorm();
+		assertNotSame(worm, copy);
+		assertEquals(worm.getName(), copy.getName());
+		assertEquals(worm.getX(), copy.getX(), 0);
+		assertTrue(fork.isStarted());
+		fork.makeCrater(5.5, 3, 0.6);
+		assertFalse(Arrays.deepEquals(testWorld1.getPassableMap(), fork.getPassableMap()));
+		assertTrue(testWorld1.isImpassable(5.5, 3, 0.1));
+		fork.removeAsWorm(copy);
+		assertTrue(testWorld1.hasAsWorm(worm));
+		assertEquals(testWorld1.getRandom().nextLong(), fork.getRandom().nextLong());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void populate_negativeNumber(){
+		testWorld1.populate(-1, 0, null);
+	}
+	
+	/**
+	 * Add the given worm to the test world and return it.
+	 */
+	private Worm addWorm(Worm worm){
+		testWorld1.addAsWorm(worm);
+		return worm;
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void addNewFood_noAdjacentPosition(){
+		boolean[][] passableMap = {{true,true,true},{true,true,true},{true,true,true}};
+		new World(3, 3, passableMap, new Random()).addNewFood();
+	}
+	
+	@Test
+	public void sweepCircle_hitsWall(){
+		assertEquals(1.5, testWorld1.sweepCircle(3, 3, 1, 0, 0.5, 10), 1E-6);
+		assertEquals(1.5, testWorld1.sweepCircle(3, 3, 0, -2, 0.5, 10), 1E-6);
+	}
+	
+	@Test
+	public void sweepCircle_maxDistance(){
+		assertEquals(1, testWorld1.sweepCircle(3, 3, -1, 0, 0.5, 1), 1E-9);
+	}
+	
+	@Test
+	public void sweepCircle_impassableStart(){
+		assertEquals(0, testWorld1.sweepCircle(0.5, 0.5, 1, 0, 0.25, 1), 0);
+	}
+	
+	@Test
+	public void makeCrater_clearsTerrain(){
+		testWorld1.makeCrater(3, 0.5, 0.6);
+		assertEquals(1, testWorld1.getTerrainEpoch());
+		assertTrue(testWorld1.getTerrain().isPassable(5, 2));
+		assertTrue(testWorld1.getTerrain().isPassable(5, 3));
+		assertFalse(testWorld1.getTerrain().isPassable(5, 1));
+		assertFalse(testWorld1.getTerrain().isPassable(4, 0));
+		assertFalse(testWorld1.isImpassable(3, 0.5, 0.45));
+		assertEquals(Occupancy.PASSABLE, testWorld1.getOccupancy(2.1, 0.1, 3.9, 4.9));
+	}
+	
+	@Test
+	public void makeCrater_wormFalls(){
+		Worm worm = new Worm(3, 1.5, 0, 0.5, "Test");
+		testWorld1.addAsWorm(worm);
+		assertFalse(worm.canFall());
+		testWorld1.makeCrater(3, 0.5, 1.2);
+		assertFalse(worm.isAlive());
+	}
+	
+	@Test
+	public void castRay_maxDistance(){
+		assertEquals(1, testWorld1.castRay(3, 3, Math.PI, 1), 1E-9);
+	}
+	
 	@Test
 	public void canFall_LegalCase(){
 		assertTrue(testWorld1.canFall(2, 2, 0.25));
@@ -230,6 +705,153 @@ public class WorldTest {
 		assertTrue(!testWorld1.canFall(2, 2, 1));
 	}
 	
+	@Test
+	public void getFreeFallHeight_keepsFalling(){
+		boolean[][] passableMap = new boolean[40][10];
+		for(int row = 0; row < 40; row++)
+			Arrays.fill(passableMap[row], row < 35);
+		World world = new World(10, 40, passableMap, new Random(7));
+		double freeFall = world.getFreeFallHeight(5, 30, 0.5);
+		assertTrue(freeFall < 30 && freeFall > 5);
+		for(double y = freeFall; y <= 30; y += 0.01)
+			assertTrue(world.canFall(5, y, 0.5));
+		world.makeCrater(5, 4, 2);
+		assertTrue(world.getFreeFallHeight(5, 30, 0.5) < freeFall);
+		Worm worm = new Worm(5, 30, 0, 0.5, "Test");
+		world.addAsWorm(worm);
+		worm.fall();
+		assertTrue(world.isAdjacent(worm.getX(), worm.getY(), 0.5));
+		assertTrue(worm.getY() < freeFall);
+	}
+	
+	@Test
+	public void getJumpSolution_cachedUntilChange(){
+		Worm worm = new Worm(2, 1.5, Math.PI/3, 0.5, "Test");
+		testWorld1.addAsWorm(worm);
+		JumpSolution solution = worm.getJumpSolution();
+		assertSame(solution, worm.getJumpSolution());
+		assertTrue(worm.getJumpTime() == solution.getTime());
+		assertTrue(solution.getLandingX() == worm.jumpX(solution.getTime()));
+		assertTrue(solution.getArcY(solution.getNbArcPoints() - 1) == worm.jumpY(solution.getTime()));
+		double[] arc = new double[2*solution.getNbArcPoints()];
+		double[] sampled = new double[arc.length];
+		solution.copyArc(arc);
+		worm.sampleTrajectory(sampled, solution.getNbArcPoints(), solution.getTime());
+		assertTrue(Arrays.equals(sampled, arc));
+		worm.checkJump();
+		assertSame(solution, worm.getJumpSolution());
+		long version = worm.getStateVersion();
+		worm.turn(0.1);
+		assertTrue(worm.getStateVersion() > version);
+		JumpSolution turned = worm.getJumpSolution();
+		assertNotSame(solution, turned);
+		testWorld1.makeCrater(5.5, 3, 0.6);
+		assertNotSame(turned, worm.getJumpSolution());
+	}
+	
+	@Test
+	public void move_unevenGroundLikeBefore(){
+		boolean[][] unevenMap = new boolean[50][50];
+		for(int row = 0; row < 50; row++)
+			for(int column = 0; column < 50; column++)
+				unevenMap[row][column] = row < 38 + 3*Math.sin(column/4.0) && 
+						!(row > 30 && column % 7 == 3 && row % 3 == 0);
+		World world = new World(10, 10, unevenMap, new Random(0));
+		int moves = 0;
+		for(double x = 1; x < 9; x += 0.45){
+			for(int i = 0; i < 4; i++){
+				if(world.isImpassable(x, 6, 0.3))
+					continue;
+				Worm worm = new Worm(x, 6, i*Math.PI/2 + 0.3, 0.3, "Test");
+				world.addAsWorm(worm);
+				if(worm.canFall())
+					worm.fall();
+				double[] expected = steppingMoveTarget(world, worm);
+				if(expected != null){
+					worm.move();
+					assertTrue(worm.getX() == expected[0] && worm.getY() == expected[1]);
+					moves++;
+				}
+				else
+					assertFalse(worm.canMove());
+				world.removeAsWorm(worm);
+			}
+		}
+		assertTrue(moves > 20);
+	}
+	
+	/**
+	 * Return the position of the given worm in the given world after a move, found by
+	 * trying every possible distance in every possible direction like moves used to,
+	 * or null if the worm cannot move.
+	 */
+	private static double[] steppingMoveTarget(World world, Worm worm){
+		double bestDirection = -1, bestDistance = -1;
+		for(double direction = worm.getDirection() - 0.7875; direction <= worm.getDirection() + 0.7875;
+				direction += 0.0175){
+			double distance = -2;
+			if(Math.abs(Math.cos(direction)) + Math.abs(Math.sin(direction)*4) <= worm.getCurrentActionPoints()){
+				for(double testDistance = worm.getRadius(); testDistance >= 0.1 && distance == -2; 
+						testDistance -= 0.02){
+					if(!world.isImpassable(worm.getX() + Math.cos(direction)*testDistance,
+							worm.getY() + Math.sin(direction)*testDistance, worm.getRadius()))
+						distance = testDistance;
+				}
+			}
+			if(distance > bestDistance){
+				bestDistance = distance;
+				bestDirection = direction;
+			}
+			if(bestDistance == distance && Math.abs(worm.getDirection() - bestDirection) 
+					> Math.abs(worm.getDirection() - direction))
+				bestDirection = direction;
+		}
+		if(bestDistance == -1)
+			return null;
+		return new double[] {worm.getX() + Math.cos(bestDirection)*bestDistance,
+				worm.getY() + Math.sin(bestDirection)*bestDistance};
+	}
+	
+	@Test
+	public void getMovePlan_sharedByCanMoveAndMove(){
+		Worm worm = new Worm(2, 1.5, Math.PI/3, 0.5, "Test");
+		testWorld1.addAsWorm(worm);
+		MovePlan plan = worm.getMovePlan();
+		assertNotNull(plan);
+		assertSame(plan, worm.getMovePlan());
+		assertTrue(worm.canMove());
+		assertEquals(plan.getActionPointCost(), worm.checkMove().getValue(), 0);
+		int actionPoints = worm.getCurrentActionPoints();
+		worm.move();
+		assertTrue(worm.getX() == plan.getTargetX() && worm.getY() == plan.getTargetY());
+		assertEquals(actionPoints - plan.getActionPointCost(), worm.getCurrentActionPoints());
+		assertNotSame(plan, worm.getMovePlan());
+	}
+	
+	@Test
+	public void checkJump_statuses(){
+		Worm worm = new Worm(2, 1.5, Math.PI/3, 0.5, "Test");
+		assertEquals(ActionStatus.NO_WORLD, worm.checkJump().getStatus());
+		testWorld1.addAsWorm(worm);
+		Feasibility jump = worm.checkJump();
+		assertTrue(jump.isFeasible());
+		assertTrue(jump.getValue() == worm.getJumpTime());
+		worm.turn(Math.PI);
+		assertEquals(ActionStatus.INVALID_DIRECTION, worm.checkJump().getStatus());
+		assertTrue(Double.isNaN(worm.checkJump().getValue()));
+	}
+	
+	@Test
+	public void checkShoot_statuses(){
+		Worm worm = new Worm(2, 1.5, Math.PI/3, 0.5, "Test");
+		testWorld1.addAsWorm(worm);
+		assertEquals(ActionStatus.NO_WEAPON, worm.getWeapon().checkShoot().getStatus());
+		worm.getWeapon().selectNextWeapon();
+		Feasibility shot = worm.getWeapon().checkShoot();
+		assertTrue(shot.isFeasible());
+		assertEquals(worm.getWeapon().getCurrentWeaponType().getActionPointCost(), shot.getValue(), 0);
+	}
+	
 	@Test
 	public void hasAsTeam_legalCase(){
 		Team team = new Team("Pieter");
@@ -72,6 +72,32 @@ public class Worm extends WormPosition{
 		setName(name);
 	}
 
+	/**
+	 * Create a new worm with the same state as the given worm.
+	 * 	The new worm does not belong to a world or a team yet, and has no program.
+	 * 
+	 * @param 	original
+	 * 			The worm to copy.
+	 * @post	| new.getX() == original.getX() && new.getY() == original.getY()
+	 * @post	| new.getDirection() == original.getDirection()
+	 * @post	| new.getMinimalRadius() == original.getMinimalRadius()
+	 * 			|	&& new.getRadius() == original.getRadius()
+	 * @post	| new.getName().equals(original.getName())
+	 * @post	| new.getCurrentActionPoints() == original.getCurrentActionPoints()
+	 * 			|	&& new.getCurrentHitPoints() == original.getCurrentHitPoints()
+	 * @post	| new.getWeapon().getCurrentWeapon() == original.getWeapon().getCurrentWeapon()
+	 */
+	Worm(Worm original){
+		super(original.getX(), original.getY());
+		this.minRadius = original.minRadius;
+		setDirection(original.getDirection());
+		setRadius(original.getRadius());
+		setCurrentActionPoints(original.getCurrentActionPoints());
+		setCurrentHitPoints(original.getCurrentHitPoints());
+		setName(original.getName());
+		getWeapon().copyFrom(original.getWeapon());
+	}
+
 
 	
 	
@@ -118,6 +144,7 @@ public class Worm extends WormPosition{
 		assert(world == null || world.hasAsWorm(this));
 		assert(world != null || getWorld() == null || !getWorld().hasAsWorm(this));
 		this.world = world;
+		stateChanged();
 	}
 	
 
@@ -147,6 +174,7 @@ public class Worm extends WormPosition{
 	 * 			| this.setMass()
 	 * 			| this.setMaxActionPoints()
 	 * 			| this.setMaxHitPoints()
+	 * @effect	| notifyMoved(getX(), getY())
 	 * @throws	IllegalRadiusException(radius,this)
 	 * 			The given radius is not a valid radius for this worm.
 	 * 			| !canHaveAsRadius(radius)
@@ -161,6 +189,7 @@ public class Worm extends WormPosition{
 		setMass();
 		setMaxActionPoints();
 		setMaxHitPoints();
+		notifyMoved(getX(), getY());
 	}
 	
 	/**
@@ -238,6 +267,7 @@ public class Worm extends WormPosition{
 		if(minRadius <= 0)
 			throw new IllegalRadiusException(minRadius, this);
 		this.minRadius = minRadius;
+		stateChanged();
 	}
 
 	/**
@@ -336,6 +366,7 @@ public class Worm extends WormPosition{
 	 * 		    | isValidDirection(direction)
 	 * @post	The new direction of this worm is equal to the given direction.
 	 * 			| new.getDirection() == direction
+	 * @effect	| notifyWorld(WorldEvent.WORM_TURNED)
 	 */
 	@Model @Raw
 	private void setDirection(double direction)
@@ -343,6 +374,7 @@ public class Worm extends WormPosition{
 		assert(isValidDirection(direction)):
 			"Precondition: Acceptable direction to set";
 		this.direction = direction;
+		notifyWorld(WorldEvent.WORM_TURNED);
 	}
 
 	/**
@@ -469,6 +501,8 @@ public class Worm extends WormPosition{
 	 * 			|	then new.getCurrentActionPoints() == getCurrentActionPoints()
 	 * 			Else the new amount of current action points is equal to the given amount.
 	 * 			| else (new.getCurrentActionPoints() == newActionPoints)
+	 * @effect	| if(newActionPoints >= 0 && newActionPoints <= getMaxActionPoints())
+	 * 			|	then notifyWorld(WorldEvent.WORM_CHANGED)
 	 * @effect	If the new amount of current action points is zero and the world of this world
 	 * 			doesn't equals null, the worm's turn ends.
 	 * 			| if(newActionPoints == 0 && this.getWorld() != null)
@@ -481,6 +515,7 @@ public class Worm extends WormPosition{
 		if(newActionPoints == 0 && this.getWorld() != null)
 			this.getWorld().startNextTurn();
 		this.currentActionPoints = newActionPoints;
+		notifyWorld(WorldEvent.WORM_CHANGED);
 	}
 
 	/**
@@ -522,6 +557,7 @@ public class Worm extends WormPosition{
 	 * 			The new name for this worm.
 	 * @post	The new name of this worm is equal to the given name.
 	 * 			| new.getName() == name
+	 * @effect	| notifyWorld(WorldEvent.WORM_CHANGED)
 	 * @throws	IllegalNameException(name,this)
 	 * 			This new worm cannot have the given name as its name.
 	 * 			| !canHaveAsName(name)
@@ -533,6 +569,7 @@ public class Worm extends WormPosition{
 		if(! canHaveAsName(name))
 			throw new IllegalNameException(name,this);
 		this.name = name;
+		notifyWorld(WorldEvent.WORM_CHANGED);
 	}
 
 	/**
@@ -594,6 +631,8 @@ public class Worm extends WormPosition{
 	 * 			|	then (new.getCurrentHitPoints() == getCurrentHitPoints())
 	 * 			Else the new amount of current hit points is equal to the given amount.
 	 * 			| else (new.getCurrentHitPoints() == newHitPoints)
+	 * @effect	| if(newHitPoints <= getMaxHitPoints())
+	 * 			|	then notifyWorld(WorldEvent.WORM_DAMAGED)
 	 * @effect	If the new amount of current hit points is smaller than zero or equals 
 	 * 			zero, the worm dies.
 	 * 			| this.wormDeath()
@@ -609,6 +648,7 @@ public class Worm extends WormPosition{
 		if(newHitPoints > getMaxHitPoints())
 			return;
 		this.currentHitPoints = newHitPoints;
+		notifyWorld(WorldEvent.WORM_DAMAGED);
 	}
 	
 	
@@ -716,12 +756,14 @@ public class Worm extends WormPosition{
 	 * 			| 	then !getTeam().hasAsTeamWorm(this)
 	 * @post	The new team of this worm will be equal to the given team.
 	 * 			| new.getTeam() == team
+	 * @effect	| notifyWorld(WorldEvent.WORM_CHANGED)
 	 */
 	@Raw
 	void setTeam(@Raw Team team){
 		assert(team == null || team.hasAsTeamWorm(this));
 		assert(team != null || getTeam() == null || !getTeam().hasAsTeamWorm(this));
 		this.team = team;
+		notifyWorld(WorldEvent.WORM_CHANGED);
 	}
 	
 	/**
@@ -732,6 +774,16 @@ public class Worm extends WormPosition{
 	
 	
 	
+	/**
+	 * Variables referencing the worms before and after this worm in the turn order
+	 * of its world, or null if this worm is not in a turn order.
+	 * 	The turn order is a ring that the world links and unlinks through these variables.
+	 */
+	Worm previousInTurn = null, nextInTurn = null;
+	
+	
+	
+	
 	/**
 	 * Check whether this worm has a program to which it is attached.
 	 * 
@@ -755,6 +807,7 @@ public class Worm extends WormPosition{
 		assert(program == null || program.hasAsWorm(this));
 		assert(program != null || getProgram() == null || !getProgram().hasAsWorm(this));
 		this.program = program;
+		stateChanged();
 	}
 	
 	/**
@@ -795,11 +848,167 @@ public class Worm extends WormPosition{
 			this.getWorld().startNextTurn();
 		this.getWorld().removeAsWorm(this);
 		this.isAlive = false;
+		stateChanged();
 	}
 	
 	/**
 	 * A boolean indicating whether or not the worm is alive.
 	 */
 	private boolean isAlive = true;
+	
+	
+	
+	
+	/**
+	 * Return the state version of this worm: the number of times the state of this worm has changed.
+	 * 	Every mutator of this worm increments the state version, so that results derived
+	 * 	from the state of this worm stay valid for as long as its state version does not change.
+	 */
+	@Basic @Raw
+	public long getStateVersion(){
+		return this.stateVersion;
+	}
+	
+	/**
+	 * Register that the state of this worm has changed.
+	 * 
+	 * @post	| new.getStateVersion() == getStateVersion() + 1
+	 */
+	@Model
+	private void stateChanged(){
+		this.stateVersion++;
+	}
+	
+	/**
+	 * Variable registering the state version of this worm.
+	 */
+	private long stateVersion;
+	
+	/**
+	 * Report a change of the position or the size of this worm to its world, if any.
+	 * 	Every change of the position or the size of this worm passes through here.
+	 * 
+	 * @effect	| stateChanged()
+	 * @effect	| super.notifyMoved(oldX, oldY)
+	 */
+	@Override @Model
+	protected void notifyMoved(double oldX, double oldY){
+		stateChanged();
+		super.notifyMoved(oldX, oldY);
+	}
+	
+	/**
+	 * Report the given change of this worm to the listeners of its world, if any.
+	 * 	Every change of the direction, action points, hit points, name, team and
+	 * 	weapon of this worm passes through here.
+	 * 
+	 * @effect	| stateChanged()
+	 * @effect	| super.notifyWorld(event)
+	 */
+	@Override @Model
+	protected void notifyWorld(WorldEvent event){
+		stateChanged();
+		super.notifyWorld(event);
+	}
+	
+	/**
+	 * Check whether this worm can jump in its current state.
+	 * 	The outcome is computed once and kept until the state version of this worm
+	 * 	or the terrain epoch of its world changes.
+	 * 
+	 * @return	| result.equals(super.checkJump())
+	 */
+	@Override
+	public Feasibility checkJump(){
+		long epoch = (getWorld() == null) ? -1 : getWorld().getTerrainEpoch();
+		if(jumpCheck == null || jumpCheckVersion != stateVersion || jumpCheckEpoch != epoch){
+			jumpCheck = super.checkJump();
+			jumpSolution = null;
+			jumpCheckVersion = stateVersion;
+			jumpCheckEpoch = epoch;
+		}
+		return jumpCheck;
+	}
+	
+	/**
+	 * Return the solution of a jump of this worm in its current state.
+	 * 	The solution is derived from the kept outcome of checkJump the first time it is
+	 * 	asked for, and is dropped together with that outcome. Its arc is what the
+	 * 	sprite of this worm draws, so that the trajectory is not sampled on every frame.
+	 * 
+	 * @return	| result.getTime() == getJumpTime()
+	 * @return	| result.getLandingX() == jumpX(result.getTime()) &&
+	 * 			|	result.getLandingY() == jumpY(result.getTime())
+	 * @return	| let n = 1 + (int)(result.getTime()/JumpSolution.ARC_TIME_STEP) in
+	 * 			|	for each i in 0..n-1:
+	 * 			|		result.getArcX(i) == jumpX((i+1)*result.getTime()/n) &&
+	 * 			|		result.getArcY(i) == jumpY((i+1)*result.getTime()/n)
+	 * @throws	IllegalActionPointsException(0,worm)
+	 * 			| checkJump().getStatus() == ActionStatus.NO_ACTION_POINTS
+	 * @throws 	IllegalDirectionException(worm.getDirection(),worm)
+	 * 			| checkJump().getStatus() == ActionStatus.INVALID_DIRECTION ||
+	 * 			|	checkJump().getStatus() == ActionStatus.BLOCKED
+	 */
+	public JumpSolution getJumpSolution()
+			throws IllegalActionPointsException, IllegalDirectionException
+	{
+		double time = getJumpTime();
+		if(jumpSolution == null){
+			int n = 1 + (int)(time/JumpSolution.ARC_TIME_STEP);
+			double[] arc = new double[2*n];
+			sampleTrajectory(arc, n, time);
+			jumpSolution = new JumpSolution(time, jumpX(time), jumpY(time), arc);
+		}
+		return jumpSolution;
+	}
+	
+	/**
+	 * Variable referencing the last outcome of a check whether this worm can jump,
+	 * or null if there is none.
+	 */
+	private Feasibility jumpCheck = null;
+	
+	/**
+	 * Variable referencing the solution of the jump of the last outcome of a check
+	 * whether this worm can jump, or null if it has not been computed yet.
+	 */
+	private JumpSolution jumpSolution = null;
+	
+	/**
+	 * Variables registering the state version of this worm and the terrain epoch of its world
+	 * at the time of the last check whether this worm can jump.
+	 */
+	private long jumpCheckVersion, jumpCheckEpoch;
+	
+	/**
+	 * Return the plan of a move of this worm in its current state,
+	 * or null if this worm cannot move.
+	 * 	The plan is computed once and kept until the state version of this worm
+	 * 	or the terrain epoch of its world changes.
+	 * 
+	 * @return	| result.equals(super.getMovePlan())
+	 */
+	@Override
+	public MovePlan getMovePlan(){
+		long epoch = (getWorld() == null) ? -1 : getWorld().getTerrainEpoch();
+		if(movePlanVersion != stateVersion || movePlanEpoch != epoch){
+			movePlan = super.getMovePlan();
+			movePlanVersion = stateVersion;
+			movePlanEpoch = epoch;
+		}
+		return movePlan;
+	}
+	
+	/**
+	 * Variable referencing the plan of a move of this worm at the time it was last
+	 * computed, or null if this worm could not move then.
+	 */
+	private MovePlan movePlan = null;
+	
+	/**
+	 * Variables registering the state version of this worm and the terrain epoch of its world
+	 * at the time the plan of a move of this worm was last computed.
+	 * 	A version of -1 means that no plan has been computed yet.
+	 */
+	private long movePlanVersion = -1, movePlanEpoch;
 }
-
@@ -37,21 +37,87 @@ public abstract class WormPosition extends Position{
 	
 	/**
 	 * Check whether the worm can move or not.
+	 * 
+	 * @return	| result == (getMovePlan() != null)
 	 */
-	//TODO documentation
 	@Raw
 	public boolean canMove() 
 	{
-		double testDirection = this.getDirection() + 0.7875;
+		return getMovePlan() != null;
+	}
+	
+	/**
+	 * Return the plan of a move of the worm in its current state,
+	 * or null if the worm cannot move.
+	 * 	The directions up to 0.7875 on either side of the direction of the worm are swept
+	 * 	once, in steps of 0.0175. The plan covers the largest possible distance, in the
+	 * 	direction closest to the direction of the worm among those with that distance.
+	 * 
+	 * @return	| if(getWorld() == null || move_newDistance(direction) == -2 for every direction swept)
+	 * 			|	then result == null
+	 * 			| else result.getDistance() == the largest move_newDistance(direction) swept &&
+	 * 			|	result.getTargetX() == move_CalculateX(result.getDirection(), result.getDistance()) &&
+	 * 			|	result.getTargetY() == move_CalculateY(result.getDirection(), result.getDistance()) &&
+	 * 			|	result.getActionPointCost() == (int) Math.ceil(Math.abs(Math.cos(result.getDirection()))
+	 * 			|		+ Math.abs(Math.sin(4*result.getDirection())))
+	 */
+	public MovePlan getMovePlan(){
+		if(getWorld() == null)
+			return null;
+		//find the highest possible distance in a valid direction.
+			//use tempDirection to cycle through all the valid directions
+			// and store the direction with the highest distance in bestDirection
+				//initiate the bestDirection with an invalid direction.
+		double bestDirection = -1; 
+		double tempDirection = this.getDirection() - 0.7875;
+		double tempDistance = -1;
+		double bestDistance = -1;
 		
-		while(testDirection >= this.getDirection() - 0.7875)
+		//cycle through the different possible directions.
+		while(tempDirection <= getDirection() + 0.7875)
 		{
-			if(this.move_newDistance(testDirection) != -2){
-				return true;
+			tempDistance = move_newDistance(tempDirection);
+			if( tempDistance > bestDistance )
+			{
+				bestDistance = tempDistance; 
+				bestDirection = tempDirection ;
 			}
-			testDirection -= 0.0175;
+			if(bestDistance == tempDistance && (Math.abs(getDirection() - bestDirection) 
+												> Math.abs(getDirection() - tempDirection)))
+				bestDirection = tempDirection;	
+							
+			tempDirection += 0.0175;
 		}
-		return false;
+		//no proper distance was found.
+		if(bestDistance == -1)
+			return null;
+		return new MovePlan(bestDirection, bestDistance, 
+				this.move_CalculateX(bestDirection, bestDistance), 
+				this.move_CalculateY(bestDirection, bestDistance),
+				(int) (Math.ceil(Math.abs(Math.cos(bestDirection)) + Math.abs(Math.sin(4*bestDirection)))));
+	}
+	
+	/**
+	 * Check whether the worm can move, without throwing an exception if it cannot.
+	 * 
+	 * @return	| if(getWorld() == null)
+	 * 			|	then result.getStatus() == ActionStatus.NO_WORLD
+	 * 			| else if(getCurrentActionPoints() == 0)
+	 * 			|	then result.getStatus() == ActionStatus.NO_ACTION_POINTS
+	 * 			| else if(getMovePlan() == null)
+	 * 			|	then result.getStatus() == ActionStatus.BLOCKED
+	 * 			| else result.isFeasible() && 
+	 * 			|	result.getValue() == getMovePlan().getActionPointCost()
+	 */
+	public Feasibility checkMove(){
+		if(getWorld() == null)
+			return Feasibility.infeasible(ActionStatus.NO_WORLD);
+		if(getCurrentActionPoints() == 0)
+			return Feasibility.infeasible(ActionStatus.NO_ACTION_POINTS);
+		MovePlan plan = getMovePlan();
+		if(plan == null)
+			return Feasibility.infeasible(ActionStatus.BLOCKED);
+		return Feasibility.feasible(plan.getActionPointCost());
 	}
 	
 	/**
@@ -79,15 +145,120 @@ public abstract class WormPosition extends Position{
 	 */
 	public double[] getJumpStep(double t) 
 			throws IllegalActionPointsException, IllegalDirectionException
+	{
+		double[] position = {jumpX(t), jumpY(t)};
+		return position;
+	}
+	
+	/**
+	 * Return the x-coordinate of the worm at a given time in a jump.
+	 * 
+	 * @param 	t
+	 * 			The time to check the position of the worm.
+	 * @return	| result == getX() + getInitialVelocity() * Math.cos(this.getWorm().getDirection()) * t
+	 * @throws	IllegalActionPointsException(0,worm)
+	 * 			| getCurrentActionPoints() == 0
+	 * @throws 	IllegalDirectionException(worm.getDirection(),worm)
+	 * 			| Math.PI < getDirection()
+	 */
+	public double jumpX(double t)
+			throws IllegalActionPointsException, IllegalDirectionException
 	{
 		//max horizontalVelocity/verticalVelocity = 
 		//7.5 * 1 = 7.5 (see getinitialVelocity for more explanation)
-		double horizontalVelocity = getInitialVelocity() * Math.cos(this.getDirection());
-		double xPosition = getX() + horizontalVelocity * t;
-		double verticalVelocity = getInitialVelocity() * Math.sin(this.getDirection());
-		double yPosition = getY() + verticalVelocity*t - (STANDARD_ACCELERATION*Math.pow(t,2))/2.0;
-		double[] position = {xPosition, yPosition};
-		return position;
+		return Trajectory.getX(getX(), getJumpVelocityX(), t);
+	}
+	
+	/**
+	 * Return the y-coordinate of the worm at a given time in a jump.
+	 * 
+	 * @param 	t
+	 * 			The time to check the position of the worm.
+	 * @return	| result == getY() + getInitialVelocity() * Math.sin(this.getWorm().getDirection())*t - 
+	 * 			|		(STANDARD_ACCELERATION*Math.pow(t,2))/2.0
+	 * @throws	IllegalActionPointsException(0,worm)
+	 * 			| getCurrentActionPoints() == 0
+	 * @throws 	IllegalDirectionException(worm.getDirection(),worm)
+	 * 			| Math.PI < getDirection()
+	 */
+	public double jumpY(double t)
+			throws IllegalActionPointsException, IllegalDirectionException
+	{
+		return Trajectory.getY(getY(), getJumpVelocityY(), STANDARD_ACCELERATION, t);
+	}
+	
+	/**
+	 * Store the positions of the worm at the given number of evenly spread times in a jump,
+	 * up to the given end time, in the given array.
+	 * 	The positions are those at the times i*tEnd/n for i from 1 up to n, with the
+	 * 	x-coordinate and y-coordinate of each position after each other.
+	 * 
+	 * @param 	out
+	 * 			The array to store the positions in, at least 2*n long.
+	 * @param 	n
+	 * 			The number of positions to store.
+	 * @param 	tEnd
+	 * 			The time of the last position to store.
+	 * @post	| for each i in 1..n:
+	 * 			|	new.out[2*(i-1)] == jumpX(i*tEnd/n) && new.out[2*(i-1)+1] == jumpY(i*tEnd/n)
+	 * @throws	IllegalArgumentException("The given array is too short.")
+	 * 			| n < 0 || out.length < 2*n
+	 * @throws	IllegalActionPointsException(0,worm)
+	 * 			| getCurrentActionPoints() == 0
+	 * @throws 	IllegalDirectionException(worm.getDirection(),worm)
+	 * 			| Math.PI < getDirection()
+	 */
+	public void sampleTrajectory(double[] out, int n, double tEnd)
+			throws IllegalArgumentException, IllegalActionPointsException, IllegalDirectionException
+	{
+		if(n < 0 || out.length < 2*n)
+			throw new IllegalArgumentException("The given array is too short.");
+		double horizontalVelocity = getJumpVelocityX(), verticalVelocity = getJumpVelocityY();
+		for(int i = 1; i <= n; i++){
+			double t = i * tEnd / n;
+			out[2*(i-1)] = Trajectory.getX(getX(), horizontalVelocity, t);
+			out[2*(i-1)+1] = Trajectory.getY(getY(), verticalVelocity, STANDARD_ACCELERATION, t);
+		}
+	}
+	
+	/**
+	 * Return the trajectory of a jump of the worm in its current direction
+	 * with its remaining action points.
+	 * 
+	 * @return	| result.getX(t) == getJumpStep(t)[0] && result.getY(t) == getJumpStep(t)[1]
+	 * @throws	IllegalActionPointsException(0,worm)
+	 * 			| getCurrentActionPoints() == 0
+	 * @throws 	IllegalDirectionException(worm.getDirection(),worm)
+	 * 			| Math.PI < getDirection()
+	 */
+	public Trajectory getJumpTrajectory()
+			throws IllegalActionPointsException, IllegalDirectionException
+	{
+		return new Trajectory(getX(), getY(), getJumpVelocityX(), getJumpVelocityY(), STANDARD_ACCELERATION);
+	}
+	
+	/**
+	 * Return the horizontal component of the initial velocity of a jump of the worm.
+	 * 
+	 * @return	| result == getInitialVelocity() * Math.cos(this.getDirection())
+	 */
+	@Model
+	private double getJumpVelocityX()
+			throws IllegalActionPointsException, IllegalDirectionException
+	{
+		return getInitialVelocity() * Math.cos(this.getDirection());
+	}
+	
+	/**
+	 * Return the vertical component of the initial velocity of a jump of the worm.
+	 * 
+	 * @return	| result == getInitialVelocity() * Math.sin(this.getDirection())
+	 */
+	@Model
+	private double getJumpVelocityY()
+			throws IllegalActionPointsException, IllegalDirectionException
+	{
+		return getInitialVelocity() * Math.sin(this.getDirection());
 	}
 	
 	/**
@@ -105,21 +276,69 @@ public abstract class WormPosition extends Position{
 	 * @throws 	IllegalDirectionException(worm.getDirection(),worm)
 	 * 			It is not possible to perform a jump (and have an initial velocity for a jump)
 	 * 			if the direction of the worm is greater than pi.
-	 * 			| Math.PI < worm.getDirection()
+	 * 			| Math.PI < worm.getDirection() || !checkJump().isFeasible()
+	 * @throws	NullPointerException
+	 * 			| checkJump().getStatus() == ActionStatus.NO_WORLD
 	 */
 	//TODO documentatie veranderen!!!
 	public double getJumpTime() 
 			throws IllegalActionPointsException, IllegalDirectionException
 	{
-		double[] tempXY = {getX(),getY()};
+		Feasibility jump = checkJump();
+		if(jump.getStatus() == ActionStatus.NO_ACTION_POINTS)
+			throw new IllegalActionPointsException(0);
+		if(jump.getStatus() == ActionStatus.NO_WORLD)
+			throw new NullPointerException();
+		if(!jump.isFeasible())
+			throw new IllegalDirectionException(this.getDirection());
+		return jump.getValue();
+	}
+	
+	/**
+	 * Check whether the worm can jump in its current direction with its remaining
+	 * action points, without throwing an exception if it cannot.
+	 * 
+	 * @return	If the worm can jump, a feasible outcome with the time needed for the jump.
+	 * 			| if(getCurrentActionPoints() == 0)
+	 * 			|	then result.getStatus() == ActionStatus.NO_ACTION_POINTS
+	 * 			| else if(Math.PI < getDirection())
+	 * 			|	then result.getStatus() == ActionStatus.INVALID_DIRECTION
+	 * 			| else if(getWorld() == null)
+	 * 			|	then result.getStatus() == ActionStatus.NO_WORLD
+	 * 			| else if(the jump does not clear the terrain the worm stands on)
+	 * 			|	then result.getStatus() == ActionStatus.BLOCKED
+	 * 			| else result.isFeasible() && result.getValue() == the time needed for the jump
+	 */
+	public Feasibility checkJump(){
+		if(getCurrentActionPoints() == 0)
+			return Feasibility.infeasible(ActionStatus.NO_ACTION_POINTS);
+		if(Math.PI < getDirection())
+			return Feasibility.infeasible(ActionStatus.INVALID_DIRECTION);
+		if(getWorld() == null)
+			return Feasibility.infeasible(ActionStatus.NO_WORLD);
+		double time = solveJumpTime();
+		if(time < 0)
+			return Feasibility.infeasible(ActionStatus.BLOCKED);
+		return Feasibility.feasible(time);
+	}
+	
+	/**
+	 * Return the time needed for a jump of the worm in its current direction with its
+	 * remaining action points, or -1 if the jump does not clear the terrain the worm
+	 * stands on.
+	 * 	The worm must have action points left, a direction of at most pi and a world.
+	 */
+	@Model
+	private double solveJumpTime()
+	{
+		double tempX = getX(), tempY = getY();
 		double radius = this.getRadius();
 		
 		// This temporary variable has to be incremented with a really small value, 
 		// with this part of the method we make sure the tempX and tempY are no longer
 		// at a adjacent location so we can detect to real collision in the next part 
 		// and not the initial position. We also check if the jump in the current 
-		// direction is worth to do it, if not, this method throws
-		// an IllegalDirectionException.
+		// direction is worth to do it, if not, this method returns -1.
 		
 		// We have chosen (1/4)/getInitialVelocity() because with the maximum horizontal or
 		// vertical velocity the worm can only move +- 0.25 meter in the horizontal or vertical
@@ -127,38 +346,54 @@ public abstract class WormPosition extends Position{
 		// any impassable point of the map.
 		double temp = (1/4.0)/getInitialVelocity();
 		double tempTime = 0.0;
-		while(this.getWorld().isAdjacent(tempXY[0], tempXY[1], radius) && tempTime < (1/2.0)){
+		while(this.getWorld().isAdjacent(tempX, tempY, radius) && tempTime < (1/2.0)){
 			tempTime = tempTime + temp;
-			tempXY = getJumpStep(tempTime);
+			tempX = jumpX(tempTime);
+			tempY = jumpY(tempTime);
 		}
-		if(this.getWorld().isImpassable(tempXY[0], tempXY[1], radius))
-			throw new IllegalDirectionException(this.getDirection());
+		if(this.getWorld().isImpassable(tempX, tempY, radius))
+			return -1;
 		
-		// if 'temp' is smaller than 1/8100 the worm will leave the world because there is no
-		// possible adjacent position.
-		while(!this.getWorld().isAdjacent(tempXY[0], tempXY[1], radius) && temp >= (1/8100.0)){
-			while(!this.getWorld().isImpassable(tempXY[0], tempXY[1], radius)){
-				tempTime = tempTime + temp;
-				tempXY = getJumpStep(tempTime);
-			}
-			temp = temp / 3.0;
-			while(this.getWorld().isImpassable(tempXY[0], tempXY[1], radius)){
-				tempTime = tempTime - temp;
-				tempXY = getJumpStep(tempTime);
-			}
-			temp = temp / 3.0;
+		// The worm is now clear of the terrain it jumped from; the world traces it along
+		// its trajectory up to the time it makes contact with impassable terrain again,
+		// or with the border of the world. All steps of size 'temp' up to that contact
+		// are passable, so they are skipped at once.
+		// From there on, the worm steps into the terrain and back out of it with ever
+		// smaller steps until it is adjacent to the terrain, so that it lands in the
+		// same place as when it would have walked the whole way in steps of size 'temp'.
+		// If 'temp' is smaller than 1/8100 the worm will leave the world because there
+		// is no possible adjacent position.
+		if(!this.getWorld().isAdjacent(tempX, tempY, radius)){
+			double contact = this.getWorld().sweepTrajectory(getJumpTrajectory(), tempTime, radius);
+			tempTime = tempTime + Math.floor((contact - tempTime)/temp)*temp;
+			tempX = jumpX(tempTime);
+			tempY = jumpY(tempTime);
+			do{
+				while(!this.getWorld().isImpassable(tempX, tempY, radius)){
+					tempTime = tempTime + temp;
+					tempX = jumpX(tempTime);
+					tempY = jumpY(tempTime);
+				}
+				temp = temp / 3.0;
+				while(this.getWorld().isImpassable(tempX, tempY, radius)){
+					tempTime = tempTime - temp;
+					tempX = jumpX(tempTime);
+					tempY = jumpY(tempTime);
+				}
+				temp = temp / 3.0;
+			} while(!this.getWorld().isAdjacent(tempX, tempY, radius) && temp >= (1/8100.0));
 		}
-		if(!this.getWorld().isAdjacent(tempXY[0], tempXY[1], radius)){
+		if(!this.getWorld().isAdjacent(tempX, tempY, radius)){
 			if(tempTime < Math.PI)
 				return Math.PI;
 			else
 				return 2*Math.PI;
 		}
 		
-		if(Math.pow(Math.pow(tempXY[0] - getX(),2.0) + 
-				Math.pow(tempXY[1] - getY(), 2.0), (1.0/2.0))
+		if(Math.pow(Math.pow(tempX - getX(),2.0) + 
+				Math.pow(tempY - getY(), 2.0), (1.0/2.0))
 				< radius){
-			throw new IllegalDirectionException(this.getDirection());
+			return -1;
 		}
 		
 		return tempTime;
@@ -178,8 +413,8 @@ public abstract class WormPosition extends Position{
 	 * 			food can be eaten.
 	 * 			| if(getJumpTime() != Math.PI && getJumpTime() != 2*Math.PI)
 	 * 			| 	then (
-	 * 			|		setX(getJumpStep(getJumpTime())[0]) &&
-	 * 			| 		setY(getJumpStep(getJumpTime())[1]) &&
+	 * 			|		setX(jumpX(getJumpTime())) &&
+	 * 			| 		setY(jumpY(getJumpTime())) &&
 	 * 			| 		eatPossibleFood())
 	 * 			|	)
 	 * @effect	If the time needed for the jump does equal pi or two
@@ -193,9 +428,8 @@ public abstract class WormPosition extends Position{
 			throws IllegalActionPointsException, IllegalDirectionException, IllegalPositionException
 	{
 		double time = getJumpTime();
-		double[] tempXY = getJumpStep(time);
 		if(time != Math.PI && time != 2*Math.PI){
-			setPosition(tempXY[0], tempXY[1]);
+			setPosition(jumpX(time), jumpY(time));
 			eatPossibleFood();
 		}
 		this.setCurrentActionPoints(0);
@@ -205,49 +439,20 @@ public abstract class WormPosition extends Position{
 	
 	/**
 	 * Moves the worm in the current direction of the worm. 
+	 * 
+	 * @effect	| setPosition(getMovePlan().getTargetX(), getMovePlan().getTargetY())
+	 * @effect	| reduceCurrentActionPoints(getMovePlan().getActionPointCost())
+	 * @effect	| eatPossibleFood()
+	 * @throws	IllegalDirectionException(getDirection())
+	 * 			| getMovePlan() == null
 	 */
-	//TODO documentation
 	public void move()
 		throws IllegalDirectionException, IllegalPositionException{
-		//find the highest possible distance in a valid direction.
-			//use tempDirection to cycle through all the valid directions
-			// and store the direction with the highest distance in bestDirection
-				//initiate the bestDirection with an invalid direction.
-		double bestDirection = -1; 
-		double tempDirection = this.getDirection() - 0.7875;
-		double tempDistance = -1;
-		double bestDistance = -1;
-	
-		
-		//check whether the worm can Move
-		if(!this.canMove())
-			throw new IllegalDirectionException(this.getDirection());;
-		
-		//cycle through the different possible directions.
-		while(tempDirection <= getDirection() + 0.7875)
-		{
-			tempDistance = move_newDistance(tempDirection);
-			if( tempDistance > bestDistance )
-			{
-				bestDistance = tempDistance; 
-				bestDirection = tempDirection ;
-			}
-			if(bestDistance == tempDistance && (Math.abs(getDirection() - bestDirection) 
-												> Math.abs(getDirection() - tempDirection)))
-				bestDirection = tempDirection;	
-							
-			tempDirection += 0.0175;
-		}
-		//throw exception if no proper distance was found.
-		if(bestDistance == -1)
+		MovePlan plan = this.getMovePlan();
+		if(plan == null)
 			throw new IllegalDirectionException(this.getDirection());
-	
-		//find the proper x and y coordinate and move the worm to this place.
-		
-		setPosition(this.move_CalculateX(bestDirection, bestDistance), 
-						this.move_CalculateY(bestDirection, bestDistance));
-		this.reduceCurrentActionPoints((int) (Math.ceil(Math.abs(Math.cos(bestDirection))
-				+ Math.abs(Math.sin(4*bestDirection)))));
+		setPosition(plan.getTargetX(), plan.getTargetY());
+		this.reduceCurrentActionPoints(plan.getActionPointCost());
 		eatPossibleFood();
 	}
 	
@@ -259,6 +464,15 @@ public abstract class WormPosition extends Position{
 		double radius = this.getRadius();
 		double tempY = getY();
 		double temp = 0.5;
+		// skip the steps of the first descent that are known to keep the worm falling.
+		if(inMap(getX(),tempY)){
+			double freeFall = getWorld().getFreeFallHeight(getX(), tempY, radius);
+			int steps = (int)Math.floor((tempY - Math.max(freeFall, radius))/temp);
+			while(steps > 0 && !(tempY - steps*temp >= freeFall && tempY - steps*temp > radius))
+				steps--;
+			if(steps > 0)
+				tempY -= steps*temp;
+		}
 		while(canFall(getX(),tempY) && temp >= (1.0/500.0)){
 			while(inMap(getX(),tempY) && canFall(getX(),tempY))
 				tempY -= temp;
@@ -369,33 +583,30 @@ public abstract class WormPosition extends Position{
 	/**
 	 * Calculates the next possible distance for the move method in a certain direction.
 	 * Returns -2 if there is no possible distance.
+	 * 	The possible distances go down from the radius of the worm in steps of 0.02,
+	 * 	the largest one whose end position is passable is chosen, so that a worm can
+	 * 	move over small bumps and thin walls.
+	 * 
+	 * @param	direction
+	 * 			The direction to move in.
+	 * @return	| if(!canMove_Aux(direction) || no possible distance is passable)
+	 * 			|	then result == -2
+	 * 			| else result == the largest possible distance
+	 * 			|	with !getWorld().isImpassable(move_CalculateX(direction, result),
+	 * 			|		move_CalculateY(direction, result), getRadius())
 	 */
-	//TODO documentation
 	@Model
 	private double move_newDistance(double direction)
 	{
-		//find the highest possible distance which is in a passable location.
-			//initialize the testDistance with the maximum distance
-		
-			//keep reducing the testDistance by a small amount
-			//untill it finds a passable location.
-		boolean flag = false;
-		double testX = 0, testY = 0;
-		double testDistance;
-		for(testDistance = this.getRadius(); testDistance >= 0.1 && flag == false ; testDistance -= 0.02)
+		if(!canMove_Aux(direction))
+			return -2;
+		double radius = this.getRadius();
+		for(double testDistance = radius; testDistance >= 0.1; testDistance -= 0.02)
 		{
-			testX = move_CalculateX(direction, testDistance);
-			testY = move_CalculateY(direction, testDistance);
-			if(canMove_Aux (direction) && !this.getWorld().isImpassable(testX, testY, this.getRadius()))
-			{
-				flag = true;
+			if(!this.getWorld().isImpassable(
+					move_CalculateX(direction, testDistance), move_CalculateY(direction, testDistance), radius))
 				return testDistance;
-			}
 		}
-		if(flag == false)
-			return -2;
-		if(canMove_Aux(direction))
-			return testDistance;
 		return -2;
 	}
 	
@@ -445,8 +656,8 @@ public abstract class WormPosition extends Position{
 	 */
 	@Model
 	private void eatPossibleFood(){
-		if(this.getWorld().hitAnyFood(getX(),getY(),this.getRadius()) != null){
-			Food food = this.getWorld().hitAnyFood(getX(),getY(),this.getRadius());
+		Food food = this.getWorld().hitAnyFood(getX(),getY(),this.getRadius());
+		if(food != null){
 			food.deactivate();
 			this.growInRadius();
 		}
@@ -2,6 +2,10 @@ package worms.model;
 
 import static org.junit.Assert.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
 import java.util.Random;
 
 import org.junit.*;
@@ -201,6 +205,39 @@ public class WormTest {
 		assertTrue(worm.getWeapon().getCurrentWeapon() == null);
 	}
 	
+	@Test
+	public void weaponTypes_readCatalog() throws IOException{
+		List<WeaponType> types = WeaponType.read(new BufferedReader(new StringReader(
+				"# name mass minimal maximal cost damage blast\n\nSniper 0.020 3 5 30 60 0\n")));
+		assertEquals(1, types.size());
+		assertTrue(types.get(0).getName() == "Sniper");
+		assertEquals(30, types.get(0).getActionPointCost());
+		assertEquals(100.0, types.get(0).getInitialVelocity(50), 1e-9);
+		assertEquals(Math.pow(0.75*0.020/(WeaponType.DENSITY*Math.PI), 1/3.0), types.get(0).getRadius(), 1e-12);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void weaponTypes_invalidLine() throws IOException{
+		WeaponType.read(new BufferedReader(new StringReader("Sniper 0.020 5 3 30 60 0\n")));
+	}
+	
+	@Test
+	public void sampleTrajectory_matchesJumpStep(){
+		Worm worm = new Worm(1, 2, Math.PI/4, 1, "Test");
+		double[] out = new double[10];
+		worm.sampleTrajectory(out, 5, 1.5);
+		for(int i = 1; i <= 5; i++){
+			double[] step = worm.getJumpStep(i*1.5/5);
+			assertTrue(out[2*(i-1)] == step[0] && out[2*(i-1)+1] == step[1]);
+			assertTrue(worm.jumpX(i*1.5/5) == step[0] && worm.jumpY(i*1.5/5) == step[1]);
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void sampleTrajectory_shortArray(){
+		new Worm(1, 2, Math.PI/4, 1, "Test").sampleTrajectory(new double[9], 5, 1.5);
+	}
+	
 	@Test
 	public void reduceCurrentActionPoints(){
 		Worm worm = new Worm(1, 2, Math.PI/2, 1, "Test");
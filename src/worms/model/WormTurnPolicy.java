@@ -0,0 +1,22 @@
+package worms.model;
+
+/**
+ * A class of turn policies that give the turn to each worm in turn, in the order
+ * in which the worms were added to their world.
+ * 	Passing the turn takes constant time.
+ *
+ * @version 1.0
+ * @author 	Laurens Loots, Pieter Vos
+ */
+public class WormTurnPolicy implements TurnPolicy {
+
+	/**
+	 * Return the worm of the given world that follows the given worm in its turn order.
+	 *
+	 * @return	| result == world.getTurnSuccessor(current)
+	 */
+	@Override
+	public Worm getNextWorm(World world, Worm current){
+		return world.getTurnSuccessor(current);
+	}
+}